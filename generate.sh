@@ -12,9 +12,2191 @@ long LongBuffer Long
 short ShortBuffer Short
 EOF
 
+# Prints the correct size, padding before, padding after, and padding both enum constants for a family of variants.
+#
+# $1 constant name prefix, e.g. DIRECT
+# $2 description used in the javadoc, e.g. direct
+# $3 function used to allocate a buffer with a given capacity
+# $4 extra arguments passed to the allocation function after the capacity
+# $5 byte order and traits shared by the family, e.g. ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT
+padding_constants() {
+local before_pad after_pad both_pad
+before_pad=$(printf '%*s' $((16 + ${#1})) '')
+after_pad=$(printf '%*s' $((15 + ${#1})) '')
+both_pad=$(printf '%*s' $((14 + ${#1})) '')
+cat << EOF
+    /**
+     * Allocates $2 ${BUFFER_TYPE}s of the correct size.
+     */
+    $1_CORRECT_SIZE($5) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            return $3(length$4);
+        }
+    },
+    /**
+     * Allocates $2 ${BUFFER_TYPE}s with padding before the data.
+     */
+    $1_PADDING_BEFORE($5,
+    ${before_pad}BufferTrait.PADDED_BEFORE) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            ${BUFFER_TYPE} buffer = $3(Sizes.add(length, 10)$4);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates $2 ${BUFFER_TYPE}s with padding after the data.
+     */
+    $1_PADDING_AFTER($5,
+    ${after_pad}BufferTrait.PADDED_AFTER) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            ${BUFFER_TYPE} buffer = $3(Sizes.add(length, 10)$4);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates $2 ${BUFFER_TYPE}s with padding before and after the data.
+     */
+    $1_PADDING_BOTH($5,
+    ${both_pad}BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            ${BUFFER_TYPE} buffer = $3(Sizes.add(length, 20)$4);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+EOF
+}
+
+# Prints an enum constant for a view variant whose first element is at a non-zero offset of the underlying ByteBuffer.
+#
+# $1 constant name prefix, e.g. HEAP_VIEW_BIG_ENDIAN
+# $2 description used in the javadoc, e.g. big-endian heap view
+# $3 byte order of the underlying ByteBuffer
+non_zero_offset_view_constant() {
+cat << EOF
+    /**
+     * Allocates $2 ${BUFFER_TYPE}s with correct size, but starting at a non-zero offset
+     * of the underlying ByteBuffer.
+     */
+    $1_NON_ZERO_OFFSET($3, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            ByteBuffer bytes = ByteBuffer.allocate(Sizes.bytes(Sizes.add(length, 10), ${BOXED_TYPE}.BYTES));
+            bytes.position(10 * ${BOXED_TYPE}.BYTES);
+            return bytes.order($3)${AS_BUFFER_FUNC};
+        }
+    },
+EOF
+}
+
+# Prints an enum constant for a native-order direct view variant whose elements are not naturally aligned.
+#
+# $1 offset of the first element within the underlying ByteBuffer, in bytes
+misaligned_constant() {
+cat << EOF
+    /**
+     * Allocates native-order direct ${BUFFER_TYPE}s of the correct size, starting $1 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_$1(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public ${BUFFER_TYPE} allocate(final int length) {
+            return allocateDirectMisaligned(length, $1);
+        }
+    },
+EOF
+}
+
+# Prints the methods of the ${BUFFER_TYPE}s utility class which fill a buffer from a generator, or copy it on a
+# ForkJoinPool, shared by the Java 8 and Java 16 versions.
+fill_methods() {
+cat << EOF
+
+    /**
+     * Sets each remaining element of {@code dst} to the result of the generator for its index relative to the
+     * position${NARROW_DOC}. The generator is called in ascending index order. The position, limit, and mark of
+     * {@code dst} are unchanged.
+     *
+     * @param dst       buffer to fill
+     * @param generator computes the element at each index
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void fill(final ${BUFFER_TYPE} dst, final ${GENERATOR} generator) {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        fill(dst, generator, 0, dst.remaining());
+    }
+
+    /**
+     * Sets each remaining element of {@code dst} to the result of the generator for its index relative to the
+     * position${NARROW_DOC}. Buffers with more than {@link #PARALLEL_FILL_THRESHOLD} elements are split
+     * into ranges filled by the tasks of {@code pool}, so the generator may be called concurrently, and in any order.
+     * The position, limit, and mark of {@code dst} are unchanged.
+     *
+     * @param dst       buffer to fill
+     * @param generator computes the element at each index, must be safe to call from multiple threads
+     * @param pool      pool filling the ranges of large buffers
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void fill(final ${BUFFER_TYPE} dst, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int length = dst.remaining();
+        if (length <= PARALLEL_FILL_THRESHOLD) {
+            fill(dst, generator, 0, length);
+        } else {
+            pool.invoke(new Fill(dst, generator, 0, length));
+        }
+    }
+
+    /**
+     * Sets a range of the elements of {@code dst} to the results of the generator, with absolute puts, so that
+     * ranges can be filled concurrently.
+     *
+     * @param dst       writable buffer to fill
+     * @param generator computes the element at each index
+     * @param from      first index to fill, relative to the position of {@code dst}
+     * @param to        index after the last index to fill, relative to the position of {@code dst}
+     */
+    private static void fill(final ${BUFFER_TYPE} dst,
+                             final ${GENERATOR} generator,
+                             final int from,
+                             final int to) {
+        if (dst.hasArray()) {
+            ${ARRAY_TYPE}[] array = dst.array();
+            int base = dst.arrayOffset() + dst.position();
+            for (int i = from; i < to; i++) {
+                array[base + i] = ${NARROW}generator.${APPLY}(i);
+            }
+        } else {
+            int position = dst.position();
+            for (int i = from; i < to; i++) {
+                dst.put(position + i, ${NARROW}generator.${APPLY}(i));
+            }
+        }
+    }
+
+    /**
+     * Fills a range of a buffer, splitting it in half until the ranges are small enough.
+     */
+    private static final class Fill extends RecursiveAction {
+        /**
+         * Buffer to fill.
+         */
+        private final ${BUFFER_TYPE} dst;
+        /**
+         * Computes the element at each index.
+         */
+        private final ${GENERATOR} generator;
+        /**
+         * First index to fill, relative to the position of {@link #dst}.
+         */
+        private final int from;
+        /**
+         * Index after the last index to fill, relative to the position of {@link #dst}.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param dst       buffer to fill
+         * @param generator computes the element at each index
+         * @param from      first index to fill, relative to the position of {@code dst}
+         * @param to        index after the last index to fill, relative to the position of {@code dst}
+         */
+        Fill(final ${BUFFER_TYPE} dst, final ${GENERATOR} generator, final int from, final int to) {
+            this.dst = dst;
+            this.generator = generator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_FILL_THRESHOLD) {
+                fill(dst, generator, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Fill(dst, generator, from, middle), new Fill(dst, generator, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. Both
+     * buffers are split into slices of at most {@code sliceLength} elements, which are copied by the tasks of
+     * {@code pool}. The positions, limits, and marks of both buffers are unchanged.
+     *
+     * @param src         buffer to copy from
+     * @param dst         buffer to copy into
+     * @param pool        pool copying the slices
+     * @param sliceLength maximum number of elements copied by each task
+     * @throws BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copy(final ${BUFFER_TYPE} src, final ${BUFFER_TYPE} dst, final ForkJoinPool pool, final int sliceLength) {
+        int length = src.remaining();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (length <= sliceLength) {
+            copy(src, dst);
+        } else {
+            // slices have their own positions, so the tasks don't move the positions of src and dst
+            pool.invoke(new Copy(src.slice(), slice(dst, 0, length), sliceLength));
+        }
+    }
+
+    /**
+     * Creates a buffer sharing a range of the remaining elements of a buffer.
+     *
+     * @param buffer buffer to slice, which is unchanged
+     * @param from   index of the first element of the slice, relative to the position of {@code buffer}
+     * @param to     index after the last element of the slice, relative to the position of {@code buffer}
+     * @return slice
+     */
+    private static ${BUFFER_TYPE} slice(final ${BUFFER_TYPE} buffer, final int from, final int to) {
+        ${BUFFER_TYPE} duplicate = buffer.duplicate();
+        duplicate.limit(buffer.position() + to);
+        duplicate.position(buffer.position() + from);
+        return duplicate.slice();
+    }
+
+    /**
+     * Copies a slice of a buffer, splitting it in half until the slices are small enough.
+     */
+    private static final class Copy extends RecursiveAction {
+        /**
+         * Slice to copy from.
+         */
+        private final ${BUFFER_TYPE} src;
+        /**
+         * Slice to copy into, with as many elements as {@link #src}.
+         */
+        private final ${BUFFER_TYPE} dst;
+        /**
+         * Maximum number of elements copied by each task.
+         */
+        private final int sliceLength;
+
+        /**
+         * Constructor.
+         *
+         * @param src         slice to copy from
+         * @param dst         slice to copy into, with as many elements as {@code src}
+         * @param sliceLength maximum number of elements copied by each task
+         */
+        Copy(final ${BUFFER_TYPE} src, final ${BUFFER_TYPE} dst, final int sliceLength) {
+            this.src = src;
+            this.dst = dst;
+            this.sliceLength = sliceLength;
+        }
+
+        @Override
+        protected void compute() {
+            int length = src.remaining();
+            if (length <= sliceLength) {
+                copy(src, dst);
+            } else {
+                int middle = length >>> 1;
+                invokeAll(new Copy(slice(src, 0, middle), slice(dst, 0, middle), sliceLength),
+                          new Copy(slice(src, middle, length), slice(dst, middle, length), sliceLength));
+            }
+        }
+    }
+EOF
+}
+
 while read ARRAY_TYPE BUFFER_TYPE BOXED_TYPE; do
 
-cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}Factory.java"
+# read-only factories specific to one buffer type, appended to readOnlyFactories()
+if [ "${ARRAY_TYPE}" == "char" ]; then
+    TYPE_READ_ONLY_FACTORIES="
+        readOnly.addAll(Arrays.asList(CharSequenceCharBufferFactory.values()));"
+    TYPE_READ_ONLY_CHECK="
+               || factory instanceof CharSequenceCharBufferFactory"
+    TYPE_TRAITS_CHECK="
+        if (factory instanceof CharSequenceCharBufferFactory) {
+            return ((CharSequenceCharBufferFactory) factory).traits();
+        }"
+else
+    TYPE_READ_ONLY_FACTORIES=""
+    TYPE_READ_ONLY_CHECK=""
+    TYPE_TRAITS_CHECK=""
+fi
+
+# elements of interned copies are compared by their bits, so that e.g. 0.0 and -0.0 aren't shared
+case "${ARRAY_TYPE}" in
+    float)
+        BITS_OPEN="Float.floatToRawIntBits("; BITS_CLOSE=")"; ELEMENT_EQUALITY_DOC=", by their raw bits";;
+    double)
+        BITS_OPEN="Double.doubleToRawLongBits("; BITS_CLOSE=")"; ELEMENT_EQUALITY_DOC=", by their raw bits";;
+    *)
+        BITS_OPEN=""; BITS_CLOSE=""; ELEMENT_EQUALITY_DOC="";;
+esac
+# duplicates of ByteBuffers are big-endian, whatever the order of the original
+if [ "${ARRAY_TYPE}" == "byte" ]; then
+    VIEW_EXPRESSION="shared.duplicate().order(shared.order())"
+else
+    VIEW_EXPRESSION="shared.duplicate()"
+fi
+
+# byte order of heap buffers, and the traits of direct buffers which are views of a ByteBuffer, as the factories
+# declare them
+if [ "${ARRAY_TYPE}" == "byte" ]; then
+    HEAP_ORDER="ByteOrder.BIG_ENDIAN"
+    VIEW_TRAIT=""
+    TYPE_READ_ONLY_ORDER="
+            // asReadOnlyBuffer makes ByteBuffers big-endian, whatever the order of the buffer they view
+            traits.remove(BufferTrait.LITTLE_ENDIAN);
+            traits.add(BufferTrait.BIG_ENDIAN);"
+else
+    HEAP_ORDER="ByteOrder.nativeOrder()"
+    VIEW_TRAIT=", BufferTrait.VIEW"
+    TYPE_READ_ONLY_ORDER=""
+fi
+
+# aligns the parameters of the batch copy method
+BATCH_PAD=$(printf '%*s' $((${#BUFFER_TYPE} * 2)) '')
+
+# aligns the arguments of the read-only factory streams in the registry
+REGISTRY_PAD=$(printf '%*s' ${#BUFFER_TYPE} '')
+
+# aligns the parameters of the parallel factory method
+PARALLEL_PAD=$(printf '%*s' $((2 + ${#BUFFER_TYPE})) '')
+
+# primitive stream and generator types used to fill buffers, the narrower types are narrowed from int or double
+case "${ARRAY_TYPE}" in
+    long)
+        STREAM_ELEMENT="long"; STREAM_PREFIX="Long"; GENERATOR="IntToLongFunction"; APPLY="applyAsLong"
+        CHUNK_GENERATOR="LongUnaryOperator";;
+    double|float)
+        STREAM_ELEMENT="double"; STREAM_PREFIX="Double"; GENERATOR="IntToDoubleFunction"; APPLY="applyAsDouble"
+        CHUNK_GENERATOR="LongToDoubleFunction";;
+    *)
+        STREAM_ELEMENT="int"; STREAM_PREFIX="Int"; GENERATOR="IntUnaryOperator"; APPLY="applyAsInt"
+        CHUNK_GENERATOR="LongToIntFunction";;
+esac
+# aligns the parameters of the chunked allocation method
+CHUNK_PAD=$(printf '%*s' $((35 + ${#BUFFER_TYPE})) '')
+if [ "${ARRAY_TYPE}" == "${STREAM_ELEMENT}" ]; then
+    NARROW=""
+    NARROW_DOC=""
+else
+    NARROW="(${ARRAY_TYPE}) "
+    NARROW_DOC=" (narrowed to ${ARRAY_TYPE})"
+fi
+
+cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+import java.util.function.${CHUNK_GENERATOR};
+import java.util.stream.${STREAM_PREFIX}Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Factory for ${BUFFER_TYPE}s.
+ */
+public interface ${BUFFER_TYPE}Factory extends BufferFactory<${ARRAY_TYPE}[], ${BUFFER_TYPE}> {
+    /**
+     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create non-readonly buffers.
+     *
+     * @return immutable Collection of {@link ${BUFFER_TYPE}Factory}s which create non-readonly buffers
+     */
+    static Collection<${BUFFER_TYPE}Factory> readWriteFactories() {
+        return ${BUFFER_TYPE}Registry.REGISTRY.readWrite();
+    }
+
+    /**
+     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create buffers over {@code MemorySegment}s, each
+     * allocated from its own automatic {@code Arena}. These buffers are direct, but have the liveness and
+     * confinement checks of segments rather than those of {@link java.nio.ByteBuffer#allocateDirect(int)}. Use
+     * {@link SegmentArena} for confined or shared arenas which can be closed.
+     *
+     * @return Collection of segment-backed {@link ${BUFFER_TYPE}Factory}s, empty before Java 21
+     */
+    static Collection<${BUFFER_TYPE}Factory> segmentFactories() {
+        return Segment${BUFFER_TYPE}Factory.auto();
+    }
+
+    /**
+     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create readonly buffers.
+     *
+     * @return immutable Collection of {@link ${BUFFER_TYPE}Factory}s which create readonly buffers
+     */
+    static Collection<${BUFFER_TYPE}Factory> readOnlyFactories() {
+        return ${BUFFER_TYPE}Registry.REGISTRY.readOnly();
+    }
+
+    /**
+     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s.
+     *
+     * @return immutable Collection of {@link ${BUFFER_TYPE}Factory}s
+     */
+    static Collection<${BUFFER_TYPE}Factory> allFactories() {
+        return ${BUFFER_TYPE}Registry.REGISTRY.all();
+    }
+
+    /**
+     * Gets a few of {@link #allFactories()} which, between them, have and lack every {@link BufferTrait} that any of
+     * {@link #allFactories()} has or lacks, e.g. a buffer with an array and one without, a direct buffer and a heap
+     * buffer, each byte order, with and without padding. Testing with these exercises each code path a consumer
+     * takes for one of those traits in a fraction of the time, while {@link #allFactories()} also catches the
+     * combinations of traits.
+     *
+     * @return immutable Collection of {@link ${BUFFER_TYPE}Factory}s, in the order of {@link #allFactories()}
+     */
+    static Collection<${BUFFER_TYPE}Factory> quickFactories() {
+        return ${BUFFER_TYPE}Registry.REGISTRY.quick();
+    }
+
+    /**
+     * Gets the factories of {@link #allFactories()} whose buffers have all of the required traits, and none of the
+     * excluded traits, e.g. {@code factories(EnumSet.of(BufferTrait.DIRECT, BufferTrait.READ_ONLY),
+     * EnumSet.of(BufferTrait.BIG_ENDIAN))}. The traits of each factory are found once, and the result of each query
+     * is cached, so this is cheap enough to call while setting up each test.
+     *
+     * @param required traits every factory must have
+     * @param excluded traits no factory may have
+     * @return immutable Collection of the matching {@link ${BUFFER_TYPE}Factory}s, in the order of
+     *         {@link #allFactories()}
+     */
+    static Collection<${BUFFER_TYPE}Factory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return ${BUFFER_TYPE}Registry.REGISTRY.query(required, excluded);
+    }
+
+    /**
+     * Gets the factories of {@link #allFactories()} whose buffers have all of the required traits.
+     *
+     * @param required traits every factory must have
+     * @return immutable Collection of the matching {@link ${BUFFER_TYPE}Factory}s, in the order of
+     *         {@link #allFactories()}
+     */
+    static Collection<${BUFFER_TYPE}Factory> factories(final BufferTrait... required) {
+        return factories(new HashSet<>(Arrays.asList(required)), Collections.emptySet());
+    }
+
+    /**
+     * Gets the traits of the buffers created by one of {@link #allFactories()}.
+     *
+     * @param factory factory to describe
+     * @return immutable set of the factory's traits
+     * @throws IllegalArgumentException if the factory isn't one of {@link #allFactories()}
+     */
+    static Set<BufferTrait> traits(final ${BUFFER_TYPE}Factory factory) {
+        return ${BUFFER_TYPE}Registry.REGISTRY.traits(factory);
+    }
+
+    /**
+     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create direct buffers whose first element is at each
+     * byte offset within a cache line, as well as buffers which are page aligned, or start 8 bytes before a page
+     * boundary.
+     *
+     * @return Collection of {@link ${BUFFER_TYPE}Factory}s sweeping the alignment of direct buffers
+     */
+    static Collection<${BUFFER_TYPE}Factory> alignmentSweepFactories() {
+        return Aligned${BUFFER_TYPE}Factory.sweep();
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. Unlike
+     * {@link ${BUFFER_TYPE}#put(${BUFFER_TYPE})}, the positions, limits, and marks of both buffers are unchanged, and no
+     * intermediate buffers are allocated.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     * @throws java.nio.BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copyInto(final ${BUFFER_TYPE} src, final ${BUFFER_TYPE} dst) {
+        ${BUFFER_TYPE}s.copy(src, dst);
+    }
+
+    /**
+     * Copies an array with each of {@link #allFactories()}, see {@link #copyOfAll(Collection, ${ARRAY_TYPE}[])}.
+     *
+     * @param array array to copy
+     * @return copy made by each factory, in the order of {@link #allFactories()}
+     */
+    static Map<${BUFFER_TYPE}Factory, ${BUFFER_TYPE}> copyOfAll(final ${ARRAY_TYPE}[] array) {
+        return copyOfAll(allFactories(), array);
+    }
+
+    /**
+     * Copies an array with each factory in a collection, in one call. Each copy has the layout of its factory, and
+     * is equal to {@code ${BUFFER_TYPE}.wrap(array)}, but the copies aren't independent of each other: the copy of a
+     * read-only wrapper of a factory which is also in the collection is a read-only view of that factory's copy, and
+     * the direct memory of all copies is carved out of one slab. This roughly halves the memory allocated and filled
+     * by tests which check every variant. The slab is freed by the garbage collector once no copy refers to it, so
+     * keeping any one direct copy retains the memory of all of them.
+     *
+     * @param factories factories to copy with
+     * @param array     array to copy
+     * @return copy made by each factory, in the order of {@code factories}
+     */
+    static Map<${BUFFER_TYPE}Factory, ${BUFFER_TYPE}> copyOfAll(final Collection<${BUFFER_TYPE}Factory> factories,
+                                    ${BATCH_PAD}final ${ARRAY_TYPE}[] array) {
+        return ${BUFFER_TYPE}Batch.copyOfAll(factories, array);
+    }
+
+    /**
+     * Creates a factory which copies buffers of more than {@code threshold} elements on the common
+     * {@link ForkJoinPool}, by splitting them into slices of at most {@code threshold} elements. Copies into direct
+     * and mapped buffers are usually limited by the memory bandwidth of a single core, rather than that of the
+     * machine.
+     *
+     * @param factory   factory creating the buffers
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @return parallel factory, whose buffers are the same as those of {@code factory}
+     * @throws IllegalArgumentException if {@code threshold} isn't positive
+     */
+    static ${BUFFER_TYPE}Factory parallel(final ${BUFFER_TYPE}Factory factory, final int threshold) {
+        return parallel(factory, threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a factory which copies buffers of more than {@code threshold} elements on {@code pool}, by splitting
+     * them into slices of at most {@code threshold} elements.
+     *
+     * @param factory   factory creating the buffers
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @param pool      pool copying the slices
+     * @return parallel factory, whose buffers are the same as those of {@code factory}
+     * @throws IllegalArgumentException if {@code threshold} isn't positive
+     */
+    static ${BUFFER_TYPE}Factory parallel(final ${BUFFER_TYPE}Factory factory,
+                          ${PARALLEL_PAD}final int threshold,
+                          ${PARALLEL_PAD}final ForkJoinPool pool) {
+        return new Parallel${BUFFER_TYPE}Factory(factory, threshold, pool);
+    }
+
+    /**
+     * Creates a factory whose copies with the same contents share the memory of one copy created by
+     * {@code factory}, retaining the contents of up to 64 copies.
+     *
+     * @param factory factory creating read-only buffers
+     * @return interning factory
+     * @throws IllegalArgumentException if {@code factory} creates writable buffers, or is pooled, arena or tracked
+     * @see #interning(${BUFFER_TYPE}Factory, int)
+     */
+    static ${BUFFER_TYPE}Factory interning(final ${BUFFER_TYPE}Factory factory) {
+        return interning(factory, Interning${BUFFER_TYPE}Factory.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a factory whose copies with the same contents share the memory of one copy created by
+     * {@code factory}. Each copy is a new read-only view with its own position and limit, but repeated copies of the
+     * same contents don't allocate or fill any memory. Contents are compared element by element${ELEMENT_EQUALITY_DOC},
+     * after a hash lookup. The least recently used contents are evicted once more than {@code maxEntries} are
+     * retained.
+     *
+     * @param factory    factory creating read-only buffers
+     * @param maxEntries maximum number of contents retained
+     * @return interning factory
+     * @throws IllegalArgumentException if {@code factory} creates writable buffers, or is pooled, arena or tracked,
+     *                                  since interned copies are shared after their memory would be reclaimed, or
+     *                                  {@code maxEntries} isn't positive
+     */
+    static ${BUFFER_TYPE}Factory interning(final ${BUFFER_TYPE}Factory factory, final int maxEntries) {
+        return new Interning${BUFFER_TYPE}Factory(factory, maxEntries);
+    }
+
+    /**
+     * Creates a factory which recycles the buffers created by {@code factory}, see {@link Pooled${BUFFER_TYPE}Factory}.
+     *
+     * @param factory factory creating the buffers to recycle
+     * @return pooled factory
+     */
+    static Pooled${BUFFER_TYPE}Factory pooled(final ${BUFFER_TYPE}Factory factory) {
+        return pooled(factory, Pooled${BUFFER_TYPE}Factory.DEFAULT_SLOTS_PER_SIZE_CLASS);
+    }
+
+    /**
+     * Creates a factory which recycles the buffers created by {@code factory}, see {@link Pooled${BUFFER_TYPE}Factory}.
+     *
+     * @param factory           factory creating the buffers to recycle
+     * @param slotsPerSizeClass maximum number of buffers retained for each power of two size
+     * @return pooled factory
+     */
+    static Pooled${BUFFER_TYPE}Factory pooled(final ${BUFFER_TYPE}Factory factory, final int slotsPerSizeClass) {
+        return new Pooled${BUFFER_TYPE}Factory(factory, slotsPerSizeClass);
+    }
+
+    /**
+     * Allocates a ${BUFFER_TYPE} with the given size, i.e. {@link ${BUFFER_TYPE}#remaining()} will return {@code length}.
+     *
+     * @param length the number of elements that should be remaining in the buffer
+     * @return buffer with specified number of elements
+     */
+    @Override
+    ${BUFFER_TYPE} allocate(int length);
+
+    /**
+     * Creates a {@link ${BUFFER_TYPE}} with the given contents. The resulting buffer will be equal to
+     * {@code ${BUFFER_TYPE}.wrap(array)}. The buffer will be independent of the provided array.
+     *
+     * @param array array to copy
+     * @return ${BUFFER_TYPE} with given contents
+     */
+    @Override
+    default ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array) {
+        return copyOf(array, 0, array.length);
+    }
+
+    /**
+     * Creates a {@link ${BUFFER_TYPE}} with the given contents. The resulting buffer will be equal to
+     * {@code ${BUFFER_TYPE}.wrap(array, offset, length)}. The buffer will be independent of the provided array.
+     *
+     * @param array array to copy
+     * @return ${BUFFER_TYPE} with given contents
+     */
+    @Override
+    default ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        ${BUFFER_TYPE} buffer = allocate(length);
+        ${BUFFER_TYPE}s.copy(array, offset, length, buffer);
+        return buffer;
+    }
+
+    /**
+     * Creates a ${BUFFER_TYPE} with the given contents. The resulting buffer will be equal to {@code buffer}.
+     * The position, limit, mark, and contents of {@code buffer} will be unchanged.
+     *
+     * @param buffer buffer to copy
+     * @return Buffer with given contents
+     */
+    @Override
+    default ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        ${BUFFER_TYPE} output = allocate(buffer.remaining());
+        ${BUFFER_TYPE}s.copy(buffer, output);
+        return output;
+    }
+
+    /**
+     * Allocates a ${BUFFER_TYPE} with the given size, where the element at index {@code i} (relative to the position)
+     * is {@code generator.${APPLY}(i)}${NARROW_DOC}. The generator is called once for each index, in
+     * ascending order, and its results are put straight into the buffer, without boxing or an intermediate array.
+     *
+     * @param length    the number of elements that should be remaining in the buffer
+     * @param generator computes the element at each index
+     * @return ${BUFFER_TYPE} with generated contents
+     */
+    default ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        ${BUFFER_TYPE} buffer = allocate(length);
+        ${BUFFER_TYPE}s.fill(buffer, generator);
+        return buffer;
+    }
+
+    /**
+     * Allocates a ${BUFFER_TYPE} with the given size, where the element at index {@code i} (relative to the position)
+     * is {@code generator.${APPLY}(i)}${NARROW_DOC}. Large buffers are split into ranges which are filled
+     * by the tasks of {@code pool}, so the generator may be called concurrently, and in any order.
+     *
+     * @param length    the number of elements that should be remaining in the buffer
+     * @param generator computes the element at each index, must be safe to call from multiple threads
+     * @param pool      pool filling the ranges of large buffers
+     * @return ${BUFFER_TYPE} with generated contents
+     */
+    default ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        ${BUFFER_TYPE} buffer = allocate(length);
+        ${BUFFER_TYPE}s.fill(buffer, generator, pool);
+        return buffer;
+    }
+
+    /**
+     * Creates a ${BUFFER_TYPE} containing the elements of a stream${NARROW_DOC}, in encounter order. If the
+     * size of the stream is known, its elements are put straight into the buffer, otherwise they are collected into
+     * an array first. The stream is consumed, but not closed.
+     *
+     * @param stream stream of the elements
+     * @return ${BUFFER_TYPE} with the stream's elements
+     * @throws IllegalArgumentException if the stream has more than {@link Integer#MAX_VALUE} elements
+     */
+    default ${BUFFER_TYPE} copyOf(final ${STREAM_PREFIX}Stream stream) {
+        Spliterator.Of${STREAM_PREFIX} spliterator = stream.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("stream of " + size + " elements is too long for a buffer");
+        }
+        if (size < 0) {
+            ${STREAM_ELEMENT}[] elements = StreamSupport.${STREAM_ELEMENT}Stream(spliterator, false).toArray();
+            return allocate(elements.length, i -> elements[i]);
+        }
+        // allocate calls the generator in ascending index order, so it can simply take the next element
+        PrimitiveIterator.Of${STREAM_PREFIX} iterator = Spliterators.iterator(spliterator);
+        return allocate((int) size, i -> iterator.next${STREAM_PREFIX}());
+    }
+
+    /**
+     * Allocates content which may be too large for a single ${BUFFER_TYPE}, e.g. more than 2 GiB, as a sequence of
+     * buffers which each have the layout of this factory, see {@link #allocateChunked(long, int)}. The element at
+     * index {@code i} of the content is {@code generator.${APPLY}(i)}${NARROW_DOC}, so the buffer at index
+     * {@code k} starts with element {@code k * chunkLength}. The generator is called once for each index, in
+     * ascending order.
+     *
+     * @param length      total number of elements
+     * @param chunkLength number of elements remaining in each buffer but the last
+     * @param generator   computes the element at each index of the content
+     * @return buffers, in order, empty if {@code length} is 0
+     * @throws IllegalArgumentException if {@code length} is negative, {@code chunkLength} isn't positive, or there
+     *                                  would be more than {@link Integer#MAX_VALUE} buffers
+     */
+    default List<${BUFFER_TYPE}> allocateChunked(final long length,
+${CHUNK_PAD}final int chunkLength,
+${CHUNK_PAD}final ${CHUNK_GENERATOR} generator) {
+        List<${BUFFER_TYPE}> buffers = new ArrayList<>(Sizes.chunks(length, chunkLength));
+        for (long start = 0; start < length; start += chunkLength) {
+            long first = start;
+            buffers.add(allocate((int) Math.min(chunkLength, length - start), i -> generator.${APPLY}(first + i)));
+        }
+        return buffers;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}s.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.BufferOverflowException;
+import java.nio.${BUFFER_TYPE};
+import java.nio.ReadOnlyBufferException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.${GENERATOR};
+
+/**
+ * Copies into and fills ${BUFFER_TYPE}s without moving their positions, and without allocating duplicates of short
+ * buffers.
+ */
+final class ${BUFFER_TYPE}s {
+    /**
+     * Number of elements up to which a parallel fill is done by a single task.
+     */
+    static final int PARALLEL_FILL_THRESHOLD = 1 << 14;
+    /**
+     * Number of elements up to which buffers without arrays are copied element by element, rather than with a bulk
+     * put on duplicates.
+     */
+    private static final int SHORT_COPY_LENGTH = 16;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private ${BUFFER_TYPE}s() {
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. The
+     * positions, limits, and marks of both buffers are unchanged.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     * @throws BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copy(final ${BUFFER_TYPE} src, final ${BUFFER_TYPE} dst) {
+        int length = src.remaining();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (src.hasArray()) {
+            copy(src.array(), src.arrayOffset() + src.position(), length, dst);
+        } else if (length <= SHORT_COPY_LENGTH) {
+            // absolute accesses leave src untouched, without allocating duplicates for a relative bulk put
+            int from = src.position();
+            int to = dst.position();
+            for (int i = 0; i < length; i++) {
+                dst.put(to + i, src.get(from + i));
+            }
+        } else {
+            dst.duplicate().put(src.duplicate());
+        }
+    }
+
+    /**
+     * Copies part of an array into {@code dst}, starting at the position of {@code dst}. The position, limit, and
+     * mark of {@code dst} are unchanged.
+     *
+     * @param src    array to copy from
+     * @param offset index of the first element to copy
+     * @param length number of elements to copy
+     * @param dst    buffer to copy into
+     * @throws IndexOutOfBoundsException if {@code offset} and {@code length} don't describe a range of {@code src}
+     * @throws BufferOverflowException   if {@code dst} has fewer than {@code length} elements remaining
+     * @throws ReadOnlyBufferException   if {@code dst} is read-only
+     */
+    static void copy(final ${ARRAY_TYPE}[] src, final int offset, final int length, final ${BUFFER_TYPE} dst) {
+        if ((offset | length | (offset + length) | (src.length - (offset + length))) < 0) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + src.length);
+        }
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            System.arraycopy(src, offset, dst.array(), dst.arrayOffset() + dst.position(), length);
+        } else {
+            int position = dst.position();
+            dst.put(src, offset, length);
+            // the mark can't be past the original position, so restoring the position keeps it
+            dst.position(position);
+        }
+    }
+$(fill_methods)
+}
+EOF
+
+mkdir -p src/java16/java/com/brandontoner
+cat << EOF > "src/java16/java/com/brandontoner/${BUFFER_TYPE}s.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.BufferOverflowException;
+import java.nio.${BUFFER_TYPE};
+import java.nio.ReadOnlyBufferException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.${GENERATOR};
+
+/**
+ * Copies into and fills ${BUFFER_TYPE}s without moving their positions, and without allocating duplicates. Java 16
+ * version, using the absolute bulk puts.
+ */
+final class ${BUFFER_TYPE}s {
+    /**
+     * Number of elements up to which a parallel fill is done by a single task.
+     */
+    static final int PARALLEL_FILL_THRESHOLD = 1 << 14;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private ${BUFFER_TYPE}s() {
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. The
+     * positions, limits, and marks of both buffers are unchanged.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     * @throws BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copy(final ${BUFFER_TYPE} src, final ${BUFFER_TYPE} dst) {
+        int length = src.remaining();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        dst.put(dst.position(), src, src.position(), length);
+    }
+
+    /**
+     * Copies part of an array into {@code dst}, starting at the position of {@code dst}. The position, limit, and
+     * mark of {@code dst} are unchanged.
+     *
+     * @param src    array to copy from
+     * @param offset index of the first element to copy
+     * @param length number of elements to copy
+     * @param dst    buffer to copy into
+     * @throws IndexOutOfBoundsException if {@code offset} and {@code length} don't describe a range of {@code src}
+     * @throws BufferOverflowException   if {@code dst} has fewer than {@code length} elements remaining
+     * @throws ReadOnlyBufferException   if {@code dst} is read-only
+     */
+    static void copy(final ${ARRAY_TYPE}[] src, final int offset, final int length, final ${BUFFER_TYPE} dst) {
+        if ((offset | length | (offset + length) | (src.length - (offset + length))) < 0) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + src.length);
+        }
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        dst.put(dst.position(), src, offset, length);
+    }
+$(fill_methods)
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/ReadOnly${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * Provides read-only implementation of {@link ${BUFFER_TYPE}Factory}.
+ */
+class ReadOnly${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Delegate factory.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param factory delegate factory
+     */
+    ReadOnly${BUFFER_TYPE}Factory(final ${BUFFER_TYPE}Factory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return delegate factory
+     */
+    ${BUFFER_TYPE}Factory factory() {
+        return factory;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        return factory.allocate(length).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        return factory.copyOf(array, offset, length).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        return factory.copyOf(buffer).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return "READ_ONLY_" + factory;
+    }
+}
+EOF
+
+if [ "${BUFFER_TYPE}" == "ByteBuffer" ]; then
+  AS_BUFFER_FUNC=""
+else
+  AS_BUFFER_FUNC=".as${BUFFER_TYPE}()"
+fi
+
+cat << EOF > "src/main/java/com/brandontoner/Pooled${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * {@link ${BUFFER_TYPE}Factory} which recycles the buffers of another factory. Buffers are grouped into power of two
+ * size classes, and {@link #release(${BUFFER_TYPE})} makes a buffer's memory available to later calls to
+ * {@link #allocate(int)} and {@code copyOf}, so that in steady state the delegate factory isn't called at all.
+ *
+ * <p>Recycled buffers have the same position, limit, and capacity as a buffer created by the delegate factory, and
+ * are read-only if the delegate's buffers are. A buffer must not be used after it has been released.
+ */
+public final class Pooled${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Default maximum number of buffers retained for each size class.
+     */
+    static final int DEFAULT_SLOTS_PER_SIZE_CLASS = 64;
+    /**
+     * Factory creating writable buffers to recycle.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+    /**
+     * Whether handed out buffers should be read-only.
+     */
+    private final boolean readOnly;
+    /**
+     * Pool of buffers created by {@link #factory}.
+     */
+    private final BufferPool<${BUFFER_TYPE}> pool;
+    /**
+     * Name of the factory.
+     */
+    private final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param factory           factory creating the buffers to recycle
+     * @param slotsPerSizeClass maximum number of buffers retained for each size class
+     */
+    Pooled${BUFFER_TYPE}Factory(final ${BUFFER_TYPE}Factory factory, final int slotsPerSizeClass) {
+        if (factory instanceof ReadOnly${BUFFER_TYPE}Factory) {
+            // pool the writable buffers, so that copyOf can fill them
+            this.factory = ((ReadOnly${BUFFER_TYPE}Factory) factory).factory();
+            this.readOnly = true;
+        } else {
+            this.factory = factory;
+            this.readOnly = false;
+        }
+        // memory tracked by a DirectBufferTracker is left for it to free, rather than freed when trimmed
+        this.pool = new BufferPool<>(this.factory::allocate,
+                                     ${BOXED_TYPE}.BYTES,
+                                     slotsPerSizeClass,
+                                     !(this.factory instanceof Tracked${BUFFER_TYPE}Factory));
+        this.name = "POOLED_" + factory;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        BufferPool.Slot<${BUFFER_TYPE}> slot = pool.acquire(length);
+        return handOut(slot, layout(slot, length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        BufferPool.Slot<${BUFFER_TYPE}> slot = pool.acquire(length);
+        ${BUFFER_TYPE} buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            pool.release(handOut(slot, buffer));
+            return factory.copyOf(array, offset, length);
+        }
+        ${BUFFER_TYPE}s.copy(array, offset, length, buffer);
+        return handOut(slot, buffer);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        BufferPool.Slot<${BUFFER_TYPE}> slot = pool.acquire(buffer.remaining());
+        ${BUFFER_TYPE} output = layout(slot, buffer.remaining());
+        if (output.isReadOnly()) {
+            pool.release(handOut(slot, output));
+            return factory.copyOf(buffer);
+        }
+        ${BUFFER_TYPE}s.copy(buffer, output);
+        return handOut(slot, output);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        BufferPool.Slot<${BUFFER_TYPE}> slot = pool.acquire(length);
+        ${BUFFER_TYPE} buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            pool.release(handOut(slot, buffer));
+            return factory.allocate(length, generator);
+        }
+        ${BUFFER_TYPE}s.fill(buffer, generator);
+        return handOut(slot, buffer);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        BufferPool.Slot<${BUFFER_TYPE}> slot = this.pool.acquire(length);
+        ${BUFFER_TYPE} buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            this.pool.release(handOut(slot, buffer));
+            return factory.allocate(length, generator, pool);
+        }
+        ${BUFFER_TYPE}s.fill(buffer, generator, pool);
+        return handOut(slot, buffer);
+    }
+
+    /**
+     * Returns a buffer's memory to the pool. Buffers which weren't created by this factory, or have already been
+     * released, are ignored and left to the garbage collector.
+     *
+     * @param buffer buffer created by this factory, which will no longer be used
+     * @return true if the buffer's memory will be reused
+     */
+    public boolean release(final ${BUFFER_TYPE} buffer) {
+        return pool.release(buffer);
+    }
+
+    /**
+     * Drops the memory retained for buffers which aren't handed out, immediately freeing the direct memory the pool
+     * allocated for them, rather than waiting for it to be garbage collected. Suitable as a
+     * {@link DirectMemoryGovernor} reclaimer, since the freed memory counts against the budget again straight away.
+     * Memory tracked by a {@link DirectBufferTracker}, or owned by an arena, is only dropped.
+     *
+     * @return number of buffers dropped
+     */
+    public int trim() {
+        return pool.trim();
+    }
+
+    /**
+     * Creates a writable buffer over the memory of a slot, with the delegate factory's layout.
+     *
+     * @param slot   acquired slot
+     * @param length number of elements that should be remaining in the buffer
+     * @return writable buffer, unless the delegate factory creates read-only buffers
+     */
+    private static ${BUFFER_TYPE} layout(final BufferPool.Slot<${BUFFER_TYPE}> slot, final int length) {
+        ${BUFFER_TYPE} buffer = slot.memory(length).slice();
+        buffer.position(slot.before());
+        buffer.limit(slot.before() + length);
+        return buffer;
+    }
+
+    /**
+     * Hands out a buffer for a slot, making it read-only if necessary.
+     *
+     * @param slot   acquired slot
+     * @param buffer writable buffer over the slot's memory
+     * @return buffer to return to the caller
+     */
+    private ${BUFFER_TYPE} handOut(final BufferPool.Slot<${BUFFER_TYPE}> slot, final ${BUFFER_TYPE} buffer) {
+        return pool.handOut(slot, readOnly ? buffer.asReadOnlyBuffer() : buffer);
+    }
+
+    /**
+     * @return whether handed out buffers are read-only views of the recycled buffers
+     */
+    boolean readOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return factory creating the writable buffers which are recycled
+     */
+    ${BUFFER_TYPE}Factory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/Arena${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * Provides implementation of {@link ${BUFFER_TYPE}Factory} whose direct memory is owned by a {@link BufferArena}.
+ */
+class Arena${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Arena owning the direct memory.
+     */
+    private final BufferArena arena;
+    /**
+     * Delegate factory.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param arena   arena owning the direct memory
+     * @param factory delegate factory
+     */
+    Arena${BUFFER_TYPE}Factory(final BufferArena arena, final ${BUFFER_TYPE}Factory factory) {
+        this.arena = arena;
+        this.factory = factory;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        return arena.allocateFrom(() -> factory.allocate(length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        return arena.allocateFrom(() -> factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        return arena.allocateFrom(() -> factory.copyOf(buffer));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator, pool));
+    }
+
+    /**
+     * @return delegate factory
+     */
+    ${BUFFER_TYPE}Factory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "ARENA_" + factory;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/Tracked${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * Provides implementation of {@link ${BUFFER_TYPE}Factory} whose direct buffers are tracked by a
+ * {@link DirectBufferTracker}.
+ */
+class Tracked${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Tracker recording the direct buffers.
+     */
+    private final DirectBufferTracker tracker;
+    /**
+     * Delegate factory.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param tracker tracker recording the direct buffers
+     * @param factory delegate factory
+     */
+    Tracked${BUFFER_TYPE}Factory(final DirectBufferTracker tracker, final ${BUFFER_TYPE}Factory factory) {
+        this.tracker = tracker;
+        this.factory = factory;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        return tracker.track(factory, () -> factory.allocate(length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        return tracker.track(factory, () -> factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        return tracker.track(factory, () -> factory.copyOf(buffer));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return tracker.track(factory, () -> factory.allocate(length, generator));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return tracker.track(factory, () -> factory.allocate(length, generator, pool));
+    }
+
+    /**
+     * @return delegate factory
+     */
+    ${BUFFER_TYPE}Factory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "TRACKED_" + factory;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/Parallel${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * Provides implementation of {@link ${BUFFER_TYPE}Factory} which copies large buffers on a {@link ForkJoinPool}, by
+ * splitting the source and destination into slices which are copied concurrently.
+ */
+class Parallel${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Delegate factory.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+    /**
+     * Factory creating the buffers to copy into, which are writable unless {@link #readOnlyMemory} is set.
+     */
+    private final ${BUFFER_TYPE}Factory writable;
+    /**
+     * Whether copies should be made read-only after they are filled.
+     */
+    private final boolean readOnly;
+    /**
+     * Whether {@link #writable} only creates read-only buffers, which have to be filled by the delegate factory.
+     */
+    private final boolean readOnlyMemory;
+    /**
+     * Number of elements above which copies are split, and the maximum number of elements in each slice.
+     */
+    private final int threshold;
+    /**
+     * Pool copying the slices.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor.
+     *
+     * @param factory   delegate factory
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @param pool      pool copying the slices
+     */
+    Parallel${BUFFER_TYPE}Factory(final ${BUFFER_TYPE}Factory factory, final int threshold, final ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive, but was " + threshold);
+        }
+        this.factory = factory;
+        if (factory instanceof ReadOnly${BUFFER_TYPE}Factory) {
+            // copy into the writable buffers, and make them read-only afterwards
+            this.writable = ((ReadOnly${BUFFER_TYPE}Factory) factory).factory();
+            this.readOnly = true;
+        } else {
+            this.writable = factory;
+            this.readOnly = false;
+        }
+        this.readOnlyMemory = createsReadOnly(writable);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        return factory.allocate(length);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        if (length <= threshold) {
+            return factory.copyOf(array, offset, length);
+        }
+        // wrapping checks the bounds, before the generator would see them
+        ${BUFFER_TYPE} src = ${BUFFER_TYPE}.wrap(array, offset, length);
+        if (readOnlyMemory) {
+            return factory.allocate(length, i -> array[offset + i], pool);
+        }
+        ${BUFFER_TYPE} output = writable.allocate(length);
+        ${BUFFER_TYPE}s.copy(src, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        int length = buffer.remaining();
+        if (length <= threshold) {
+            return factory.copyOf(buffer);
+        }
+        if (readOnlyMemory) {
+            int position = buffer.position();
+            return factory.allocate(length, i -> buffer.get(position + i), pool);
+        }
+        ${BUFFER_TYPE} output = writable.allocate(length);
+        ${BUFFER_TYPE}s.copy(buffer, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return factory.allocate(length, generator);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool);
+    }
+
+    /**
+     * Finds whether a factory creates read-only buffers, e.g. read-only mapped files whose contents are written before
+     * they are mapped, from its type and those of the factories it decorates, rather than by allocating a buffer,
+     * which may map a file or fail for a closed arena. Factories of other types are taken to create writable buffers.
+     *
+     * @param factory factory to check
+     * @return true if every buffer the factory creates is read-only
+     */
+    static boolean createsReadOnly(final ${BUFFER_TYPE}Factory factory) {
+        if (factory instanceof Pooled${BUFFER_TYPE}Factory) {
+            Pooled${BUFFER_TYPE}Factory pooled = (Pooled${BUFFER_TYPE}Factory) factory;
+            return pooled.readOnly() || createsReadOnly(pooled.factory());
+        }
+        if (factory instanceof Arena${BUFFER_TYPE}Factory) {
+            return createsReadOnly(((Arena${BUFFER_TYPE}Factory) factory).factory());
+        }
+        if (factory instanceof Tracked${BUFFER_TYPE}Factory) {
+            return createsReadOnly(((Tracked${BUFFER_TYPE}Factory) factory).factory());
+        }
+        if (factory instanceof Parallel${BUFFER_TYPE}Factory) {
+            return createsReadOnly(((Parallel${BUFFER_TYPE}Factory) factory).factory());
+        }
+        return factory instanceof ReadOnly${BUFFER_TYPE}Factory
+               || factory instanceof ReadOnlyMapped${BUFFER_TYPE}Factory
+               || factory instanceof Interning${BUFFER_TYPE}Factory${TYPE_READ_ONLY_CHECK};
+    }
+
+    /**
+     * @return delegate factory
+     */
+    ${BUFFER_TYPE}Factory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "PARALLEL_" + factory;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/Interning${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.${GENERATOR};
+
+/**
+ * Provides implementation of {@link ${BUFFER_TYPE}Factory} which shares the memory of read-only copies with the same
+ * contents. Copies are looked up by a hash of their contents, and compared element by element${ELEMENT_EQUALITY_DOC}.
+ * The least recently used contents are evicted once more than a maximum number are retained.
+ */
+class Interning${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Default maximum number of contents retained.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 64;
+    /**
+     * Delegate factory, creating read-only buffers.
+     */
+    private final ${BUFFER_TYPE}Factory factory;
+    /**
+     * Copies created by {@link #factory}, by their contents, in access order.
+     */
+    private final Map<Content, ${BUFFER_TYPE}> copies;
+
+    /**
+     * Constructor.
+     *
+     * @param factory    delegate factory, creating read-only buffers
+     * @param maxEntries maximum number of contents retained
+     */
+    Interning${BUFFER_TYPE}Factory(final ${BUFFER_TYPE}Factory factory, final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive, but was " + maxEntries);
+        }
+        if (reclaimsMemory(factory)) {
+            // interned copies are shared until evicted, so their memory can't be returned while callers still use it
+            throw new IllegalArgumentException("can't intern buffers created by " + factory
+                                               + ", whose memory is reclaimed while copies are still shared");
+        }
+        if (!Parallel${BUFFER_TYPE}Factory.createsReadOnly(factory)) {
+            // callers could write through a shared writable buffer, changing every other copy
+            throw new IllegalArgumentException("only read-only buffers can be interned, but " + factory
+                                               + " creates writable buffers");
+        }
+        this.factory = factory;
+        this.copies = new LinkedHashMap<Content, ${BUFFER_TYPE}>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Content, ${BUFFER_TYPE}> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        return factory.allocate(length);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
+        ${BUFFER_TYPE} shared = lookUp(${BUFFER_TYPE}.wrap(array, offset, length));
+        if (shared != null) {
+            return view(shared);
+        }
+        return intern(factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
+        ${BUFFER_TYPE} shared = lookUp(buffer);
+        if (shared != null) {
+            return view(shared);
+        }
+        return intern(factory.copyOf(buffer));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return factory.allocate(length, generator);
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool);
+    }
+
+    /**
+     * Looks up a copy with the same contents as the remaining elements of a buffer.
+     *
+     * @param contents buffer whose remaining elements are the contents, which is unchanged
+     * @return shared copy, or null if there is none
+     */
+    private ${BUFFER_TYPE} lookUp(final ${BUFFER_TYPE} contents) {
+        Content key = new Content(contents);
+        synchronized (copies) {
+            return copies.get(key);
+        }
+    }
+
+    /**
+     * Retains a new copy, so that later copies of the same contents can share its memory.
+     *
+     * @param copy read-only copy created by the delegate factory
+     * @return view of {@code copy}
+     */
+    private ${BUFFER_TYPE} intern(final ${BUFFER_TYPE} copy) {
+        Content key = new Content(copy.duplicate());
+        synchronized (copies) {
+            // another thread may have interned the same contents in the meantime, either copy will do
+            copies.putIfAbsent(key, copy);
+        }
+        return view(copy);
+    }
+
+    /**
+     * Creates a view of a shared copy, so that callers can't move each other's positions.
+     *
+     * @param shared shared copy
+     * @return read-only view of {@code shared}, with the same position, limit, and byte order
+     */
+    private static ${BUFFER_TYPE} view(final ${BUFFER_TYPE} shared) {
+        return ${VIEW_EXPRESSION};
+    }
+
+    /**
+     * Finds whether a factory, or one it decorates, reclaims the memory of its buffers: pooled buffers are recycled
+     * once released, and arena and tracked buffers are freed when the arena is closed or the tracker frees them.
+     *
+     * @param factory factory to check
+     * @return true if the memory of the factory's buffers may be reused or freed while they are still referenced
+     */
+    private static boolean reclaimsMemory(final ${BUFFER_TYPE}Factory factory) {
+        if (factory instanceof Parallel${BUFFER_TYPE}Factory) {
+            return reclaimsMemory(((Parallel${BUFFER_TYPE}Factory) factory).factory());
+        }
+        return factory instanceof Pooled${BUFFER_TYPE}Factory
+               || factory instanceof Arena${BUFFER_TYPE}Factory
+               || factory instanceof Tracked${BUFFER_TYPE}Factory;
+    }
+
+    @Override
+    public String toString() {
+        return "INTERNING_" + factory;
+    }
+
+    /**
+     * Contents of a buffer, as a map key.
+     */
+    private static final class Content {
+        /**
+         * Buffer whose remaining elements are the contents, whose position isn't moved.
+         */
+        private final ${BUFFER_TYPE} buffer;
+        /**
+         * Hash of the contents.
+         */
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer buffer whose remaining elements are the contents, which must not be moved or changed while
+         *               this key is used
+         */
+        Content(final ${BUFFER_TYPE} buffer) {
+            this.buffer = buffer;
+            int result = 1;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                result = 31 * result + ${BOXED_TYPE}.hashCode(buffer.get(i));
+            }
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Content)) {
+                return false;
+            }
+            Content other = (Content) obj;
+            int length = buffer.remaining();
+            if (hash != other.hash || length != other.buffer.remaining()) {
+                return false;
+            }
+            int position = buffer.position();
+            int otherPosition = other.buffer.position();
+            for (int i = 0; i < length; i++) {
+                ${ARRAY_TYPE} element = buffer.get(position + i);
+                ${ARRAY_TYPE} otherElement = other.buffer.get(otherPosition + i);
+                if (${BITS_OPEN}element${BITS_CLOSE} != ${BITS_OPEN}otherElement${BITS_CLOSE}) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}Batch.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.${BUFFER_TYPE};
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the same contents with many {@link ${BUFFER_TYPE}Factory}s at once.
+ */
+final class ${BUFFER_TYPE}Batch {
+    /**
+     * Private constructor, utility class.
+     */
+    private ${BUFFER_TYPE}Batch() {
+    }
+
+    /**
+     * Copies an array with each factory. The read-only wrappers of factories in the collection reuse the memory of
+     * their delegates' copies. The direct memory of all copies is carved out of one slab, sized by allocating with
+     * each factory into scratch memory first, and only allocated if some copy is direct. Each copy is only made once.
+     *
+     * @param factories factories to copy with
+     * @param array     array to copy
+     * @return copy made by each factory, in the order of {@code factories}
+     */
+    static Map<${BUFFER_TYPE}Factory, ${BUFFER_TYPE}> copyOfAll(final Collection<${BUFFER_TYPE}Factory> factories,
+                                    ${BATCH_PAD}final ${ARRAY_TYPE}[] array) {
+        List<${BUFFER_TYPE}Factory> direct = new ArrayList<>();
+        long slabSize;
+        // empty allocations measure the direct memory of every copy, whichever decorators the factories have, without
+        // filling memory which is thrown away
+        try (BufferArena.Sizing sizing = new BufferArena.Sizing()) {
+            for (${BUFFER_TYPE}Factory factory : factories) {
+                if (!isTwin(factory, factories)) {
+                    sizing.measure(() -> factory.allocate(array.length));
+                    if (sizing.allocated()) {
+                        direct.add(factory);
+                    }
+                }
+            }
+            slabSize = sizing.bytes();
+        }
+        Map<${BUFFER_TYPE}Factory, ${BUFFER_TYPE}> copies = new IdentityHashMap<>();
+        if (!direct.isEmpty()) {
+            // the arena isn't closed, its slab is freed by the garbage collector once no copy refers to it
+            BufferArena arena = new BufferArena((int) Math.max(1, Math.min(Integer.MAX_VALUE, slabSize)));
+            for (${BUFFER_TYPE}Factory factory : direct) {
+                copies.put(factory, arena.allocateFrom(() -> factory.copyOf(array)));
+            }
+        }
+        for (${BUFFER_TYPE}Factory factory : factories) {
+            if (!isTwin(factory, factories) && !copies.containsKey(factory)) {
+                copies.put(factory, factory.copyOf(array));
+            }
+        }
+        Map<${BUFFER_TYPE}Factory, ${BUFFER_TYPE}> result = new LinkedHashMap<>();
+        for (${BUFFER_TYPE}Factory factory : factories) {
+            if (isTwin(factory, factories)) {
+                result.put(factory, copies.get(((ReadOnly${BUFFER_TYPE}Factory) factory).factory()).asReadOnlyBuffer());
+            } else {
+                result.put(factory, copies.get(factory));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a factory is the read-only wrapper of another factory in the collection.
+     *
+     * @param factory   factory to check
+     * @param factories factories being copied with
+     * @return true if the factory's copy can be a read-only view of its delegate's copy
+     */
+    private static boolean isTwin(final ${BUFFER_TYPE}Factory factory, final Collection<${BUFFER_TYPE}Factory> factories) {
+        if (!(factory instanceof ReadOnly${BUFFER_TYPE}Factory)) {
+            return false;
+        }
+        ${BUFFER_TYPE}Factory delegate = ((ReadOnly${BUFFER_TYPE}Factory) factory).factory();
+        for (${BUFFER_TYPE}Factory other : factories) {
+            if (other == delegate) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
+EOF
+
+cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}Registry.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+EOF
+{
+  echo "import java.util.ArrayList;";
+  echo "import java.util.Arrays;";
+  echo "import java.util.EnumSet;";
+  echo "import java.util.List;";
+  echo "import java.util.Set;";
+  echo "import java.util.stream.Collectors;";
+  echo "import java.util.stream.Stream;";
+} | sort -u >> "src/main/java/com/brandontoner/${BUFFER_TYPE}Registry.java"
+
+cat << EOF >> "src/main/java/com/brandontoner/${BUFFER_TYPE}Registry.java"
+
+/**
+ * Holds the {@link FactoryRegistry} of the {@link ${BUFFER_TYPE}Factory}s.
+ */
+final class ${BUFFER_TYPE}Registry {
+    /**
+     * Registry of the factories returned by {@link ${BUFFER_TYPE}Factory#allFactories()}.
+     */
+    static final FactoryRegistry<${BUFFER_TYPE}Factory> REGISTRY = create();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private ${BUFFER_TYPE}Registry() {
+    }
+
+    /**
+     * Creates the factories, and the registry of their traits.
+     *
+     * @return registry
+     */
+    private static FactoryRegistry<${BUFFER_TYPE}Factory> create() {
+        List<${BUFFER_TYPE}Factory> readWrite = new ArrayList<>(Arrays.asList(ReadWrite${BUFFER_TYPE}Factory.values()));
+        readWrite.addAll(Segment${BUFFER_TYPE}Factory.auto());
+        List<${BUFFER_TYPE}Factory> readOnly = Stream.concat(readWrite.stream().map(ReadOnly${BUFFER_TYPE}Factory::new),
+                                               ${REGISTRY_PAD}Arrays.stream(ReadOnlyMapped${BUFFER_TYPE}Factory.values()))
+                                       ${REGISTRY_PAD}.collect(Collectors.toCollection(ArrayList::new));${TYPE_READ_ONLY_FACTORIES}
+        return new FactoryRegistry<>(readWrite, readOnly, ${BUFFER_TYPE}Registry::traits);
+    }
+
+    /**
+     * Looks up the traits each factory declares, without allocating any buffers.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory's buffers
+     */
+    private static Set<BufferTrait> traits(final ${BUFFER_TYPE}Factory factory) {
+        if (factory instanceof ReadWrite${BUFFER_TYPE}Factory) {
+            return ((ReadWrite${BUFFER_TYPE}Factory) factory).traits();
+        }
+        if (factory instanceof Segment${BUFFER_TYPE}Factory) {
+            return ((Segment${BUFFER_TYPE}Factory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyMapped${BUFFER_TYPE}Factory) {
+            return ((ReadOnlyMapped${BUFFER_TYPE}Factory) factory).traits();
+        }${TYPE_TRAITS_CHECK}
+        if (factory instanceof ReadOnly${BUFFER_TYPE}Factory) {
+            // read-only views hide the array of the buffer they view, but keep the rest of its layout
+            Set<BufferTrait> traits = EnumSet.copyOf(traits(((ReadOnly${BUFFER_TYPE}Factory) factory).factory()));
+            traits.remove(BufferTrait.ARRAY);
+            traits.add(BufferTrait.READ_ONLY);${TYPE_READ_ONLY_ORDER}
+            return traits;
+        }
+        throw new IllegalArgumentException("no traits declared by " + factory);
+    }
+}
+EOF
+
+# aligns the constructor parameters of the segment factory
+SEGMENT_PAD=$(printf '%*s' $((27 + ${#BUFFER_TYPE})) '')
+cat << EOF > "src/main/java/com/brandontoner/Segment${BUFFER_TYPE}Factory.java"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+EOF
+{
+  echo "import java.nio.${BUFFER_TYPE};";
+  echo "import java.nio.ByteOrder;";
+  echo "import java.util.Arrays;";
+  echo "import java.util.Collection;";
+  echo "import java.util.Collections;";
+  echo "import java.util.List;";
+  echo "import java.util.Set;";
+  echo "import java.util.function.Supplier;";
+} | sort -u >> "src/main/java/com/brandontoner/Segment${BUFFER_TYPE}Factory.java"
+
+cat << EOF >> "src/main/java/com/brandontoner/Segment${BUFFER_TYPE}Factory.java"
+
+/**
+ * Provides implementations of {@link ${BUFFER_TYPE}Factory} creating native-order buffers over
+ * {@code java.lang.foreign.MemorySegment}s, which are only available on Java 21 and later.
+ */
+final class Segment${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+    /**
+     * Factories allocating from automatic arenas, created once so that the read-only wrappers of each call to
+     * {@link ${BUFFER_TYPE}Factory#readOnlyFactories()} wrap the same factories.
+     */
+    private static final Collection<${BUFFER_TYPE}Factory> AUTO = MemorySegments.isSupported()
+            ? variants("SEGMENT_AUTO", MemorySegments::ofAuto)
+            : Collections.emptyList();
+    /**
+     * Name of the factory.
+     */
+    private final String name;
+    /**
+     * Supplies the arena to allocate each segment from.
+     */
+    private final Supplier<Object> arena;
+    /**
+     * Number of elements before the data.
+     */
+    private final int paddingBefore;
+    /**
+     * Number of elements after the data.
+     */
+    private final int paddingAfter;
+    /**
+     * Offset of the buffer within its segment, in bytes.
+     */
+    private final int byteOffset;
+
+    /**
+     * Constructor.
+     *
+     * @param name          name of the factory
+     * @param arena         supplies the arena to allocate each segment from
+     * @param paddingBefore number of elements before the data
+     * @param paddingAfter  number of elements after the data
+     * @param byteOffset    offset of the buffer within its segment, in bytes
+     */
+    private Segment${BUFFER_TYPE}Factory(final String name,
+${SEGMENT_PAD}final Supplier<Object> arena,
+${SEGMENT_PAD}final int paddingBefore,
+${SEGMENT_PAD}final int paddingAfter,
+${SEGMENT_PAD}final int byteOffset) {
+        this.name = name;
+        this.arena = arena;
+        this.paddingBefore = paddingBefore;
+        this.paddingAfter = paddingAfter;
+        this.byteOffset = byteOffset;
+    }
+
+    /**
+     * Gets factories with each padding, and with buffers sliced at odd offsets of their segments.
+     *
+     * @param prefix prefix of the names of the factories
+     * @param arena  supplies the arena to allocate each segment from
+     * @return factories
+     */
+    static List<${BUFFER_TYPE}Factory> variants(final String prefix, final Supplier<Object> arena) {
+        return Collections.unmodifiableList(Arrays.asList(
+                new Segment${BUFFER_TYPE}Factory(prefix + "_CORRECT_SIZE", arena, 0, 0, 0),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_PADDING_BEFORE", arena, 10, 0, 0),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_PADDING_AFTER", arena, 0, 10, 0),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_PADDING_BOTH", arena, 10, 10, 0),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_SLICED_AT_1", arena, 0, 0, 1),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_SLICED_AT_3", arena, 0, 0, 3),
+                new Segment${BUFFER_TYPE}Factory(prefix + "_SLICED_AT_7", arena, 0, 0, 7)));
+    }
+
+    /**
+     * Gets factories whose segments are each allocated from a new automatic arena, so their memory is freed once
+     * they are garbage collected.
+     *
+     * @return factories, or an empty collection if the foreign memory API isn't available
+     */
+    static Collection<${BUFFER_TYPE}Factory> auto() {
+        return AUTO;
+    }
+
+    /**
+     * @return traits of the buffers this factory creates
+     */
+    Set<BufferTrait> traits() {
+        Set<BufferTrait> traits = BufferTrait.of(ByteOrder.nativeOrder(), paddingBefore, paddingAfter,
+                                                 BufferTrait.DIRECT${VIEW_TRAIT});
+        if (byteOffset % ${BOXED_TYPE}.BYTES != 0) {
+            traits.add(BufferTrait.MISALIGNED);
+        }
+        return traits;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+        int capacity = Sizes.add(Sizes.add(paddingBefore, length), paddingAfter);
+        ${BUFFER_TYPE} buffer = MemorySegments.allocate(arena.get(), byteOffset, (long) capacity * ${BOXED_TYPE}.BYTES)
+                                        .order(ByteOrder.nativeOrder())${AS_BUFFER_FUNC};
+        buffer.position(paddingBefore);
+        buffer.limit(paddingBefore + length);
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
+EOF
+
+mkdir -p src/jmh/java/com/brandontoner
+cat << EOF > "src/jmh/java/com/brandontoner/${BUFFER_TYPE}FactoryBenchmark.java"
 /*
  * Copyright 2019 Brandon Toner
  *
@@ -33,95 +2215,109 @@ cat << EOF > "src/main/java/com/brandontoner/${BUFFER_TYPE}Factory.java"
 
 package com.brandontoner;
 
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
 import java.nio.${BUFFER_TYPE};
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Factory for ${BUFFER_TYPE}s.
+ * Measures the cost of creating ${BUFFER_TYPE}s with each {@link ${BUFFER_TYPE}Factory}. {@link BenchmarkMain} runs
+ * every read-write and read-only factory, the default {@link #${ARRAY_TYPE}Factory} only allows the benchmarks to run
+ * under the standard JMH launcher.
  */
-public interface ${BUFFER_TYPE}Factory extends BufferFactory<${ARRAY_TYPE}[], ${BUFFER_TYPE}> {
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class ${BUFFER_TYPE}FactoryBenchmark {
     /**
-     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create non-readonly buffers.
-     *
-     * @return Collection of {@link ${BUFFER_TYPE}Factory}s which create non-readonly buffers
+     * Name of the factory to benchmark.
      */
-    static Collection<${BUFFER_TYPE}Factory> readWriteFactories() {
-        return Arrays.asList(ReadWrite${BUFFER_TYPE}Factory.values());
-    }
+    @Param("NON_DIRECT_CORRECT_SIZE")
+    public String ${ARRAY_TYPE}Factory;
+    /**
+     * Number of elements in each buffer.
+     */
+    @Param({"0", "16", "1024", "65536"})
+    public int size;
 
     /**
-     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s which create readonly buffers.
-     *
-     * @return Collection of {@link ${BUFFER_TYPE}Factory}s which create readonly buffers
+     * Factory to benchmark.
      */
-    static Collection<${BUFFER_TYPE}Factory> readOnlyFactories() {
-        return readWriteFactories().stream().map(ReadOnly${BUFFER_TYPE}Factory::new).collect(Collectors.toList());
-    }
+    private ${BUFFER_TYPE}Factory factory;
+    /**
+     * Array of {@link #size} elements.
+     */
+    private ${ARRAY_TYPE}[] array;
+    /**
+     * Array with {@link #size} elements between one element of padding on each side.
+     */
+    private ${ARRAY_TYPE}[] paddedArray;
+    /**
+     * Heap buffer of {@link #size} elements.
+     */
+    private ${BUFFER_TYPE} buffer;
 
     /**
-     * Gets a Collection of {@link ${BUFFER_TYPE}Factory}s.
-     *
-     * @return Collection of {@link ${BUFFER_TYPE}Factory}s
+     * Looks up the factory, and creates the inputs.
      */
-    static Collection<${BUFFER_TYPE}Factory> allFactories() {
-        return Stream.concat(readWriteFactories().stream(), readOnlyFactories().stream()).collect(Collectors.toList());
+    @Setup
+    public void setUp() {
+        factory = BenchmarkMain.factory(${BUFFER_TYPE}Factory.allFactories(), ${ARRAY_TYPE}Factory);
+        array = new ${ARRAY_TYPE}[size];
+        paddedArray = new ${ARRAY_TYPE}[size + 2];
+        buffer = ${BUFFER_TYPE}.allocate(size);
     }
 
     /**
-     * Allocates a ${BUFFER_TYPE} with the given size, i.e. {@link ${BUFFER_TYPE}#remaining()} will return {@code length}.
-     *
-     * @param length the number of elements that should be remaining in the buffer
-     * @return buffer with specified number of elements
+     * @return newly allocated buffer
      */
-    @Override
-    ${BUFFER_TYPE} allocate(int length);
+    @Benchmark
+    public ${BUFFER_TYPE} allocate() {
+        return factory.allocate(size);
+    }
 
     /**
-     * Creates a {@link ${BUFFER_TYPE}} with the given contents. The resulting buffer will be equal to
-     * {@code ${BUFFER_TYPE}.wrap(array)}. The buffer will be independent of the provided array.
-     *
-     * @param array array to copy
-     * @return ${BUFFER_TYPE} with given contents
+     * @return copy of a whole array
      */
-    @Override
-    default ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array) {
-        return copyOf(array, 0, array.length);
+    @Benchmark
+    public ${BUFFER_TYPE} copyOfArray() {
+        return factory.copyOf(array);
     }
 
     /**
-     * Creates a {@link ${BUFFER_TYPE}} with the given contents. The resulting buffer will be equal to
-     * {@code ${BUFFER_TYPE}.wrap(array, offset, length)}. The buffer will be independent of the provided array.
-     *
-     * @param array array to copy
-     * @return ${BUFFER_TYPE} with given contents
+     * @return copy of part of an array
      */
-    @Override
-    default ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
-        ${BUFFER_TYPE} buffer = allocate(length);
-        buffer.duplicate().put(array, offset, length);
-        return buffer;
+    @Benchmark
+    public ${BUFFER_TYPE} copyOfArrayRange() {
+        return factory.copyOf(paddedArray, 1, size);
     }
 
     /**
-     * Creates a ${BUFFER_TYPE} with the given contents. The resulting buffer will be equal to {@code buffer}.
-     * The position, limit, mark, and contents of {@code buffer} will be unchanged.
-     *
-     * @param buffer buffer to copy
-     * @return Buffer with given contents
+     * @return copy of a heap buffer
      */
-    @Override
-    default ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
-        ${BUFFER_TYPE} output = allocate(buffer.remaining());
-        output.duplicate().put(buffer.duplicate());
-        return output;
+    @Benchmark
+    public ${BUFFER_TYPE} copyOfBuffer() {
+        return factory.copyOf(buffer);
     }
 }
 EOF
 
-cat << EOF > "src/main/java/com/brandontoner/ReadOnly${BUFFER_TYPE}Factory.java"
+READ_ONLY_MAPPED_FILE="src/main/java/com/brandontoner/ReadOnlyMapped${BUFFER_TYPE}Factory.java"
+
+cat << EOF > "${READ_ONLY_MAPPED_FILE}"
 /*
  * Copyright 2019 Brandon Toner
  *
@@ -140,55 +2336,122 @@ cat << EOF > "src/main/java/com/brandontoner/ReadOnly${BUFFER_TYPE}Factory.java"
 
 package com.brandontoner;
 
-import java.nio.${BUFFER_TYPE};
+EOF
+{
+  echo "import java.nio.ByteBuffer;";
+  echo "import java.nio.${BUFFER_TYPE};";
+  echo "import java.nio.ByteOrder;";
+  echo "import java.util.Set;";
+  echo "import java.util.concurrent.ForkJoinPool;";
+  echo "import java.util.function.Consumer;";
+  echo "import java.util.function.${GENERATOR};";
+} | sort -u >> "${READ_ONLY_MAPPED_FILE}"
+
+cat << EOF >> "${READ_ONLY_MAPPED_FILE}"
 
 /**
- * Provides read-only implementation of {@link ${BUFFER_TYPE}Factory}.
+ * Enumeration providing implementations of {@link ${BUFFER_TYPE}Factory} backed by files mapped as read-only.
  */
-class ReadOnly${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+enum ReadOnlyMapped${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
     /**
-     * Delegate factory.
+     * Allocates read-only memory-mapped ${BUFFER_TYPE}s of the correct size.
      */
-    private final ${BUFFER_TYPE}Factory factory;
+    MAPPED_READ_ONLY_CORRECT_SIZE(0, 0),
+    /**
+     * Allocates read-only memory-mapped ${BUFFER_TYPE}s with padding before the data.
+     */
+    MAPPED_READ_ONLY_PADDING_BEFORE(10, 0),
+    /**
+     * Allocates read-only memory-mapped ${BUFFER_TYPE}s with padding after the data.
+     */
+    MAPPED_READ_ONLY_PADDING_AFTER(0, 10),
+    /**
+     * Allocates read-only memory-mapped ${BUFFER_TYPE}s with padding before and after the data.
+     */
+    MAPPED_READ_ONLY_PADDING_BOTH(10, 10);
+
+    /**
+     * Number of elements before the data.
+     */
+    private final int paddingBefore;
+    /**
+     * Number of elements after the data.
+     */
+    private final int paddingAfter;
 
     /**
      * Constructor.
      *
-     * @param factory delegate factory
+     * @param paddingBefore number of elements before the data
+     * @param paddingAfter  number of elements after the data
      */
-    ReadOnly${BUFFER_TYPE}Factory(final ${BUFFER_TYPE}Factory factory) {
-        this.factory = factory;
+    ReadOnlyMapped${BUFFER_TYPE}Factory(final int paddingBefore, final int paddingAfter) {
+        this.paddingBefore = paddingBefore;
+        this.paddingAfter = paddingAfter;
+    }
+
+    /**
+     * @return traits of the buffers this factory creates
+     */
+    Set<BufferTrait> traits() {
+        return BufferTrait.of(ByteOrder.BIG_ENDIAN, paddingBefore, paddingAfter,
+                              BufferTrait.DIRECT, BufferTrait.READ_ONLY${VIEW_TRAIT});
     }
 
     @Override
     public ${BUFFER_TYPE} allocate(final int length) {
-        return factory.allocate(length).asReadOnlyBuffer();
+        return map(length, false, contents -> { });
     }
 
     @Override
     public ${BUFFER_TYPE} copyOf(final ${ARRAY_TYPE}[] array, final int offset, final int length) {
-        return factory.copyOf(array, offset, length).asReadOnlyBuffer();
+        return map(length, false, contents -> ${BUFFER_TYPE}s.copy(array, offset, length, contents));
     }
 
     @Override
     public ${BUFFER_TYPE} copyOf(final ${BUFFER_TYPE} buffer) {
-        return factory.copyOf(buffer).asReadOnlyBuffer();
+        return map(buffer.remaining(), false, contents -> ${BUFFER_TYPE}s.copy(buffer, contents));
     }
 
     @Override
-    public String toString() {
-        return "READ_ONLY_" + factory;
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator) {
+        return map(length, false, contents -> ${BUFFER_TYPE}s.fill(contents, generator));
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length, final ${GENERATOR} generator, final ForkJoinPool pool) {
+        return map(length, false, contents -> ${BUFFER_TYPE}s.fill(contents, generator, pool));
+    }
+
+    /**
+     * Maps a temporary file as read-only, after writing its contents.
+     *
+     * @param length       number of elements that should be remaining in the buffer
+     * @param keepWritable true if the writable buffer given to the initializer stays mapped, so that it can be kept to
+     *                     change the contents of the read-only buffer later
+     * @param initializer  writes the data, given a writable buffer whose remaining elements are the data
+     * @return read-only ${BUFFER_TYPE}
+     */
+    ${BUFFER_TYPE} map(final int length, final boolean keepWritable, final Consumer<${BUFFER_TYPE}> initializer) {
+        int capacity = Sizes.add(Sizes.add(paddingBefore, length), paddingAfter);
+        int bytes = Sizes.bytes(capacity, ${BOXED_TYPE}.BYTES);
+        ByteBuffer mapped = MappedFiles.mapReadOnly(bytes, keepWritable, writable -> {
+            ${BUFFER_TYPE} contents = writable${AS_BUFFER_FUNC};
+            contents.position(paddingBefore);
+            contents.limit(paddingBefore + length);
+            initializer.accept(contents);
+        });
+        ${BUFFER_TYPE} buffer = mapped${AS_BUFFER_FUNC};
+        buffer.position(paddingBefore);
+        buffer.limit(paddingBefore + length);
+        return buffer;
     }
 }
 EOF
 
-if [ "${BUFFER_TYPE}" == "ByteBuffer" ]; then
-  AS_BUFFER_FUNC=""
-else
-  AS_BUFFER_FUNC=".as${BUFFER_TYPE}()"
-fi
+ALIGNED_FILE="src/main/java/com/brandontoner/Aligned${BUFFER_TYPE}Factory.java"
 
-cat << EOF > "src/main/java/com/brandontoner/ReadWrite${BUFFER_TYPE}Factory.java"
+cat << EOF > "${ALIGNED_FILE}"
 /*
  * Copyright 2019 Brandon Toner
  *
@@ -211,112 +2474,194 @@ EOF
 {
   echo "import java.nio.ByteBuffer;";
   echo "import java.nio.${BUFFER_TYPE};";
-} | sort -u >> "src/main/java/com/brandontoner/ReadWrite${BUFFER_TYPE}Factory.java"
+  if [ "${BUFFER_TYPE}" != "ByteBuffer" ]; then
+    echo "import java.nio.ByteOrder;";
+  fi
+  echo "import java.util.ArrayList;";
+  echo "import java.util.Collection;";
+  echo "import java.util.List;";
+} | sort -u >> "${ALIGNED_FILE}"
 
-cat << EOF >> "src/main/java/com/brandontoner/ReadWrite${BUFFER_TYPE}Factory.java"
+cat << EOF >> "${ALIGNED_FILE}"
 
 /**
- * Enumeration providing read-write implementations of {@link ${BUFFER_TYPE}Factory}.
+ * Provides direct implementations of {@link ${BUFFER_TYPE}Factory} whose first element is at a chosen offset from an
+ * alignment boundary.
  */
-enum ReadWrite${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+class Aligned${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
     /**
-     * Allocates non-direct ${BUFFER_TYPE}s of the correct size.
+     * Name of the factory.
      */
-    NON_DIRECT_CORRECT_SIZE {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            return ${BUFFER_TYPE}.allocate(length);
-        }
-    },
+    private final String name;
     /**
-     * Allocates non-direct ${BUFFER_TYPE}s with padding before the data.
+     * Alignment boundary, in bytes.
      */
-    NON_DIRECT_PADDING_BEFORE {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = ${BUFFER_TYPE}.allocate(length + 10);
-            buffer.position(10);
-            return buffer;
-        }
-    },
+    private final int alignment;
     /**
-     * Allocates non-direct ${BUFFER_TYPE}s with padding after the data.
+     * Offset of the first element from the alignment boundary, in bytes.
      */
-    NON_DIRECT_PADDING_AFTER {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = ${BUFFER_TYPE}.allocate(length + 10);
-            buffer.limit(buffer.position() + length);
-            return buffer;
-        }
-    },
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param name      name of the factory
+     * @param alignment alignment boundary, in bytes, must be a power of two
+     * @param offset    offset of the first element from the alignment boundary, in bytes
+     */
+    Aligned${BUFFER_TYPE}Factory(final String name, final int alignment, final int offset) {
+        this.name = name;
+        this.alignment = alignment;
+        this.offset = offset;
+    }
+
     /**
-     * Allocates non-direct ${BUFFER_TYPE}s with padding before and after the data.
+     * Creates factories whose first element is at every offset within a cache line, as well as page aligned, and 8
+     * bytes before a page boundary.
+     *
+     * @return alignment sweep factories
      */
-    NON_DIRECT_PADDING_BOTH {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = ${BUFFER_TYPE}.allocate(length + 20);
-            buffer.position(10);
-            buffer.limit(buffer.position() + length);
-            return buffer;
+    static Collection<${BUFFER_TYPE}Factory> sweep() {
+        List<${BUFFER_TYPE}Factory> factories = new ArrayList<>();
+        factories.add(new Aligned${BUFFER_TYPE}Factory("DIRECT_CACHE_LINE_ALIGNED", Alignment.CACHE_LINE_SIZE, 0));
+        for (int offset = 1; offset < Alignment.CACHE_LINE_SIZE; offset++) {
+            String offsetName = "DIRECT_CACHE_LINE_OFFSET_" + offset;
+            factories.add(new Aligned${BUFFER_TYPE}Factory(offsetName, Alignment.CACHE_LINE_SIZE, offset));
         }
-    },
+        factories.add(new Aligned${BUFFER_TYPE}Factory("DIRECT_PAGE_ALIGNED", Alignment.PAGE_SIZE, 0));
+        String name = "DIRECT_PAGE_BOUNDARY_MINUS_8";
+        factories.add(new Aligned${BUFFER_TYPE}Factory(name, Alignment.PAGE_SIZE, Alignment.PAGE_SIZE - 8));
+        return factories;
+    }
+
+    @Override
+    public ${BUFFER_TYPE} allocate(final int length) {
+EOF
+if [ "${BUFFER_TYPE}" == "ByteBuffer" ]; then
+cat << EOF >> "${ALIGNED_FILE}"
+        return Alignment.allocateDirect(Sizes.bytes(length, ${BOXED_TYPE}.BYTES), alignment, offset);
+EOF
+else
+cat << EOF >> "${ALIGNED_FILE}"
+        ByteBuffer bytes = Alignment.allocateDirect(Sizes.bytes(length, ${BOXED_TYPE}.BYTES), alignment, offset);
+        return bytes.order(ByteOrder.nativeOrder())${AS_BUFFER_FUNC};
+EOF
+fi
+cat << EOF >> "${ALIGNED_FILE}"
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
+EOF
+
+READ_WRITE_FILE="src/main/java/com/brandontoner/ReadWrite${BUFFER_TYPE}Factory.java"
+
+cat << EOF > "${READ_WRITE_FILE}"
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+EOF
+{
+  echo "import java.nio.ByteBuffer;";
+  echo "import java.nio.${BUFFER_TYPE};";
+  echo "import java.nio.ByteOrder;";
+  echo "import java.nio.channels.FileChannel;";
+  echo "import java.util.EnumSet;";
+  echo "import java.util.Set;";
+} | sort -u >> "${READ_WRITE_FILE}"
+
+cat << EOF >> "${READ_WRITE_FILE}"
+
+/**
+ * Enumeration providing read-write implementations of {@link ${BUFFER_TYPE}Factory}.
+ */
+enum ReadWrite${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
+EOF
+
+{
+padding_constants "NON_DIRECT" "non-direct" "${BUFFER_TYPE}.allocate" "" "${HEAP_ORDER}, BufferTrait.HEAP, BufferTrait.ARRAY"
+
+cat << EOF
     /**
      * Allocates non-direct ${BUFFER_TYPE}s with correct size, but non-zero array offset.
      */
-    NON_DIRECT_NON_ZERO_ARRAY_OFFSET {
+    NON_DIRECT_NON_ZERO_ARRAY_OFFSET(${HEAP_ORDER}, BufferTrait.HEAP, BufferTrait.ARRAY,
+                                     BufferTrait.NONZERO_ARRAY_OFFSET) {
         @Override
         public ${BUFFER_TYPE} allocate(final int length) {
-            ${ARRAY_TYPE}[] array = new ${ARRAY_TYPE}[length + 10];
+            ${ARRAY_TYPE}[] array = new ${ARRAY_TYPE}[Sizes.add(length, 10)];
             ${BUFFER_TYPE} buffer = ${BUFFER_TYPE}.wrap(array, 10, length).slice();
             assert buffer.arrayOffset() != 0 : "Array offset should be non-zero";
             return buffer;
         }
     },
+EOF
+
+DIRECT_TRAITS="ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT${VIEW_TRAIT}"
+padding_constants "DIRECT" "direct" "allocateDirect" "" "${DIRECT_TRAITS}"
+padding_constants "MAPPED_READ_WRITE" "read-write memory-mapped" "allocateMapped" ", FileChannel.MapMode.READ_WRITE" \
+                  "${DIRECT_TRAITS}"
+padding_constants "MAPPED_PRIVATE" "private (copy-on-write) memory-mapped" "allocateMapped" \
+                  ", FileChannel.MapMode.PRIVATE" "${DIRECT_TRAITS}"
+
+if [ "${BUFFER_TYPE}" != "ByteBuffer" ]; then
+  padding_constants "DIRECT_NATIVE_ORDER" "native-order direct" "allocateDirect" ", ByteOrder.nativeOrder()" \
+                    "ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW"
+  padding_constants "DIRECT_LITTLE_ENDIAN" "little-endian direct" "allocateDirect" ", ByteOrder.LITTLE_ENDIAN" \
+                    "ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW"
+  padding_constants "HEAP_VIEW_BIG_ENDIAN" "big-endian heap view" "allocateHeapView" ", ByteOrder.BIG_ENDIAN" \
+                    "ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW"
+  non_zero_offset_view_constant "HEAP_VIEW_BIG_ENDIAN" "big-endian heap view" "ByteOrder.BIG_ENDIAN"
+  padding_constants "HEAP_VIEW_LITTLE_ENDIAN" "little-endian heap view" "allocateHeapView" ", ByteOrder.LITTLE_ENDIAN" \
+                    "ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW"
+  non_zero_offset_view_constant "HEAP_VIEW_LITTLE_ENDIAN" "little-endian heap view" "ByteOrder.LITTLE_ENDIAN"
+  for BYTE_OFFSET in 1 3 7; do
+    misaligned_constant "${BYTE_OFFSET}"
+  done
+fi
+} | sed '$ s/^    },$/    };/' >> "${READ_WRITE_FILE}"
+
+cat << EOF >> "${READ_WRITE_FILE}"
+
     /**
-     * Allocates direct ${BUFFER_TYPE}s of the correct size.
-     */
-    DIRECT_CORRECT_SIZE {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            return allocateDirect(length);
-        }
-    },
-    /**
-     * Allocates direct ${BUFFER_TYPE}s with padding before the data.
+     * Traits of the buffers.
      */
-    DIRECT_PADDING_BEFORE {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = allocateDirect(length + 10);
-            buffer.position(10);
-            return buffer;
-        }
-    },
+    private final Set<BufferTrait> traits;
+
     /**
-     * Allocates direct ${BUFFER_TYPE}s with padding after the data.
+     * Constructor.
+     *
+     * @param order  byte order of the buffers
+     * @param traits the other traits of the buffers
      */
-    DIRECT_PADDING_AFTER {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = allocateDirect(length + 10);
-            buffer.limit(buffer.position() + length);
-            return buffer;
-        }
-    },
+    ReadWrite${BUFFER_TYPE}Factory(final ByteOrder order, final BufferTrait... traits) {
+        this.traits = BufferTrait.of(order, traits);
+    }
+
     /**
-     * Allocates direct ${BUFFER_TYPE}s with padding before and after the data.
+     * @return traits of the buffers
      */
-    DIRECT_PADDING_BOTH {
-        @Override
-        public ${BUFFER_TYPE} allocate(final int length) {
-            ${BUFFER_TYPE} buffer = allocateDirect(length + 20);
-            buffer.position(10);
-            buffer.limit(buffer.position() + length);
-            return buffer;
-        }
-    };
+    Set<BufferTrait> traits() {
+        return EnumSet.copyOf(traits);
+    }
 
     /**
      * Allocates a direct ${BUFFER_TYPE} with the given capacity.
@@ -325,9 +2670,64 @@ enum ReadWrite${BUFFER_TYPE}Factory implements ${BUFFER_TYPE}Factory {
      * @return direct ${BUFFER_TYPE}.
      */
     static ${BUFFER_TYPE} allocateDirect(final int length) {
-        return ByteBuffer.allocateDirect(length * ${BOXED_TYPE}.BYTES)${AS_BUFFER_FUNC};
+        return DirectMemory.allocate(Sizes.bytes(length, ${BOXED_TYPE}.BYTES))${AS_BUFFER_FUNC};
+    }
+
+    /**
+     * Allocates a ${BUFFER_TYPE} with the given capacity, backed by a memory-mapped temporary file.
+     *
+     * @param length capacity
+     * @param mode   mapping mode
+     * @return memory-mapped ${BUFFER_TYPE}.
+     */
+    static ${BUFFER_TYPE} allocateMapped(final int length, final FileChannel.MapMode mode) {
+        return MappedFiles.map(mode, Sizes.bytes(length, ${BOXED_TYPE}.BYTES))${AS_BUFFER_FUNC};
+    }
+EOF
+
+if [ "${BUFFER_TYPE}" != "ByteBuffer" ]; then
+cat << EOF >> "${READ_WRITE_FILE}"
+
+    /**
+     * Allocates a direct ${BUFFER_TYPE} with the given capacity, viewing the underlying ByteBuffer in the given order.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return direct ${BUFFER_TYPE}.
+     */
+    static ${BUFFER_TYPE} allocateDirect(final int length, final ByteOrder order) {
+        return DirectMemory.allocate(Sizes.bytes(length, ${BOXED_TYPE}.BYTES)).order(order)${AS_BUFFER_FUNC};
+    }
+
+    /**
+     * Allocates a non-direct ${BUFFER_TYPE} which is a view of a heap ByteBuffer, i.e. it is not backed by an accessible
+     * array.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return non-direct ${BUFFER_TYPE} without an accessible array.
+     */
+    static ${BUFFER_TYPE} allocateHeapView(final int length, final ByteOrder order) {
+        return ByteBuffer.allocate(Sizes.bytes(length, ${BOXED_TYPE}.BYTES)).order(order)${AS_BUFFER_FUNC};
+    }
+
+    /**
+     * Allocates a native-order direct ${BUFFER_TYPE} with the given capacity, whose first element starts
+     * {@code byteOffset} bytes into the underlying ByteBuffer. Since direct memory is allocated with at least 8 byte
+     * alignment, an odd offset means no element is naturally aligned.
+     *
+     * @param length     capacity
+     * @param byteOffset offset of the first element within the underlying ByteBuffer, in bytes
+     * @return direct ${BUFFER_TYPE}.
+     */
+    static ${BUFFER_TYPE} allocateDirectMisaligned(final int length, final int byteOffset) {
+        ByteBuffer bytes = DirectMemory.allocate(Sizes.add(Sizes.bytes(length, ${BOXED_TYPE}.BYTES), byteOffset));
+        bytes.position(byteOffset);
+        return bytes.order(ByteOrder.nativeOrder())${AS_BUFFER_FUNC};
     }
-}
 EOF
+fi
+
+echo "}" >> "${READ_WRITE_FILE}"
 
 done < "${TYPES}"
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Copies into and fills ByteBuffers without moving their positions, and without allocating duplicates. Java 16
+ * version, using the absolute bulk puts.
+ */
+final class ByteBuffers {
+    /**
+     * Number of elements up to which a parallel fill is done by a single task.
+     */
+    static final int PARALLEL_FILL_THRESHOLD = 1 << 14;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private ByteBuffers() {
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. The
+     * positions, limits, and marks of both buffers are unchanged.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     * @throws BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copy(final ByteBuffer src, final ByteBuffer dst) {
+        int length = src.remaining();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        dst.put(dst.position(), src, src.position(), length);
+    }
+
+    /**
+     * Copies part of an array into {@code dst}, starting at the position of {@code dst}. The position, limit, and
+     * mark of {@code dst} are unchanged.
+     *
+     * @param src    array to copy from
+     * @param offset index of the first element to copy
+     * @param length number of elements to copy
+     * @param dst    buffer to copy into
+     * @throws IndexOutOfBoundsException if {@code offset} and {@code length} don't describe a range of {@code src}
+     * @throws BufferOverflowException   if {@code dst} has fewer than {@code length} elements remaining
+     * @throws ReadOnlyBufferException   if {@code dst} is read-only
+     */
+    static void copy(final byte[] src, final int offset, final int length, final ByteBuffer dst) {
+        if ((offset | length | (offset + length) | (src.length - (offset + length))) < 0) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + src.length);
+        }
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        dst.put(dst.position(), src, offset, length);
+    }
+
+    /**
+     * Sets each remaining element of {@code dst} to the result of the generator for its index relative to the
+     * position (narrowed to byte). The generator is called in ascending index order. The position, limit, and mark of
+     * {@code dst} are unchanged.
+     *
+     * @param dst       buffer to fill
+     * @param generator computes the element at each index
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void fill(final ByteBuffer dst, final IntUnaryOperator generator) {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        fill(dst, generator, 0, dst.remaining());
+    }
+
+    /**
+     * Sets each remaining element of {@code dst} to the result of the generator for its index relative to the
+     * position (narrowed to byte). Buffers with more than {@link #PARALLEL_FILL_THRESHOLD} elements are split
+     * into ranges filled by the tasks of {@code pool}, so the generator may be called concurrently, and in any order.
+     * The position, limit, and mark of {@code dst} are unchanged.
+     *
+     * @param dst       buffer to fill
+     * @param generator computes the element at each index, must be safe to call from multiple threads
+     * @param pool      pool filling the ranges of large buffers
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void fill(final ByteBuffer dst, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int length = dst.remaining();
+        if (length <= PARALLEL_FILL_THRESHOLD) {
+            fill(dst, generator, 0, length);
+        } else {
+            pool.invoke(new Fill(dst, generator, 0, length));
+        }
+    }
+
+    /**
+     * Sets a range of the elements of {@code dst} to the results of the generator, with absolute puts, so that
+     * ranges can be filled concurrently.
+     *
+     * @param dst       writable buffer to fill
+     * @param generator computes the element at each index
+     * @param from      first index to fill, relative to the position of {@code dst}
+     * @param to        index after the last index to fill, relative to the position of {@code dst}
+     */
+    private static void fill(final ByteBuffer dst,
+                             final IntUnaryOperator generator,
+                             final int from,
+                             final int to) {
+        if (dst.hasArray()) {
+            byte[] array = dst.array();
+            int base = dst.arrayOffset() + dst.position();
+            for (int i = from; i < to; i++) {
+                array[base + i] = (byte) generator.applyAsInt(i);
+            }
+        } else {
+            int position = dst.position();
+            for (int i = from; i < to; i++) {
+                dst.put(position + i, (byte) generator.applyAsInt(i));
+            }
+        }
+    }
+
+    /**
+     * Fills a range of a buffer, splitting it in half until the ranges are small enough.
+     */
+    private static final class Fill extends RecursiveAction {
+        /**
+         * Buffer to fill.
+         */
+        private final ByteBuffer dst;
+        /**
+         * Computes the element at each index.
+         */
+        private final IntUnaryOperator generator;
+        /**
+         * First index to fill, relative to the position of {@link #dst}.
+         */
+        private final int from;
+        /**
+         * Index after the last index to fill, relative to the position of {@link #dst}.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param dst       buffer to fill
+         * @param generator computes the element at each index
+         * @param from      first index to fill, relative to the position of {@code dst}
+         * @param to        index after the last index to fill, relative to the position of {@code dst}
+         */
+        Fill(final ByteBuffer dst, final IntUnaryOperator generator, final int from, final int to) {
+            this.dst = dst;
+            this.generator = generator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_FILL_THRESHOLD) {
+                fill(dst, generator, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Fill(dst, generator, from, middle), new Fill(dst, generator, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. Both
+     * buffers are split into slices of at most {@code sliceLength} elements, which are copied by the tasks of
+     * {@code pool}. The positions, limits, and marks of both buffers are unchanged.
+     *
+     * @param src         buffer to copy from
+     * @param dst         buffer to copy into
+     * @param pool        pool copying the slices
+     * @param sliceLength maximum number of elements copied by each task
+     * @throws BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copy(final ByteBuffer src, final ByteBuffer dst, final ForkJoinPool pool, final int sliceLength) {
+        int length = src.remaining();
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (length > dst.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (length <= sliceLength) {
+            copy(src, dst);
+        } else {
+            // slices have their own positions, so the tasks don't move the positions of src and dst
+            pool.invoke(new Copy(src.slice(), slice(dst, 0, length), sliceLength));
+        }
+    }
+
+    /**
+     * Creates a buffer sharing a range of the remaining elements of a buffer.
+     *
+     * @param buffer buffer to slice, which is unchanged
+     * @param from   index of the first element of the slice, relative to the position of {@code buffer}
+     * @param to     index after the last element of the slice, relative to the position of {@code buffer}
+     * @return slice
+     */
+    private static ByteBuffer slice(final ByteBuffer buffer, final int from, final int to) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(buffer.position() + to);
+        duplicate.position(buffer.position() + from);
+        return duplicate.slice();
+    }
+
+    /**
+     * Copies a slice of a buffer, splitting it in half until the slices are small enough.
+     */
+    private static final class Copy extends RecursiveAction {
+        /**
+         * Slice to copy from.
+         */
+        private final ByteBuffer src;
+        /**
+         * Slice to copy into, with as many elements as {@link #src}.
+         */
+        private final ByteBuffer dst;
+        /**
+         * Maximum number of elements copied by each task.
+         */
+        private final int sliceLength;
+
+        /**
+         * Constructor.
+         *
+         * @param src         slice to copy from
+         * @param dst         slice to copy into, with as many elements as {@code src}
+         * @param sliceLength maximum number of elements copied by each task
+         */
+        Copy(final ByteBuffer src, final ByteBuffer dst, final int sliceLength) {
+            this.src = src;
+            this.dst = dst;
+            this.sliceLength = sliceLength;
+        }
+
+        @Override
+        protected void compute() {
+            int length = src.remaining();
+            if (length <= sliceLength) {
+                copy(src, dst);
+            } else {
+                int middle = length >>> 1;
+                invokeAll(new Copy(slice(src, 0, middle), slice(dst, 0, middle), sliceLength),
+                          new Copy(slice(src, middle, length), slice(dst, middle, length), sliceLength));
+            }
+        }
+    }
+}
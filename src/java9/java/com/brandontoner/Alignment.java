@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates direct ByteBuffers at a chosen offset from an alignment boundary. Java 9 version, calling
+ * {@link ByteBuffer#alignedSlice(int)} directly.
+ */
+final class Alignment {
+    /**
+     * Assumed size of a cache line, in bytes.
+     */
+    static final int CACHE_LINE_SIZE = 64;
+    /**
+     * Assumed size of a page, in bytes.
+     */
+    static final int PAGE_SIZE = 4096;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private Alignment() {
+    }
+
+    /**
+     * Allocates a direct ByteBuffer with the given capacity, whose first byte is {@code offset} bytes past an address
+     * which is a multiple of {@code alignment}.
+     *
+     * @param capacity  capacity of the buffer, in bytes
+     * @param alignment alignment boundary, must be a power of two
+     * @param offset    offset from the alignment boundary, in bytes
+     * @return direct ByteBuffer
+     */
+    static ByteBuffer allocateDirect(final int capacity, final int alignment, final int offset) {
+        // the aligned slice may skip up to alignment - 1 bytes at either end
+        int padding = 2 * (alignment - 1);
+        int size = Sizes.add(Sizes.add(capacity, offset), padding);
+        ByteBuffer aligned = DirectMemory.allocate(size).alignedSlice(alignment);
+        aligned.position(offset);
+        aligned.limit(offset + capacity);
+        return aligned.slice();
+    }
+}
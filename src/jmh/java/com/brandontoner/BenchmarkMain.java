@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Runs the benchmarks for every read-write and read-only factory, reporting allocation rates with the
+ * {@link GCProfiler} unless other profilers are requested. Accepts the same arguments as the standard JMH launcher.
+ */
+public final class BenchmarkMain {
+    /**
+     * Private constructor, entry point.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command line arguments
+     * @throws Exception if the benchmarks can't be run
+     */
+    public static void main(final String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+        if (options.shouldList()) {
+            new Runner(options).list();
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (options.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        factories(builder, options, "byteFactory", ByteBufferFactory.allFactories());
+        factories(builder, options, "charFactory", CharBufferFactory.allFactories());
+        factories(builder, options, "doubleFactory", DoubleBufferFactory.allFactories());
+        factories(builder, options, "floatFactory", FloatBufferFactory.allFactories());
+        factories(builder, options, "intFactory", IntBufferFactory.allFactories());
+        factories(builder, options, "longFactory", LongBufferFactory.allFactories());
+        factories(builder, options, "shortFactory", ShortBufferFactory.allFactories());
+        new Runner(builder.build()).run();
+    }
+
+    /**
+     * Finds a factory by name.
+     *
+     * @param factories factories to search
+     * @param name      name of the factory
+     * @param <F>       factory type
+     * @return factory whose {@code toString()} is {@code name}
+     * @throws IllegalArgumentException if there is no such factory
+     */
+    static <F> F factory(final Collection<F> factories, final String name) {
+        return factories.stream()
+                        .filter(factory -> factory.toString().equals(name))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown factory: " + name));
+    }
+
+    /**
+     * Sets a factory parameter to the names of all the factories, unless it was given on the command line.
+     *
+     * @param builder   options being built
+     * @param options   command line options
+     * @param parameter name of the parameter
+     * @param factories factories to benchmark
+     */
+    private static void factories(final ChainedOptionsBuilder builder,
+                                  final CommandLineOptions options,
+                                  final String parameter,
+                                  final Collection<?> factories) {
+        if (!options.getParameter(parameter).hasValue()) {
+            builder.param(parameter, factories.stream().map(Object::toString).toArray(String[]::new));
+        }
+    }
+}
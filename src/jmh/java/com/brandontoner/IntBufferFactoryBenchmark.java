@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating IntBuffers with each {@link IntBufferFactory}. {@link BenchmarkMain} runs
+ * every read-write and read-only factory, the default {@link #intFactory} only allows the benchmarks to run
+ * under the standard JMH launcher.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class IntBufferFactoryBenchmark {
+    /**
+     * Name of the factory to benchmark.
+     */
+    @Param("NON_DIRECT_CORRECT_SIZE")
+    public String intFactory;
+    /**
+     * Number of elements in each buffer.
+     */
+    @Param({"0", "16", "1024", "65536"})
+    public int size;
+
+    /**
+     * Factory to benchmark.
+     */
+    private IntBufferFactory factory;
+    /**
+     * Array of {@link #size} elements.
+     */
+    private int[] array;
+    /**
+     * Array with {@link #size} elements between one element of padding on each side.
+     */
+    private int[] paddedArray;
+    /**
+     * Heap buffer of {@link #size} elements.
+     */
+    private IntBuffer buffer;
+
+    /**
+     * Looks up the factory, and creates the inputs.
+     */
+    @Setup
+    public void setUp() {
+        factory = BenchmarkMain.factory(IntBufferFactory.allFactories(), intFactory);
+        array = new int[size];
+        paddedArray = new int[size + 2];
+        buffer = IntBuffer.allocate(size);
+    }
+
+    /**
+     * @return newly allocated buffer
+     */
+    @Benchmark
+    public IntBuffer allocate() {
+        return factory.allocate(size);
+    }
+
+    /**
+     * @return copy of a whole array
+     */
+    @Benchmark
+    public IntBuffer copyOfArray() {
+        return factory.copyOf(array);
+    }
+
+    /**
+     * @return copy of part of an array
+     */
+    @Benchmark
+    public IntBuffer copyOfArrayRange() {
+        return factory.copyOf(paddedArray, 1, size);
+    }
+
+    /**
+     * @return copy of a heap buffer
+     */
+    @Benchmark
+    public IntBuffer copyOfBuffer() {
+        return factory.copyOf(buffer);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Provides direct implementations of {@link IntBufferFactory} whose first element is at a chosen offset from an
+ * alignment boundary.
+ */
+class AlignedIntBufferFactory implements IntBufferFactory {
+    /**
+     * Name of the factory.
+     */
+    private final String name;
+    /**
+     * Alignment boundary, in bytes.
+     */
+    private final int alignment;
+    /**
+     * Offset of the first element from the alignment boundary, in bytes.
+     */
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param name      name of the factory
+     * @param alignment alignment boundary, in bytes, must be a power of two
+     * @param offset    offset of the first element from the alignment boundary, in bytes
+     */
+    AlignedIntBufferFactory(final String name, final int alignment, final int offset) {
+        this.name = name;
+        this.alignment = alignment;
+        this.offset = offset;
+    }
+
+    /**
+     * Creates factories whose first element is at every offset within a cache line, as well as page aligned, and 8
+     * bytes before a page boundary.
+     *
+     * @return alignment sweep factories
+     */
+    static Collection<IntBufferFactory> sweep() {
+        List<IntBufferFactory> factories = new ArrayList<>();
+        factories.add(new AlignedIntBufferFactory("DIRECT_CACHE_LINE_ALIGNED", Alignment.CACHE_LINE_SIZE, 0));
+        for (int offset = 1; offset < Alignment.CACHE_LINE_SIZE; offset++) {
+            String offsetName = "DIRECT_CACHE_LINE_OFFSET_" + offset;
+            factories.add(new AlignedIntBufferFactory(offsetName, Alignment.CACHE_LINE_SIZE, offset));
+        }
+        factories.add(new AlignedIntBufferFactory("DIRECT_PAGE_ALIGNED", Alignment.PAGE_SIZE, 0));
+        String name = "DIRECT_PAGE_BOUNDARY_MINUS_8";
+        factories.add(new AlignedIntBufferFactory(name, Alignment.PAGE_SIZE, Alignment.PAGE_SIZE - 8));
+        return factories;
+    }
+
+    @Override
+    public IntBuffer allocate(final int length) {
+        ByteBuffer bytes = Alignment.allocateDirect(Sizes.bytes(length, Integer.BYTES), alignment, offset);
+        return bytes.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
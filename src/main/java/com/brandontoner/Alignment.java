@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates direct ByteBuffers at a chosen offset from an alignment boundary.
+ */
+final class Alignment {
+    /**
+     * Assumed size of a cache line, in bytes.
+     */
+    static final int CACHE_LINE_SIZE = 64;
+    /**
+     * Assumed size of a page, in bytes.
+     */
+    static final int PAGE_SIZE = 4096;
+    /**
+     * {@code ByteBuffer.alignedSlice(int)}, or null if running on Java 8.
+     */
+    private static final MethodHandle ALIGNED_SLICE = findAlignedSlice();
+    /**
+     * {@code Buffer.address}, used to align buffers if {@code ByteBuffer.alignedSlice(int)} doesn't exist.
+     */
+    private static final Field ADDRESS = ALIGNED_SLICE == null ? findAddress() : null;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private Alignment() {
+    }
+
+    /**
+     * Allocates a direct ByteBuffer with the given capacity, whose first byte is {@code offset} bytes past an address
+     * which is a multiple of {@code alignment}.
+     *
+     * @param capacity  capacity of the buffer, in bytes
+     * @param alignment alignment boundary, must be a power of two
+     * @param offset    offset from the alignment boundary, in bytes
+     * @return direct ByteBuffer
+     */
+    static ByteBuffer allocateDirect(final int capacity, final int alignment, final int offset) {
+        // the aligned slice may skip up to alignment - 1 bytes at either end
+        int padding = 2 * (alignment - 1);
+        int size = Sizes.add(Sizes.add(capacity, offset), padding);
+        ByteBuffer aligned = alignedSlice(DirectMemory.allocate(size), alignment);
+        aligned.position(offset);
+        aligned.limit(offset + capacity);
+        return aligned.slice();
+    }
+
+    /**
+     * Creates a slice of {@code buffer} which starts at the first address that is a multiple of {@code alignment}.
+     *
+     * @param buffer    direct buffer to slice
+     * @param alignment alignment boundary, must be a power of two
+     * @return aligned slice of {@code buffer}
+     */
+    private static ByteBuffer alignedSlice(final ByteBuffer buffer, final int alignment) {
+        if (ALIGNED_SLICE != null) {
+            try {
+                return (ByteBuffer) ALIGNED_SLICE.invokeExact(buffer, alignment);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        if (ADDRESS == null) {
+            throw new UnsupportedOperationException("Unable to determine the address of direct buffers");
+        }
+        try {
+            long address = ADDRESS.getLong(buffer);
+            int skip = (int) (-address & (alignment - 1));
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(skip);
+            return duplicate.slice();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up {@code ByteBuffer.alignedSlice(int)}, which was added in Java 9.
+     *
+     * @return method handle, or null if the method doesn't exist
+     */
+    private static MethodHandle findAlignedSlice() {
+        try {
+            return MethodHandles.publicLookup()
+                                .findVirtual(ByteBuffer.class, "alignedSlice",
+                                             MethodType.methodType(ByteBuffer.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the field holding the address of direct buffers.
+     *
+     * @return accessible field, or null if it can't be accessed
+     */
+    private static Field findAddress() {
+        try {
+            Field field = Buffer.class.getDeclaredField("address");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException | RuntimeException e) {
+            return null;
+        }
+    }
+}
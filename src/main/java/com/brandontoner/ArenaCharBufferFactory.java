@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Provides implementation of {@link CharBufferFactory} whose direct memory is owned by a {@link BufferArena}.
+ */
+class ArenaCharBufferFactory implements CharBufferFactory {
+    /**
+     * Arena owning the direct memory.
+     */
+    private final BufferArena arena;
+    /**
+     * Delegate factory.
+     */
+    private final CharBufferFactory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param arena   arena owning the direct memory
+     * @param factory delegate factory
+     */
+    ArenaCharBufferFactory(final BufferArena arena, final CharBufferFactory factory) {
+        this.arena = arena;
+        this.factory = factory;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length) {
+        return arena.allocateFrom(() -> factory.allocate(length));
+    }
+
+    @Override
+    public CharBuffer copyOf(final char[] array, final int offset, final int length) {
+        return arena.allocateFrom(() -> factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public CharBuffer copyOf(final CharBuffer buffer) {
+        return arena.allocateFrom(() -> factory.copyOf(buffer));
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator));
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator, pool));
+    }
+
+    /**
+     * @return delegate factory
+     */
+    CharBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "ARENA_" + factory;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Provides implementation of {@link FloatBufferFactory} whose direct memory is owned by a {@link BufferArena}.
+ */
+class ArenaFloatBufferFactory implements FloatBufferFactory {
+    /**
+     * Arena owning the direct memory.
+     */
+    private final BufferArena arena;
+    /**
+     * Delegate factory.
+     */
+    private final FloatBufferFactory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param arena   arena owning the direct memory
+     * @param factory delegate factory
+     */
+    ArenaFloatBufferFactory(final BufferArena arena, final FloatBufferFactory factory) {
+        this.arena = arena;
+        this.factory = factory;
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length) {
+        return arena.allocateFrom(() -> factory.allocate(length));
+    }
+
+    @Override
+    public FloatBuffer copyOf(final float[] array, final int offset, final int length) {
+        return arena.allocateFrom(() -> factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public FloatBuffer copyOf(final FloatBuffer buffer) {
+        return arena.allocateFrom(() -> factory.copyOf(buffer));
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator));
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator, final ForkJoinPool pool) {
+        return arena.allocateFrom(() -> factory.allocate(length, generator, pool));
+    }
+
+    /**
+     * @return delegate factory
+     */
+    FloatBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "ARENA_" + factory;
+    }
+}
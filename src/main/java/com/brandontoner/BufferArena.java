@@ -0,0 +1,333 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Scope owning the direct memory of every buffer created through the factories it wraps. Direct memory is carved out
+ * of large slabs with a bump pointer, and all of it is freed at once by {@link #close()}, rather than when the garbage
+ * collector notices the buffers are unreachable. Memory-mapped buffers can't be carved out of a slab, but the arena
+ * owns them too, and unmaps them when it is closed.
+ *
+ * <p>Wrapped factories keep the padding, offset, byte order, and alignment of the factories they wrap, only the
+ * source of their direct memory changes. Non-direct buffers are unaffected. Buffers must not be used after the arena
+ * is closed, doing so has undefined results and may crash the JVM.
+ */
+public final class BufferArena implements AutoCloseable {
+    /**
+     * Default size of each slab, in bytes.
+     */
+    public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+    /**
+     * Alignment of each allocation relative to the start of its slab, in bytes.
+     */
+    private static final int ALIGNMENT = Alignment.CACHE_LINE_SIZE;
+    /**
+     * Size of each slab, in bytes.
+     */
+    private final int slabSize;
+    /**
+     * Every slab allocated by this arena.
+     */
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    /**
+     * Every mapped buffer created through this arena.
+     */
+    private final List<ByteBuffer> mappings = new ArrayList<>();
+    /**
+     * Slab which allocations are currently carved out of, or null.
+     */
+    private ByteBuffer current;
+    /**
+     * Whether the arena has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Creates an arena with the default slab size.
+     */
+    public BufferArena() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates an arena.
+     *
+     * @param slabSize size of each slab, in bytes. Allocations larger than this are given their own slab.
+     */
+    public BufferArena(final int slabSize) {
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("slabSize must be positive: " + slabSize);
+        }
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public ByteBufferFactory wrap(final ByteBufferFactory factory) {
+        return new ArenaByteBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public CharBufferFactory wrap(final CharBufferFactory factory) {
+        return new ArenaCharBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public DoubleBufferFactory wrap(final DoubleBufferFactory factory) {
+        return new ArenaDoubleBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public FloatBufferFactory wrap(final FloatBufferFactory factory) {
+        return new ArenaFloatBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public IntBufferFactory wrap(final IntBufferFactory factory) {
+        return new ArenaIntBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public LongBufferFactory wrap(final LongBufferFactory factory) {
+        return new ArenaLongBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct memory of its buffers is owned by this arena.
+     *
+     * @param factory factory to wrap
+     * @return factory allocating from this arena
+     */
+    public ShortBufferFactory wrap(final ShortBufferFactory factory) {
+        return new ArenaShortBufferFactory(this, factory);
+    }
+
+    /**
+     * Frees the memory of every buffer allocated from this arena. Closing an arena more than once has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current = null;
+        for (ByteBuffer slab : slabs) {
+            DirectMemory.free(slab);
+        }
+        slabs.clear();
+        for (ByteBuffer mapping : mappings) {
+            DirectMemory.free(mapping);
+        }
+        mappings.clear();
+    }
+
+    /**
+     * Runs an action, with the direct memory it allocates on this thread carved out of this arena, and the buffers it
+     * maps owned by this arena.
+     *
+     * @param action action to run
+     * @param <T>    result type
+     * @return result of {@code action}
+     */
+    <T> T allocateFrom(final Supplier<T> action) {
+        Supplier<T> carved = () -> DirectMemory.allocateFrom(this::allocate, action);
+        return DirectMemory.owned(() -> DirectMemory.listen(this::own, carved));
+    }
+
+    /**
+     * Takes ownership of a mapped buffer, unmapping it immediately if the arena has been closed.
+     *
+     * @param mapping newly mapped buffer
+     */
+    private synchronized void own(final ByteBuffer mapping) {
+        if (closed) {
+            DirectMemory.free(mapping);
+            throw new IllegalStateException("Arena is closed");
+        }
+        mappings.add(mapping);
+    }
+
+    /**
+     * Carves a direct ByteBuffer out of the current slab, allocating a new slab if necessary.
+     *
+     * @param capacity capacity, in bytes
+     * @return direct ByteBuffer with position 0 and limit equal to {@code capacity}
+     */
+    private synchronized ByteBuffer allocate(final int capacity) {
+        if (closed) {
+            throw new IllegalStateException("Arena is closed");
+        }
+        if (capacity > slabSize) {
+            return newSlab(capacity);
+        }
+        if (current == null || current.remaining() < capacity) {
+            current = newSlab(slabSize);
+        }
+        int start = current.position();
+        current.limit(start + capacity);
+        ByteBuffer buffer = current.slice();
+        current.limit(current.capacity());
+        // keep the next allocation aligned, the slab may end before the padding does
+        long next = (start + (long) capacity + ALIGNMENT - 1) & -ALIGNMENT;
+        current.position((int) Math.min(current.capacity(), next));
+        return buffer;
+    }
+
+    /**
+     * Allocates a new slab.
+     *
+     * @param capacity capacity, in bytes
+     * @return new slab
+     */
+    private ByteBuffer newSlab(final int capacity) {
+        ByteBuffer slab = DirectMemory.allocateDirect(capacity);
+        slabs.add(slab);
+        return slab;
+    }
+
+    /**
+     * Measures the slab space an arena would take for the direct memory allocated by some actions, so that an arena
+     * can be sized before the allocations are made for real. The measured allocations are carved out of scratch
+     * memory, which each action reuses and {@link #close()} frees, so whatever the actions create with direct
+     * memory must be discarded. Buffers the actions map are unmapped by {@link #close()} too.
+     */
+    static final class Sizing implements AutoCloseable {
+        /**
+         * Every scratch buffer allocated so far, the last one is carved out of.
+         */
+        private final List<ByteBuffer> scratches = new ArrayList<>();
+        /**
+         * Every buffer mapped by the measured actions.
+         */
+        private final List<ByteBuffer> mappings = new ArrayList<>();
+        /**
+         * Offset of the next allocation in the last scratch buffer.
+         */
+        private int offset;
+        /**
+         * Slab space of every measured allocation, in bytes.
+         */
+        private long bytes;
+        /**
+         * Whether the last measured action allocated direct memory.
+         */
+        private boolean allocated;
+
+        /**
+         * Runs an action, measuring the direct memory it allocates on this thread.
+         *
+         * @param action action to run
+         * @param <T>    result type
+         * @return result of {@code action}, which may only be kept if {@link #allocated()} is false
+         */
+        <T> T measure(final Supplier<T> action) {
+            offset = 0;
+            allocated = false;
+            Supplier<T> carved = () -> DirectMemory.allocateFrom(this::allocate, action);
+            return DirectMemory.owned(() -> DirectMemory.listen(mappings::add, carved));
+        }
+
+        /**
+         * @return whether the last measured action allocated direct memory
+         */
+        boolean allocated() {
+            return allocated;
+        }
+
+        /**
+         * @return slab space of every measured allocation, in bytes, enough for an arena with a single slab
+         */
+        long bytes() {
+            return bytes;
+        }
+
+        /**
+         * Frees the scratch memory, and unmaps the buffers the measured actions mapped.
+         */
+        @Override
+        public void close() {
+            for (ByteBuffer scratch : scratches) {
+                DirectMemory.free(scratch);
+            }
+            scratches.clear();
+            for (ByteBuffer mapping : mappings) {
+                DirectMemory.free(mapping);
+            }
+            mappings.clear();
+        }
+
+        /**
+         * Records an allocation, and carves it out of the scratch memory.
+         *
+         * @param capacity capacity, in bytes
+         * @return direct ByteBuffer with position 0 and limit equal to {@code capacity}
+         */
+        private ByteBuffer allocate(final int capacity) {
+            allocated = true;
+            // the space an arena's bump pointer moves past, keeping the next allocation aligned
+            long space = (capacity + (long) ALIGNMENT - 1) & -ALIGNMENT;
+            bytes += space;
+            ByteBuffer scratch = scratches.isEmpty() ? null : scratches.get(scratches.size() - 1);
+            if (scratch == null || scratch.capacity() - offset < capacity) {
+                // earlier allocations of this action may still be in use, so the old scratch is kept until closed
+                long size = Math.max(capacity, scratch == null ? 0 : 2L * scratch.capacity());
+                scratch = DirectMemory.allocateDirect((int) Math.min(Integer.MAX_VALUE, size));
+                scratches.add(scratch);
+                offset = 0;
+            }
+            ByteBuffer duplicate = scratch.duplicate();
+            duplicate.position(offset).limit(offset + capacity);
+            offset = (int) Math.min(scratch.capacity(), offset + space);
+            return duplicate.slice();
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.brandontoner;
 
 
 import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Base interface for all Buffer Factories, defines required methods for all factories.
@@ -64,4 +66,24 @@ interface BufferFactory<A, B extends Buffer> {
      * @return Buffer with given contents
      */
     B copyOf(B buffer);
+
+    /**
+     * Allocates content which may be too large for a single Buffer, e.g. more than 2 GiB, as a sequence of buffers
+     * which each have the layout of this factory. Every buffer has {@code chunkLength} elements remaining, except the
+     * last one, which has the rest. Each {@code BufferFactory} also has a form of this method filling the buffers
+     * from a generator.
+     *
+     * @param length      total number of elements
+     * @param chunkLength number of elements remaining in each buffer but the last
+     * @return buffers, in order, empty if {@code length} is 0
+     * @throws IllegalArgumentException if {@code length} is negative, {@code chunkLength} isn't positive, or there
+     *                                  would be more than {@link Integer#MAX_VALUE} buffers
+     */
+    default List<B> allocateChunked(final long length, final int chunkLength) {
+        List<B> buffers = new ArrayList<>(Sizes.chunks(length, chunkLength));
+        for (long start = 0; start < length; start += chunkLength) {
+            buffers.add(allocate((int) Math.min(chunkLength, length - start)));
+        }
+        return buffers;
+    }
 }
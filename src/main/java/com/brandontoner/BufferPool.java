@@ -0,0 +1,304 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Lock-free pool of buffers, grouped into power of two size classes. Each size class has a fixed number of slots,
+ * and threads start searching for a free slot at different indexes, to spread contention over the slots.
+ *
+ * @param <B> Buffer type
+ */
+final class BufferPool<B extends Buffer> {
+    /**
+     * Number of size classes, class {@code 0} holds empty buffers, and class {@code k > 0} holds buffers with
+     * {@code 2^(k - 1)} elements.
+     */
+    private static final int SIZE_CLASSES = 32;
+    /**
+     * Allocates buffers with the given number of elements remaining.
+     */
+    private final IntFunction<B> allocator;
+    /**
+     * Number of bytes in each element.
+     */
+    private final int elementBytes;
+    /**
+     * Number of slots in each size class.
+     */
+    private final int slotsPerSizeClass;
+    /**
+     * Whether {@link #trim()} frees the direct memory of the slots it drops.
+     */
+    private final boolean freeOnTrim;
+    /**
+     * Slots for each size class, created on first use.
+     */
+    private final AtomicReferenceArray<AtomicReferenceArray<Slot<B>>> sizeClasses;
+
+    /**
+     * Constructor.
+     *
+     * @param allocator         allocates buffers with the given number of elements remaining
+     * @param elementBytes      number of bytes in each element
+     * @param slotsPerSizeClass maximum number of buffers retained for each size class
+     * @param freeOnTrim        whether {@link #trim()} frees the direct memory of the slots it drops
+     */
+    BufferPool(final IntFunction<B> allocator,
+               final int elementBytes,
+               final int slotsPerSizeClass,
+               final boolean freeOnTrim) {
+        if (slotsPerSizeClass < 1) {
+            throw new IllegalArgumentException("slotsPerSizeClass must be positive: " + slotsPerSizeClass);
+        }
+        this.allocator = allocator;
+        this.elementBytes = elementBytes;
+        this.slotsPerSizeClass = slotsPerSizeClass;
+        this.freeOnTrim = freeOnTrim;
+        this.sizeClasses = new AtomicReferenceArray<>(SIZE_CLASSES);
+    }
+
+    /**
+     * Acquires a slot whose memory can hold at least {@code length} elements. The slot belongs to the caller until
+     * the buffer handed out for it is released. Lengths whose size class would hold more than
+     * {@link Integer#MAX_VALUE} bytes are given a slot of exactly {@code length} elements outside the pool, which is
+     * never reused.
+     *
+     * @param length number of elements required
+     * @return acquired slot
+     */
+    Slot<B> acquire(final int length) {
+        int sizeClass = sizeClass(length);
+        if (sizeClass >= SIZE_CLASSES || (long) size(sizeClass) * elementBytes > Integer.MAX_VALUE) {
+            return newSlot(length);
+        }
+        AtomicReferenceArray<Slot<B>> slots = slots(sizeClass);
+        Slot<B> created = null;
+        int start = stripe();
+        for (int i = 0; i < slotsPerSizeClass; i++) {
+            int index = (start + i) % slotsPerSizeClass;
+            Slot<B> slot = slots.get(index);
+            if (slot == null) {
+                if (created == null) {
+                    created = newSlot(size(sizeClass));
+                }
+                if (slots.compareAndSet(index, null, created)) {
+                    return created;
+                }
+            } else if (slot.inUse.compareAndSet(false, true)) {
+                return slot;
+            }
+        }
+        // every slot is in use, fall back to an allocation which won't be retained
+        return created != null ? created : newSlot(size(sizeClass));
+    }
+
+    /**
+     * Records the buffer handed out for a slot, so that it can be released later.
+     *
+     * @param slot   acquired slot
+     * @param buffer buffer sharing the slot's memory
+     * @return {@code buffer}
+     */
+    B handOut(final Slot<B> slot, final B buffer) {
+        slot.handedOut.set(buffer);
+        return buffer;
+    }
+
+    /**
+     * Returns the slot of a buffer which was handed out by the pool.
+     *
+     * @param buffer buffer to release
+     * @return true if the buffer was handed out by this pool, and hadn't already been released
+     */
+    boolean release(final B buffer) {
+        // the buffer's capacity is at least its length, so its size class can only be the same or smaller
+        for (int sizeClass = Math.min(sizeClass(buffer.capacity()), SIZE_CLASSES - 1); sizeClass >= 0; sizeClass--) {
+            AtomicReferenceArray<Slot<B>> slots = sizeClasses.get(sizeClass);
+            if (slots == null) {
+                continue;
+            }
+            for (int i = 0; i < slotsPerSizeClass; i++) {
+                Slot<B> slot = slots.get(i);
+                if (slot != null && slot.handedOut.compareAndSet(buffer, null)) {
+                    slot.inUse.set(false);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops every slot which isn't acquired, freeing the direct memory allocated for it if the pool frees on trim, or
+     * leaving it to be garbage collected otherwise.
+     *
+     * @return number of slots dropped
+     */
+    int trim() {
+        int dropped = 0;
+        for (int sizeClass = 0; sizeClass < SIZE_CLASSES; sizeClass++) {
+            AtomicReferenceArray<Slot<B>> slots = sizeClasses.get(sizeClass);
+            if (slots == null) {
+                continue;
+            }
+            for (int i = 0; i < slotsPerSizeClass; i++) {
+                Slot<B> slot = slots.get(i);
+                // acquire the slot first, so that no other thread can hand it out once it has been dropped
+                if (slot != null && slot.inUse.compareAndSet(false, true) && slots.compareAndSet(i, slot, null)) {
+                    for (ByteBuffer root : slot.roots) {
+                        DirectMemory.free(root);
+                    }
+                    dropped++;
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Creates an acquired slot, recording the direct memory allocated for it if the pool frees on trim.
+     *
+     * @param length number of elements the slot's memory can hold
+     * @return new slot
+     */
+    private Slot<B> newSlot(final int length) {
+        List<ByteBuffer> roots = new ArrayList<>();
+        // the pool owns the memory it retains, so it isn't reported to a DirectBufferTracker
+        B memory = DirectMemory.owned(() -> DirectMemory.listen(roots::add, () -> allocator.apply(length)));
+        return new Slot<>(memory, freeOnTrim ? roots : Collections.emptyList());
+    }
+
+    /**
+     * Gets the slots of a size class, creating them if necessary.
+     *
+     * @param sizeClass size class
+     * @return slots of the size class
+     */
+    private AtomicReferenceArray<Slot<B>> slots(final int sizeClass) {
+        AtomicReferenceArray<Slot<B>> slots = sizeClasses.get(sizeClass);
+        if (slots == null) {
+            sizeClasses.compareAndSet(sizeClass, null, new AtomicReferenceArray<>(slotsPerSizeClass));
+            slots = sizeClasses.get(sizeClass);
+        }
+        return slots;
+    }
+
+    /**
+     * Gets the index the current thread starts searching for free slots at.
+     *
+     * @return index of the first slot to try
+     */
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) ((id * 0x9E3779B97F4A7C15L >>> 32) % slotsPerSizeClass);
+    }
+
+    /**
+     * Gets the size class which holds buffers of the given length.
+     *
+     * @param length number of elements
+     * @return size class
+     */
+    private static int sizeClass(final int length) {
+        return length == 0 ? 0 : Integer.SIZE + 1 - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    /**
+     * Gets the number of elements in buffers of the given size class.
+     *
+     * @param sizeClass size class
+     * @return number of elements
+     */
+    private static int size(final int sizeClass) {
+        return sizeClass == 0 ? 0 : 1 << (sizeClass - 1);
+    }
+
+    /**
+     * Memory which can be handed out by the pool.
+     *
+     * @param <B> Buffer type
+     */
+    static final class Slot<B extends Buffer> {
+        /**
+         * Buffer allocated by the delegate factory.
+         */
+        private final B memory;
+        /**
+         * Padding before the data in the delegate factory's layout.
+         */
+        private final int before;
+        /**
+         * Padding after the data in the delegate factory's layout.
+         */
+        private final int after;
+        /**
+         * Direct buffers allocated for the memory, freed when the slot is trimmed.
+         */
+        private final List<ByteBuffer> roots;
+        /**
+         * Whether the slot is currently acquired.
+         */
+        private final AtomicBoolean inUse = new AtomicBoolean(true);
+        /**
+         * Buffer which was handed out for this slot, or null.
+         */
+        private final AtomicReference<B> handedOut = new AtomicReference<>();
+
+        /**
+         * Constructor, the slot starts out acquired.
+         *
+         * @param memory buffer allocated by the delegate factory
+         * @param roots  direct buffers allocated for the memory, freed when the slot is trimmed
+         */
+        Slot(final B memory, final List<ByteBuffer> roots) {
+            this.memory = memory;
+            this.roots = roots;
+            this.before = memory.position();
+            this.after = memory.capacity() - memory.limit();
+        }
+
+        /**
+         * Gets the memory of this slot, with its position set to 0 and its limit set to the end of the delegate
+         * factory's layout for a buffer of the given length.
+         *
+         * @param length number of elements in the buffer
+         * @return memory of this slot
+         */
+        B memory(final int length) {
+            memory.clear();
+            memory.limit(before + length + after);
+            return memory;
+        }
+
+        /**
+         * @return padding before the data in the delegate factory's layout
+         */
+        int before() {
+            return before;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteOrder;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Observable property of the buffers created by a factory, used to select factories with
+ * {@code factories(Set, Set)} on each factory interface, e.g. {@link IntBufferFactory#factories(java.util.Set,
+ * java.util.Set)}. Traits are declared by each factory, so they are known without allocating any buffers.
+ */
+public enum BufferTrait {
+    /**
+     * Buffers are direct, see {@link java.nio.Buffer#isDirect()}.
+     */
+    DIRECT,
+    /**
+     * Buffers aren't direct.
+     */
+    HEAP,
+    /**
+     * Buffers have an accessible backing array, see {@link java.nio.Buffer#hasArray()}.
+     */
+    ARRAY,
+    /**
+     * Buffers are views of the memory of a ByteBuffer, e.g. created by {@link java.nio.ByteBuffer#asIntBuffer()}.
+     * ByteBuffers are never views.
+     */
+    VIEW,
+    /**
+     * Buffers have elements before their position.
+     */
+    PADDED_BEFORE,
+    /**
+     * Buffers have elements after their limit.
+     */
+    PADDED_AFTER,
+    /**
+     * Buffers, or the writable buffers they are read-only views of, are backed by an array at a non-zero offset.
+     */
+    NONZERO_ARRAY_OFFSET,
+    /**
+     * Buffers are read-only.
+     */
+    READ_ONLY,
+    /**
+     * Buffers are big-endian, see {@link java.nio.ByteOrder#BIG_ENDIAN}.
+     */
+    BIG_ENDIAN,
+    /**
+     * Buffers are little-endian, see {@link java.nio.ByteOrder#LITTLE_ENDIAN}.
+     */
+    LITTLE_ENDIAN,
+    /**
+     * Elements of direct buffers don't start at a multiple of their size from an aligned address, so none of them
+     * are naturally aligned.
+     */
+    MISALIGNED;
+
+    /**
+     * Creates the traits of a factory's buffers.
+     *
+     * @param order  byte order of the buffers
+     * @param traits the other traits of the buffers
+     * @return new mutable set of the traits
+     */
+    static Set<BufferTrait> of(final ByteOrder order, final BufferTrait... traits) {
+        return EnumSet.of(order == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN, traits);
+    }
+
+    /**
+     * Creates the traits of a factory's buffers, which have the given number of elements before their position and
+     * after their limit.
+     *
+     * @param order         byte order of the buffers
+     * @param paddingBefore number of elements before the position
+     * @param paddingAfter  number of elements after the limit
+     * @param traits        the other traits of the buffers
+     * @return new mutable set of the traits
+     */
+    static Set<BufferTrait> of(final ByteOrder order,
+                               final int paddingBefore,
+                               final int paddingAfter,
+                               final BufferTrait... traits) {
+        Set<BufferTrait> set = of(order, traits);
+        if (paddingBefore > 0) {
+            set.add(PADDED_BEFORE);
+        }
+        if (paddingAfter > 0) {
+            set.add(PADDED_AFTER);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the {@link FactoryRegistry} of the {@link ByteBufferFactory}s.
+ */
+final class ByteBufferRegistry {
+    /**
+     * Registry of the factories returned by {@link ByteBufferFactory#allFactories()}.
+     */
+    static final FactoryRegistry<ByteBufferFactory> REGISTRY = create();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private ByteBufferRegistry() {
+    }
+
+    /**
+     * Creates the factories, and the registry of their traits.
+     *
+     * @return registry
+     */
+    private static FactoryRegistry<ByteBufferFactory> create() {
+        List<ByteBufferFactory> readWrite = new ArrayList<>(Arrays.asList(ReadWriteByteBufferFactory.values()));
+        readWrite.addAll(SegmentByteBufferFactory.auto());
+        List<ByteBufferFactory> readOnly = Stream.concat(readWrite.stream().map(ReadOnlyByteBufferFactory::new),
+                                                         Arrays.stream(ReadOnlyMappedByteBufferFactory.values()))
+                                                 .collect(Collectors.toCollection(ArrayList::new));
+        return new FactoryRegistry<>(readWrite, readOnly, ByteBufferRegistry::traits);
+    }
+
+    /**
+     * Looks up the traits each factory declares, without allocating any buffers.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory's buffers
+     */
+    private static Set<BufferTrait> traits(final ByteBufferFactory factory) {
+        if (factory instanceof ReadWriteByteBufferFactory) {
+            return ((ReadWriteByteBufferFactory) factory).traits();
+        }
+        if (factory instanceof SegmentByteBufferFactory) {
+            return ((SegmentByteBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyMappedByteBufferFactory) {
+            return ((ReadOnlyMappedByteBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyByteBufferFactory) {
+            // read-only views hide the array of the buffer they view, but keep the rest of its layout
+            Set<BufferTrait> traits = EnumSet.copyOf(traits(((ReadOnlyByteBufferFactory) factory).factory()));
+            traits.remove(BufferTrait.ARRAY);
+            traits.add(BufferTrait.READ_ONLY);
+            // asReadOnlyBuffer makes ByteBuffers big-endian, whatever the order of the buffer they view
+            traits.remove(BufferTrait.LITTLE_ENDIAN);
+            traits.add(BufferTrait.BIG_ENDIAN);
+            return traits;
+        }
+        throw new IllegalArgumentException("no traits declared by " + factory);
+    }
+}
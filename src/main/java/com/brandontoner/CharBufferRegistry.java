@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the {@link FactoryRegistry} of the {@link CharBufferFactory}s.
+ */
+final class CharBufferRegistry {
+    /**
+     * Registry of the factories returned by {@link CharBufferFactory#allFactories()}.
+     */
+    static final FactoryRegistry<CharBufferFactory> REGISTRY = create();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private CharBufferRegistry() {
+    }
+
+    /**
+     * Creates the factories, and the registry of their traits.
+     *
+     * @return registry
+     */
+    private static FactoryRegistry<CharBufferFactory> create() {
+        List<CharBufferFactory> readWrite = new ArrayList<>(Arrays.asList(ReadWriteCharBufferFactory.values()));
+        readWrite.addAll(SegmentCharBufferFactory.auto());
+        List<CharBufferFactory> readOnly = Stream.concat(readWrite.stream().map(ReadOnlyCharBufferFactory::new),
+                                                         Arrays.stream(ReadOnlyMappedCharBufferFactory.values()))
+                                                 .collect(Collectors.toCollection(ArrayList::new));
+        readOnly.addAll(Arrays.asList(CharSequenceCharBufferFactory.values()));
+        return new FactoryRegistry<>(readWrite, readOnly, CharBufferRegistry::traits);
+    }
+
+    /**
+     * Looks up the traits each factory declares, without allocating any buffers.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory's buffers
+     */
+    private static Set<BufferTrait> traits(final CharBufferFactory factory) {
+        if (factory instanceof ReadWriteCharBufferFactory) {
+            return ((ReadWriteCharBufferFactory) factory).traits();
+        }
+        if (factory instanceof SegmentCharBufferFactory) {
+            return ((SegmentCharBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyMappedCharBufferFactory) {
+            return ((ReadOnlyMappedCharBufferFactory) factory).traits();
+        }
+        if (factory instanceof CharSequenceCharBufferFactory) {
+            return ((CharSequenceCharBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyCharBufferFactory) {
+            // read-only views hide the array of the buffer they view, but keep the rest of its layout
+            Set<BufferTrait> traits = EnumSet.copyOf(traits(((ReadOnlyCharBufferFactory) factory).factory()));
+            traits.remove(BufferTrait.ARRAY);
+            traits.add(BufferTrait.READ_ONLY);
+            return traits;
+        }
+        throw new IllegalArgumentException("no traits declared by " + factory);
+    }
+}
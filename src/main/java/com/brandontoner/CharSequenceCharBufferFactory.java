@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Enumeration providing implementations of {@link CharBufferFactory} which wrap {@link CharSequence}s with
+ * {@link CharBuffer#wrap(CharSequence)}. The resulting buffers are read-only, and have neither an array nor an
+ * address.
+ */
+enum CharSequenceCharBufferFactory implements CharBufferFactory {
+    /**
+     * Wraps Strings of the correct size.
+     */
+    STRING_CORRECT_SIZE(String::new, 0, 0, false),
+    /**
+     * Wraps Strings with padding before the data.
+     */
+    STRING_PADDING_BEFORE(String::new, 10, 0, false),
+    /**
+     * Wraps Strings with padding after the data.
+     */
+    STRING_PADDING_AFTER(String::new, 0, 10, false),
+    /**
+     * Wraps Strings with padding before and after the data.
+     */
+    STRING_PADDING_BOTH(String::new, 10, 10, false),
+    /**
+     * Wraps Strings with padding before and after the data, sliced so that the data starts at position 0 but at a
+     * non-zero offset of the String.
+     */
+    STRING_NON_ZERO_OFFSET(String::new, 10, 10, true),
+    /**
+     * Wraps StringBuilders of the correct size.
+     */
+    STRING_BUILDER_CORRECT_SIZE(CharSequenceCharBufferFactory::stringBuilder, 0, 0, false),
+    /**
+     * Wraps StringBuilders with padding before the data.
+     */
+    STRING_BUILDER_PADDING_BEFORE(CharSequenceCharBufferFactory::stringBuilder, 10, 0, false),
+    /**
+     * Wraps StringBuilders with padding after the data.
+     */
+    STRING_BUILDER_PADDING_AFTER(CharSequenceCharBufferFactory::stringBuilder, 0, 10, false),
+    /**
+     * Wraps StringBuilders with padding before and after the data.
+     */
+    STRING_BUILDER_PADDING_BOTH(CharSequenceCharBufferFactory::stringBuilder, 10, 10, false),
+    /**
+     * Wraps StringBuilders with padding before and after the data, sliced so that the data starts at position 0 but
+     * at a non-zero offset of the StringBuilder.
+     */
+    STRING_BUILDER_NON_ZERO_OFFSET(CharSequenceCharBufferFactory::stringBuilder, 10, 10, true),
+    /**
+     * Wraps a CharSequence implementation unknown to the JDK, of the correct size.
+     */
+    CHAR_SEQUENCE_CORRECT_SIZE(ArrayCharSequence::new, 0, 0, false),
+    /**
+     * Wraps a CharSequence implementation unknown to the JDK, with padding before the data.
+     */
+    CHAR_SEQUENCE_PADDING_BEFORE(ArrayCharSequence::new, 10, 0, false),
+    /**
+     * Wraps a CharSequence implementation unknown to the JDK, with padding after the data.
+     */
+    CHAR_SEQUENCE_PADDING_AFTER(ArrayCharSequence::new, 0, 10, false),
+    /**
+     * Wraps a CharSequence implementation unknown to the JDK, with padding before and after the data.
+     */
+    CHAR_SEQUENCE_PADDING_BOTH(ArrayCharSequence::new, 10, 10, false),
+    /**
+     * Wraps a CharSequence implementation unknown to the JDK, with padding before and after the data, sliced so that
+     * the data starts at position 0 but at a non-zero offset of the CharSequence.
+     */
+    CHAR_SEQUENCE_NON_ZERO_OFFSET(ArrayCharSequence::new, 10, 10, true);
+
+    /**
+     * Creates the CharSequence to wrap, containing the given chars.
+     */
+    private final Function<char[], CharSequence> sequence;
+    /**
+     * Number of chars before the data.
+     */
+    private final int paddingBefore;
+    /**
+     * Number of chars after the data.
+     */
+    private final int paddingAfter;
+    /**
+     * Whether the buffer is sliced, so that the padding before the data is hidden.
+     */
+    private final boolean slice;
+
+    /**
+     * Constructor.
+     *
+     * @param sequence      creates the CharSequence to wrap, containing the given chars
+     * @param paddingBefore number of chars before the data
+     * @param paddingAfter  number of chars after the data
+     * @param slice         whether the buffer is sliced, so that the padding before the data is hidden
+     */
+    CharSequenceCharBufferFactory(final Function<char[], CharSequence> sequence,
+                                  final int paddingBefore,
+                                  final int paddingAfter,
+                                  final boolean slice) {
+        this.sequence = sequence;
+        this.paddingBefore = paddingBefore;
+        this.paddingAfter = paddingAfter;
+        this.slice = slice;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length) {
+        return wrap(new char[Sizes.add(Sizes.add(paddingBefore, length), paddingAfter)], length);
+    }
+
+    @Override
+    public CharBuffer copyOf(final char[] array, final int offset, final int length) {
+        char[] chars = new char[Sizes.add(Sizes.add(paddingBefore, length), paddingAfter)];
+        System.arraycopy(array, offset, chars, paddingBefore, length);
+        return wrap(chars, length);
+    }
+
+    @Override
+    public CharBuffer copyOf(final CharBuffer buffer) {
+        int length = buffer.remaining();
+        char[] chars = new char[Sizes.add(Sizes.add(paddingBefore, length), paddingAfter)];
+        CharBuffers.copy(buffer, CharBuffer.wrap(chars, paddingBefore, length));
+        return wrap(chars, length);
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator) {
+        char[] chars = new char[Sizes.add(Sizes.add(paddingBefore, length), paddingAfter)];
+        CharBuffers.fill(CharBuffer.wrap(chars, paddingBefore, length), generator);
+        return wrap(chars, length);
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        char[] chars = new char[Sizes.add(Sizes.add(paddingBefore, length), paddingAfter)];
+        CharBuffers.fill(CharBuffer.wrap(chars, paddingBefore, length), generator, pool);
+        return wrap(chars, length);
+    }
+
+    /**
+     * @return traits of the buffers this factory creates
+     */
+    Set<BufferTrait> traits() {
+        // slicing hides the padding, as the slice's capacity is the data
+        return slice
+                ? BufferTrait.of(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.READ_ONLY)
+                : BufferTrait.of(ByteOrder.nativeOrder(), paddingBefore, paddingAfter,
+                                 BufferTrait.HEAP, BufferTrait.READ_ONLY);
+    }
+
+    /**
+     * Wraps a CharSequence containing the given chars.
+     *
+     * @param chars  padding and data
+     * @param length number of chars of data
+     * @return read-only CharBuffer
+     */
+    private CharBuffer wrap(final char[] chars, final int length) {
+        CharBuffer buffer = CharBuffer.wrap(sequence.apply(chars), paddingBefore, paddingBefore + length);
+        return slice ? buffer.slice() : buffer;
+    }
+
+    /**
+     * Creates a StringBuilder containing the given chars.
+     *
+     * @param chars chars to append
+     * @return StringBuilder
+     */
+    private static CharSequence stringBuilder(final char[] chars) {
+        return new StringBuilder(chars.length).append(chars);
+    }
+
+    /**
+     * CharSequence over a char array, which the JDK has no special handling for.
+     */
+    private static final class ArrayCharSequence implements CharSequence {
+        /**
+         * Chars of the sequence.
+         */
+        private final char[] chars;
+        /**
+         * Index of the first char of the sequence.
+         */
+        private final int start;
+        /**
+         * Index after the last char of the sequence.
+         */
+        private final int end;
+
+        /**
+         * Constructor.
+         *
+         * @param chars chars of the sequence
+         */
+        ArrayCharSequence(final char[] chars) {
+            this(chars, 0, chars.length);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param chars chars of the sequence
+         * @param start index of the first char of the sequence
+         * @param end   index after the last char of the sequence
+         */
+        private ArrayCharSequence(final char[] chars, final int start, final int end) {
+            this.chars = chars;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+            }
+            return chars[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            if (from < 0 || from > to || to > length()) {
+                throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + length());
+            }
+            return new ArrayCharSequence(chars, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, start, length());
+        }
+    }
+}
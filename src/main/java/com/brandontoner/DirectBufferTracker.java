@@ -0,0 +1,351 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the direct memory of buffers created through the factories it wraps. Tracked buffers can be freed
+ * deterministically with {@link #free(Buffer)}, and {@link #report()} describes the buffers which are still live,
+ * along with where they were allocated.
+ *
+ * <p>A buffer stays live until it is freed, or it is garbage collected. The tracker doesn't keep buffers reachable,
+ * so callers checking for leaks may want to request a garbage collection first. Memory owned by a
+ * {@link BufferArena}, a {@link SegmentArena} or a segment's automatic arena, or retained by a pooled factory is not
+ * tracked, since its owner reuses or frees it.
+ */
+public final class DirectBufferTracker {
+    /**
+     * Record a stack trace for every n-th allocation.
+     */
+    private final int sampleInterval;
+    /**
+     * Number of tracked allocations so far.
+     */
+    private final AtomicLong allocations = new AtomicLong();
+    /**
+     * Allocations which haven't been freed, by the identity hash code of their buffer, guarded by itself. Buffers'
+     * own hash codes depend on their contents, and buffers whose identity hash codes collide share a list.
+     */
+    private final Map<Integer, List<Allocation>> live = new LinkedHashMap<>();
+    /**
+     * Number of allocations in {@link #live}, guarded by {@link #live}.
+     */
+    private int liveCount;
+    /**
+     * Number of bytes of the allocations in {@link #live}, guarded by {@link #live}.
+     */
+    private long liveBytes;
+    /**
+     * Receives allocations whose buffer has been garbage collected.
+     */
+    private final ReferenceQueue<Buffer> collected = new ReferenceQueue<>();
+
+    /**
+     * Creates a tracker which records a stack trace for every allocation.
+     */
+    public DirectBufferTracker() {
+        this(1);
+    }
+
+    /**
+     * Creates a tracker.
+     *
+     * @param sampleInterval record a stack trace for every n-th allocation
+     */
+    public DirectBufferTracker(final int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public ByteBufferFactory wrap(final ByteBufferFactory factory) {
+        return new TrackedByteBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public CharBufferFactory wrap(final CharBufferFactory factory) {
+        return new TrackedCharBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public DoubleBufferFactory wrap(final DoubleBufferFactory factory) {
+        return new TrackedDoubleBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public FloatBufferFactory wrap(final FloatBufferFactory factory) {
+        return new TrackedFloatBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public IntBufferFactory wrap(final IntBufferFactory factory) {
+        return new TrackedIntBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public LongBufferFactory wrap(final LongBufferFactory factory) {
+        return new TrackedLongBufferFactory(this, factory);
+    }
+
+    /**
+     * Wraps a factory, so that the direct buffers it creates are tracked.
+     *
+     * @param factory factory to wrap
+     * @return tracked factory
+     */
+    public ShortBufferFactory wrap(final ShortBufferFactory factory) {
+        return new TrackedShortBufferFactory(this, factory);
+    }
+
+    /**
+     * Immediately frees the direct memory of a tracked buffer. Any further access to the buffer, or to any buffer
+     * sharing its memory, has undefined results and may crash the JVM.
+     *
+     * @param buffer buffer created by a factory wrapped by this tracker
+     * @throws IllegalArgumentException if the buffer isn't tracked, or has already been freed
+     */
+    public void free(final Buffer buffer) {
+        Allocation allocation = null;
+        synchronized (live) {
+            for (Allocation candidate : live.getOrDefault(System.identityHashCode(buffer), Collections.emptyList())) {
+                if (candidate.get() == buffer) {
+                    allocation = candidate;
+                    break;
+                }
+            }
+            if (allocation != null) {
+                remove(allocation);
+            }
+        }
+        if (allocation == null) {
+            throw new IllegalArgumentException("Buffer is not tracked, or has already been freed: " + buffer);
+        }
+        for (WeakReference<ByteBuffer> root : allocation.roots) {
+            ByteBuffer memory = root.get();
+            if (memory != null) {
+                DirectMemory.free(memory);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tracked buffers which haven't been freed or garbage collected.
+     *
+     * @return number of live buffers
+     */
+    public int liveCount() {
+        synchronized (live) {
+            expungeCollected();
+            return liveCount;
+        }
+    }
+
+    /**
+     * Gets the direct memory used by tracked buffers which haven't been freed or garbage collected.
+     *
+     * @return number of bytes used by live buffers
+     */
+    public long liveBytes() {
+        synchronized (live) {
+            expungeCollected();
+            return liveBytes;
+        }
+    }
+
+    /**
+     * Describes every tracked buffer which hasn't been freed or garbage collected, including the stack trace of its
+     * allocation if it was sampled.
+     *
+     * @return report, which is empty if there are no live buffers
+     */
+    public String report() {
+        StringWriter report = new StringWriter();
+        PrintWriter writer = new PrintWriter(report);
+        synchronized (live) {
+            expungeCollected();
+            for (List<Allocation> allocations : live.values()) {
+                for (Allocation allocation : allocations) {
+                    writer.println(allocation.description);
+                    if (allocation.stackTrace != null) {
+                        for (StackTraceElement element : allocation.stackTrace.getStackTrace()) {
+                            writer.println("\tat " + element);
+                        }
+                    }
+                }
+            }
+        }
+        writer.flush();
+        return report.toString();
+    }
+
+    /**
+     * Runs an action which creates a buffer, and tracks the direct memory it allocates.
+     *
+     * @param factory factory creating the buffer, used to describe the allocation
+     * @param action  action creating the buffer
+     * @param <B>     buffer type
+     * @return result of {@code action}
+     */
+    <B extends Buffer> B track(final Object factory, final Supplier<B> action) {
+        List<ByteBuffer> roots = new ArrayList<>(1);
+        // the memory is only owned by this tracker, an arena or tracker the factory is wrapped in mustn't free it too
+        B buffer = DirectMemory.owned(() -> DirectMemory.listen(roots::add, action));
+        if (!roots.isEmpty()) {
+            long index = allocations.getAndIncrement();
+            Throwable stackTrace = index % sampleInterval == 0 ? new Throwable() : null;
+            Allocation allocation = new Allocation(buffer, collected, roots, factory, stackTrace);
+            synchronized (live) {
+                expungeCollected();
+                live.computeIfAbsent(allocation.identity, identity -> new ArrayList<>(1)).add(allocation);
+                liveCount++;
+                liveBytes += allocation.bytes;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Removes allocations whose buffers have been garbage collected. Must be called while holding the lock on
+     * {@link #live}.
+     */
+    private void expungeCollected() {
+        Reference<? extends Buffer> reference = collected.poll();
+        if (reference == null) {
+            return;
+        }
+        do {
+            remove((Allocation) reference);
+            reference = collected.poll();
+        } while (reference != null);
+    }
+
+    /**
+     * Removes an allocation from {@link #live}, if it is still there. Must be called while holding the lock on
+     * {@link #live}.
+     *
+     * @param allocation allocation to remove
+     */
+    private void remove(final Allocation allocation) {
+        List<Allocation> allocations = live.get(allocation.identity);
+        // allocations which were freed are still enqueued once their buffer is collected
+        if (allocations != null && allocations.remove(allocation)) {
+            if (allocations.isEmpty()) {
+                live.remove(allocation.identity);
+            }
+            liveCount--;
+            liveBytes -= allocation.bytes;
+        }
+    }
+
+    /**
+     * Tracked allocation, weakly referencing the buffer which was handed out.
+     */
+    private static final class Allocation extends WeakReference<Buffer> {
+        /**
+         * Buffers owning the direct memory, weakly referenced so that the tracker doesn't keep memory reachable.
+         */
+        private final List<WeakReference<ByteBuffer>> roots = new ArrayList<>(1);
+        /**
+         * Identity hash code of the buffer, which can't be looked up once the buffer is collected.
+         */
+        private final int identity;
+        /**
+         * Number of bytes of direct memory.
+         */
+        private final long bytes;
+        /**
+         * Description of the allocation.
+         */
+        private final String description;
+        /**
+         * Stack trace of the allocation, or null if it wasn't sampled.
+         */
+        private final Throwable stackTrace;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer     buffer which was handed out
+         * @param queue      queue to register with
+         * @param roots      buffers owning the direct memory
+         * @param factory    factory which created the buffer
+         * @param stackTrace stack trace of the allocation, or null
+         */
+        Allocation(final Buffer buffer,
+                   final ReferenceQueue<Buffer> queue,
+                   final List<ByteBuffer> roots,
+                   final Object factory,
+                   final Throwable stackTrace) {
+            super(buffer, queue);
+            this.identity = System.identityHashCode(buffer);
+            long total = 0;
+            for (ByteBuffer root : roots) {
+                this.roots.add(new WeakReference<>(root));
+                total += root.capacity();
+            }
+            this.bytes = total;
+            this.description = total + " bytes of direct memory allocated by " + factory;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
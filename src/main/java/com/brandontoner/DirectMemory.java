@@ -0,0 +1,224 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Allocates and frees the direct memory used by the factories. Every direct ByteBuffer the factories create is
+ * allocated through {@link #allocate(int)}, so that the memory can be redirected with
+ * {@link #allocateFrom(IntFunction, Supplier)}, or observed with {@link #listen(Consumer, Supplier)}.
+ */
+final class DirectMemory {
+    /**
+     * Allocator used by the current thread, or null if buffers should be allocated with
+     * {@link #allocateDirect(int)}.
+     */
+    private static final ThreadLocal<IntFunction<ByteBuffer>> ALLOCATOR = new ThreadLocal<>();
+    /**
+     * Listener notified of direct buffers created by the current thread, or null.
+     */
+    private static final ThreadLocal<Consumer<ByteBuffer>> LISTENER = new ThreadLocal<>();
+    /**
+     * Frees the memory of a direct buffer.
+     */
+    private static final MethodHandle FREE = findFree();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private DirectMemory() {
+    }
+
+    /**
+     * Allocates a direct ByteBuffer, using the current thread's allocator if there is one.
+     *
+     * @param capacity capacity, in bytes
+     * @return direct ByteBuffer with position 0 and limit equal to {@code capacity}
+     */
+    static ByteBuffer allocate(final int capacity) {
+        IntFunction<ByteBuffer> allocator = ALLOCATOR.get();
+        return allocator == null ? allocated(allocateDirect(capacity)) : allocator.apply(capacity);
+    }
+
+    /**
+     * Notifies the current thread's listener, if any, that a direct buffer with its own memory has been created.
+     *
+     * @param buffer newly allocated or mapped buffer
+     * @param <B>    buffer type
+     * @return {@code buffer}
+     */
+    static <B extends ByteBuffer> B allocated(final B buffer) {
+        Consumer<ByteBuffer> listener = LISTENER.get();
+        if (listener != null) {
+            listener.accept(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Allocates a new direct ByteBuffer, ignoring the current thread's allocator, once the installed
+     * {@link DirectMemoryGovernor} has admitted it.
+     *
+     * @param capacity capacity, in bytes
+     * @return direct ByteBuffer
+     */
+    static ByteBuffer allocateDirect(final int capacity) {
+        return DirectMemoryGovernor.allocate(capacity, () -> ByteBuffer.allocateDirect(capacity));
+    }
+
+    /**
+     * Runs {@code action}, with every call to {@link #allocate(int)} it makes on this thread served by
+     * {@code allocator}.
+     *
+     * @param allocator allocates direct ByteBuffers of a given capacity
+     * @param action    action to run
+     * @param <T>       result type
+     * @return result of {@code action}
+     */
+    static <T> T allocateFrom(final IntFunction<ByteBuffer> allocator, final Supplier<T> action) {
+        IntFunction<ByteBuffer> previous = ALLOCATOR.get();
+        ALLOCATOR.set(allocator);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ALLOCATOR.remove();
+            } else {
+                ALLOCATOR.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action}, passing every direct buffer with its own memory which is created on this thread to
+     * {@code listener}. Memory carved out of an allocator installed with
+     * {@link #allocateFrom(IntFunction, Supplier)} is not passed to the listener, since it is owned by that allocator.
+     *
+     * @param listener receives newly allocated or mapped buffers
+     * @param action   action to run
+     * @param <T>      result type
+     * @return result of {@code action}
+     */
+    static <T> T listen(final Consumer<ByteBuffer> listener, final Supplier<T> action) {
+        Consumer<ByteBuffer> previous = LISTENER.get();
+        LISTENER.set(previous == null ? listener : previous.andThen(listener));
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                LISTENER.remove();
+            } else {
+                LISTENER.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code action} without notifying the current thread's listener of the direct buffers it creates, since their
+     * memory is owned by the caller.
+     *
+     * @param action action to run
+     * @param <T>    result type
+     * @return result of {@code action}
+     */
+    static <T> T owned(final Supplier<T> action) {
+        Consumer<ByteBuffer> previous = LISTENER.get();
+        if (previous == null) {
+            return action.get();
+        }
+        LISTENER.remove();
+        try {
+            return action.get();
+        } finally {
+            LISTENER.set(previous);
+        }
+    }
+
+    /**
+     * Immediately frees the memory of a direct buffer, rather than waiting for it to be garbage collected. Any further
+     * access to the buffer, or to any buffer sharing its memory, has undefined results and may crash the JVM.
+     *
+     * @param buffer direct buffer returned by {@link ByteBuffer#allocateDirect(int)}, not a slice or duplicate
+     * @throws IllegalArgumentException if the buffer is not direct, or is a slice or duplicate
+     */
+    static void free(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer is not direct");
+        }
+        try {
+            FREE.invokeExact(buffer);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Looks up a method handle which frees the memory of a direct buffer. Java 9+ provides
+     * {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)}, Java 8 requires calling the buffer's cleaner directly.
+     *
+     * @return method handle taking a ByteBuffer
+     */
+    private static MethodHandle findFree() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.publicLookup()
+                                .findVirtual(unsafeClass, "invokeCleaner",
+                                             MethodType.methodType(void.class, ByteBuffer.class))
+                                .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            try {
+                return MethodHandles.lookup()
+                                    .findStatic(DirectMemory.class, "clean",
+                                                MethodType.methodType(void.class, ByteBuffer.class));
+            } catch (ReflectiveOperationException e2) {
+                throw new ExceptionInInitializerError(e2);
+            }
+        }
+    }
+
+    /**
+     * Frees the memory of a direct buffer using its cleaner, as is necessary on Java 8.
+     *
+     * @param buffer direct buffer
+     * @throws ReflectiveOperationException if the cleaner can't be accessed
+     */
+    @SuppressWarnings("unused")
+    private static void clean(final ByteBuffer buffer) throws ReflectiveOperationException {
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner == null) {
+            throw new IllegalArgumentException("duplicate or slice");
+        }
+        Method clean = cleaner.getClass().getMethod("clean");
+        clean.setAccessible(true);
+        clean.invoke(cleaner);
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Limits the direct and mapped memory in use, as reported by the {@code direct} and {@code mapped}
+ * {@link BufferPoolMXBean}s, to a budget. Once installed with {@link #install(DirectMemoryGovernor)}, every direct or
+ * mapped buffer the factories create is checked against the budget before it is allocated.
+ *
+ * <p>When an allocation would exceed the budget, the governor first runs its reclaimers, such as
+ * {@link PooledIntBufferFactory#trim()}, and then either fails immediately or waits for memory to be released,
+ * depending on its {@link Policy}. Either way, an allocation which can't be satisfied fails with an
+ * {@link OutOfMemoryError} describing the budget, rather than entering the JDK's collect and retry loop.
+ */
+public final class DirectMemoryGovernor {
+    /**
+     * Default time to wait for memory under the {@link Policy#THROTTLE} policy, in milliseconds.
+     */
+    public static final long DEFAULT_THROTTLE_TIMEOUT_MILLIS = 1000;
+    /**
+     * Longest time to sleep between checks while throttling, in milliseconds.
+     */
+    private static final long MAX_BACKOFF_MILLIS = 64;
+    /**
+     * Buffer pools whose memory counts against the budget.
+     */
+    private static final List<BufferPoolMXBean> POOLS =
+            ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)
+                             .stream()
+                             .filter(pool -> "direct".equals(pool.getName()) || "mapped".equals(pool.getName()))
+                             .collect(Collectors.toList());
+    /**
+     * Governor consulted before allocating, or null.
+     */
+    private static volatile DirectMemoryGovernor installed;
+
+    /**
+     * Maximum number of bytes in use.
+     */
+    private final long budget;
+    /**
+     * What to do when an allocation would exceed the budget.
+     */
+    private final Policy policy;
+    /**
+     * Time to wait for memory under the {@link Policy#THROTTLE} policy, in nanoseconds.
+     */
+    private final long throttleTimeoutNanos;
+    /**
+     * Actions which release memory, run when an allocation would exceed the budget.
+     */
+    private final List<Runnable> reclaimers = new CopyOnWriteArrayList<>();
+    /**
+     * Bytes which have been admitted, but may not have been allocated yet.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Constructor, throttling waits for up to {@link #DEFAULT_THROTTLE_TIMEOUT_MILLIS}.
+     *
+     * @param budget maximum number of bytes of direct and mapped memory in use
+     * @param policy what to do when an allocation would exceed the budget
+     */
+    public DirectMemoryGovernor(final long budget, final Policy policy) {
+        this(budget, policy, DEFAULT_THROTTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param budget          maximum number of bytes of direct and mapped memory in use
+     * @param policy          what to do when an allocation would exceed the budget
+     * @param throttleTimeout time to wait for memory under the {@link Policy#THROTTLE} policy
+     * @param unit            unit of {@code throttleTimeout}
+     */
+    public DirectMemoryGovernor(final long budget,
+                                final Policy policy,
+                                final long throttleTimeout,
+                                final TimeUnit unit) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative: " + budget);
+        }
+        if (throttleTimeout < 0) {
+            throw new IllegalArgumentException("throttleTimeout must not be negative: " + throttleTimeout);
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
+        this.budget = budget;
+        this.policy = policy;
+        this.throttleTimeoutNanos = unit.toNanos(throttleTimeout);
+    }
+
+    /**
+     * Adds an action which releases memory, run when an allocation would exceed the budget.
+     *
+     * @param reclaimer action releasing memory
+     * @return this governor
+     */
+    public DirectMemoryGovernor addReclaimer(final Runnable reclaimer) {
+        if (reclaimer == null) {
+            throw new NullPointerException("reclaimer");
+        }
+        reclaimers.add(reclaimer);
+        return this;
+    }
+
+    /**
+     * Installs a governor, which will be consulted by every thread before allocating direct or mapped memory.
+     *
+     * @param governor governor to install, or null to remove the installed governor
+     */
+    public static void install(final DirectMemoryGovernor governor) {
+        installed = governor;
+    }
+
+    /**
+     * Gets the installed governor.
+     *
+     * @return installed governor, or null
+     */
+    public static DirectMemoryGovernor installed() {
+        return installed;
+    }
+
+    /**
+     * @return maximum number of bytes of direct and mapped memory in use
+     */
+    public long budget() {
+        return budget;
+    }
+
+    /**
+     * Gets the direct and mapped memory currently in use, as reported by the {@link BufferPoolMXBean}s.
+     *
+     * @return number of bytes in use
+     */
+    public static long used() {
+        long used = 0;
+        for (BufferPoolMXBean pool : POOLS) {
+            used += Math.max(0, pool.getMemoryUsed());
+        }
+        return used;
+    }
+
+    /**
+     * Runs an action allocating direct or mapped memory, once the installed governor, if any, has admitted it.
+     *
+     * @param bytes  number of bytes the action allocates
+     * @param action action allocating the memory
+     * @param <T>    result type
+     * @return result of {@code action}
+     * @throws OutOfMemoryError if the allocation would exceed the installed governor's budget
+     */
+    static <T> T allocate(final long bytes, final Supplier<T> action) {
+        DirectMemoryGovernor governor = installed;
+        if (governor == null) {
+            return action.get();
+        }
+        governor.admit(bytes);
+        try {
+            return action.get();
+        } finally {
+            governor.pending.addAndGet(-bytes);
+        }
+    }
+
+    /**
+     * Waits until an allocation fits within the budget, according to the policy, and adds it to {@link #pending}.
+     *
+     * @param bytes number of bytes to allocate
+     * @throws OutOfMemoryError if the allocation doesn't fit within the budget
+     */
+    private void admit(final long bytes) {
+        if (tryAdmit(bytes)) {
+            return;
+        }
+        for (Runnable reclaimer : reclaimers) {
+            reclaimer.run();
+        }
+        if (tryAdmit(bytes)) {
+            return;
+        }
+        if (policy == Policy.THROTTLE) {
+            long deadline = System.nanoTime() + throttleTimeoutNanos;
+            long backoff = 1;
+            while (deadline - System.nanoTime() > 0) {
+                try {
+                    Thread.sleep(Math.min(backoff, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (tryAdmit(bytes)) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        throw new OutOfMemoryError(String.format(
+                "Cannot allocate %d bytes of direct memory: %d bytes in use and %d pending, with a budget of %d (%s)",
+                bytes, used(), pending.get(), budget, policy));
+    }
+
+    /**
+     * Adds an allocation to {@link #pending} if it fits within the budget.
+     *
+     * @param bytes number of bytes to allocate
+     * @return true if the allocation was admitted
+     */
+    private boolean tryAdmit(final long bytes) {
+        long used = used();
+        while (true) {
+            long current = pending.get();
+            if (used + current + bytes > budget) {
+                return false;
+            }
+            if (pending.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * What to do when an allocation would exceed the budget, after running the reclaimers.
+     */
+    public enum Policy {
+        /**
+         * Fail immediately.
+         */
+        FAIL_FAST,
+        /**
+         * Wait for memory to be released, up to the throttle timeout, then fail.
+         */
+        THROTTLE
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the same contents with many {@link DoubleBufferFactory}s at once.
+ */
+final class DoubleBufferBatch {
+    /**
+     * Private constructor, utility class.
+     */
+    private DoubleBufferBatch() {
+    }
+
+    /**
+     * Copies an array with each factory. The read-only wrappers of factories in the collection reuse the memory of
+     * their delegates' copies. The direct memory of all copies is carved out of one slab, sized by allocating with
+     * each factory into scratch memory first, and only allocated if some copy is direct. Each copy is only made once.
+     *
+     * @param factories factories to copy with
+     * @param array     array to copy
+     * @return copy made by each factory, in the order of {@code factories}
+     */
+    static Map<DoubleBufferFactory, DoubleBuffer> copyOfAll(final Collection<DoubleBufferFactory> factories,
+                                                            final double[] array) {
+        List<DoubleBufferFactory> direct = new ArrayList<>();
+        long slabSize;
+        // empty allocations measure the direct memory of every copy, whichever decorators the factories have, without
+        // filling memory which is thrown away
+        try (BufferArena.Sizing sizing = new BufferArena.Sizing()) {
+            for (DoubleBufferFactory factory : factories) {
+                if (!isTwin(factory, factories)) {
+                    sizing.measure(() -> factory.allocate(array.length));
+                    if (sizing.allocated()) {
+                        direct.add(factory);
+                    }
+                }
+            }
+            slabSize = sizing.bytes();
+        }
+        Map<DoubleBufferFactory, DoubleBuffer> copies = new IdentityHashMap<>();
+        if (!direct.isEmpty()) {
+            // the arena isn't closed, its slab is freed by the garbage collector once no copy refers to it
+            BufferArena arena = new BufferArena((int) Math.max(1, Math.min(Integer.MAX_VALUE, slabSize)));
+            for (DoubleBufferFactory factory : direct) {
+                copies.put(factory, arena.allocateFrom(() -> factory.copyOf(array)));
+            }
+        }
+        for (DoubleBufferFactory factory : factories) {
+            if (!isTwin(factory, factories) && !copies.containsKey(factory)) {
+                copies.put(factory, factory.copyOf(array));
+            }
+        }
+        Map<DoubleBufferFactory, DoubleBuffer> result = new LinkedHashMap<>();
+        for (DoubleBufferFactory factory : factories) {
+            if (isTwin(factory, factories)) {
+                result.put(factory, copies.get(((ReadOnlyDoubleBufferFactory) factory).factory()).asReadOnlyBuffer());
+            } else {
+                result.put(factory, copies.get(factory));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a factory is the read-only wrapper of another factory in the collection.
+     *
+     * @param factory   factory to check
+     * @param factories factories being copied with
+     * @return true if the factory's copy can be a read-only view of its delegate's copy
+     */
+    private static boolean isTwin(final DoubleBufferFactory factory, final Collection<DoubleBufferFactory> factories) {
+        if (!(factory instanceof ReadOnlyDoubleBufferFactory)) {
+            return false;
+        }
+        DoubleBufferFactory delegate = ((ReadOnlyDoubleBufferFactory) factory).factory();
+        for (DoubleBufferFactory other : factories) {
+            if (other == delegate) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Harness feeding a payload to an incremental decoder in chunks, through a buffer created by a
+ * {@link ByteBufferFactory}. Each chunk is handled with the usual read, flip, decode, compact loop, so the decoder sees
+ * partial input at every chunk boundary, just as it would reading from a socket.
+ *
+ * <p>Chunk sizes are drawn from a seeded random sequence, so a run can be reproduced. Each run reports the decoding
+ * throughput, and the garbage allocated per byte on the decoding thread, where the JVM can measure it.
+ */
+public final class DripFeed {
+    /**
+     * Default capacity of the buffer, in bytes.
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+    /**
+     * Typical Ethernet MTU, in bytes.
+     */
+    private static final int MTU = 1500;
+    /**
+     * Largest chunk of the {@link ChunkProfile#RANDOM} and {@link ChunkProfile#POWER_OF_TWO} profiles, in bytes.
+     */
+    private static final int MAX_CHUNK = 16 * 1024;
+    /**
+     * Factory creating the buffer.
+     */
+    private final ByteBufferFactory factory;
+    /**
+     * Distribution of chunk sizes.
+     */
+    private final ChunkProfile profile;
+    /**
+     * Seed of the chunk sizes.
+     */
+    private final long seed;
+    /**
+     * Capacity of the buffer, in bytes.
+     */
+    private final int capacity;
+
+    /**
+     * Creates a harness whose buffer has the default capacity.
+     *
+     * @param factory factory creating the buffer, must create writable buffers
+     * @param profile distribution of chunk sizes
+     * @param seed    seed of the chunk sizes
+     */
+    public DripFeed(final ByteBufferFactory factory, final ChunkProfile profile, final long seed) {
+        this(factory, profile, seed, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a harness.
+     *
+     * @param factory  factory creating the buffer, must create writable buffers
+     * @param profile  distribution of chunk sizes
+     * @param seed     seed of the chunk sizes
+     * @param capacity capacity of the buffer, in bytes
+     */
+    public DripFeed(final ByteBufferFactory factory, final ChunkProfile profile, final long seed, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.factory = factory;
+        this.profile = profile;
+        this.seed = seed;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Runs every factory with every chunk profile, using a new decoder for each run.
+     *
+     * @param factories factories creating the buffers, must create writable buffers
+     * @param payload   bytes to feed
+     * @param decoders  creates a decoder for each run
+     * @param seed      seed of the chunk sizes
+     * @return result of each run
+     */
+    public static List<Result> runAll(final Collection<ByteBufferFactory> factories,
+                                      final byte[] payload,
+                                      final Supplier<? extends Decoder> decoders,
+                                      final long seed) {
+        List<Result> results = new ArrayList<>();
+        for (ByteBufferFactory factory : factories) {
+            for (ChunkProfile profile : ChunkProfile.values()) {
+                results.add(new DripFeed(factory, profile, seed).run(payload, decoders.get()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Feeds a payload to a decoder.
+     *
+     * @param payload bytes to feed
+     * @param decoder decoder to feed
+     * @return throughput and garbage of the run
+     * @throws IllegalArgumentException if the factory creates read-only buffers
+     * @throws IllegalStateException    if the decoder leaves the buffer full without consuming anything
+     */
+    public Result run(final byte[] payload, final Decoder decoder) {
+        // slice, so that the loop stays within the memory the factory provided, wherever it starts
+        ByteBuffer buffer = factory.allocate(capacity).slice();
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException(factory + " creates read-only buffers");
+        }
+        Random random = new Random(seed);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long garbageBefore = allocatedBytes(threads);
+        long start = System.nanoTime();
+        int chunks = 0;
+        for (int offset = 0; offset < payload.length; chunks++) {
+            int chunk = Math.min(Math.min(profile.nextChunk(random), payload.length - offset), buffer.remaining());
+            if (chunk == 0) {
+                throw new IllegalStateException("Decoder consumed nothing from a full buffer of " + capacity
+                                                        + " bytes");
+            }
+            buffer.put(payload, offset, chunk);
+            offset += chunk;
+            buffer.flip();
+            decoder.decode(buffer, false);
+            buffer.compact();
+        }
+        buffer.flip();
+        decoder.decode(buffer, true);
+        long nanos = System.nanoTime() - start;
+        long garbageAfter = allocatedBytes(threads);
+        long garbage = garbageBefore < 0 || garbageAfter < 0 ? -1 : garbageAfter - garbageBefore;
+        return new Result(factory.toString(), profile, payload.length, chunks, nanos, garbage);
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread.
+     *
+     * @param threads thread MXBean
+     * @return allocated bytes, or -1 if the JVM can't measure them
+     */
+    private static long allocatedBytes(final ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Incremental decoder, which consumes as much of its input as it can each time it is called.
+     */
+    @FunctionalInterface
+    public interface Decoder {
+        /**
+         * Decodes from a buffer. Any bytes left remaining, such as an incomplete message, are passed again at the start
+         * of the buffer on the next call, followed by more input.
+         *
+         * @param buffer     input, from its position to its limit
+         * @param endOfInput true if no more input will follow
+         */
+        void decode(ByteBuffer buffer, boolean endOfInput);
+    }
+
+    /**
+     * Distribution of chunk sizes.
+     */
+    public enum ChunkProfile {
+        /**
+         * Chunks of one byte.
+         */
+        ONE_BYTE {
+            @Override
+            int nextChunk(final Random random) {
+                return 1;
+            }
+        },
+        /**
+         * Chunks of an Ethernet MTU, 1500 bytes.
+         */
+        MTU_SIZED {
+            @Override
+            int nextChunk(final Random random) {
+                return MTU;
+            }
+        },
+        /**
+         * Chunks of uniformly random sizes, between 1 byte and 16 KiB.
+         */
+        RANDOM {
+            @Override
+            int nextChunk(final Random random) {
+                return 1 + random.nextInt(MAX_CHUNK);
+            }
+        },
+        /**
+         * Chunks whose sizes are random powers of two, between 1 byte and 16 KiB.
+         */
+        POWER_OF_TWO {
+            @Override
+            int nextChunk(final Random random) {
+                return 1 << random.nextInt(Integer.numberOfTrailingZeros(MAX_CHUNK) + 1);
+            }
+        };
+
+        /**
+         * Chooses the size of the next chunk.
+         *
+         * @param random random sequence
+         * @return size of the next chunk, in bytes
+         */
+        abstract int nextChunk(Random random);
+    }
+
+    /**
+     * Throughput and garbage of a run.
+     */
+    public static final class Result {
+        /**
+         * Name of the factory.
+         */
+        private final String factory;
+        /**
+         * Distribution of chunk sizes.
+         */
+        private final ChunkProfile profile;
+        /**
+         * Number of bytes fed.
+         */
+        private final long bytes;
+        /**
+         * Number of chunks fed.
+         */
+        private final int chunks;
+        /**
+         * Duration of the run, in nanoseconds.
+         */
+        private final long nanos;
+        /**
+         * Bytes allocated during the run, or -1 if unknown.
+         */
+        private final long garbage;
+
+        /**
+         * Constructor.
+         *
+         * @param factory name of the factory
+         * @param profile distribution of chunk sizes
+         * @param bytes   number of bytes fed
+         * @param chunks  number of chunks fed
+         * @param nanos   duration of the run, in nanoseconds
+         * @param garbage bytes allocated during the run, or -1 if unknown
+         */
+        Result(final String factory,
+               final ChunkProfile profile,
+               final long bytes,
+               final int chunks,
+               final long nanos,
+               final long garbage) {
+            this.factory = factory;
+            this.profile = profile;
+            this.bytes = bytes;
+            this.chunks = chunks;
+            this.nanos = nanos;
+            this.garbage = garbage;
+        }
+
+        /**
+         * @return name of the factory
+         */
+        public String factory() {
+            return factory;
+        }
+
+        /**
+         * @return distribution of chunk sizes
+         */
+        public ChunkProfile profile() {
+            return profile;
+        }
+
+        /**
+         * @return number of chunks fed
+         */
+        public int chunks() {
+            return chunks;
+        }
+
+        /**
+         * @return decoded bytes per second
+         */
+        public double bytesPerSecond() {
+            return nanos == 0 ? Double.POSITIVE_INFINITY : bytes * 1e9 / nanos;
+        }
+
+        /**
+         * @return bytes allocated on the decoding thread per byte fed, or NaN if the JVM can't measure allocations
+         */
+        public double garbagePerByte() {
+            return garbage < 0 || bytes == 0 ? Double.NaN : (double) garbage / bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %d chunks, %.1f MB/s, %.3f garbage bytes per byte",
+                                 factory, profile, chunks, bytesPerSecond() / 1e6, garbagePerByte());
+        }
+    }
+}
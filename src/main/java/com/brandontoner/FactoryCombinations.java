@@ -0,0 +1,321 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Selects combinations of factories for tests of APIs which take several buffers, e.g.
+ * {@code decode(ByteBuffer src, CharBuffer dst)}. Rather than the full cross product of the factory collections,
+ * {@link #pairwise(long, Collection[])} returns a covering array: a much smaller set of combinations in which every
+ * pair of factories from two different collections still appears together at least once.
+ * {@link #covering(int, long, Collection[])} does the same for every t factories from t different collections.
+ *
+ * <p>The combinations are built greedily, each one covering as many uncovered tuples as it can, with ties broken by
+ * a seeded random sequence, so the same seed always gives the same combinations. The result suits
+ * {@code @MethodSource}, e.g.
+ * <pre>{@code
+ * static List<Object[]> decodeFactories() {
+ *     return FactoryCombinations.pairwise(42, ByteBufferFactory.allFactories(),
+ *                                         CharBufferFactory.readWriteFactories());
+ * }
+ * }</pre>
+ */
+public final class FactoryCombinations {
+    /**
+     * Number of candidate combinations built for each one kept.
+     */
+    private static final int CANDIDATES = 16;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private FactoryCombinations() {
+    }
+
+    /**
+     * Gets combinations in which every pair of values from two different collections appears at least once.
+     *
+     * @param seed       seed breaking ties between equally good combinations
+     * @param parameters values of each parameter, e.g. a collection of factories for each buffer
+     * @return immutable list of combinations, each with one value of each parameter, in the order of the parameters
+     * @throws IllegalArgumentException if there are too many pairs to track
+     */
+    public static List<Object[]> pairwise(final long seed, final Collection<?>... parameters) {
+        return covering(2, seed, parameters);
+    }
+
+    /**
+     * Gets combinations in which every tuple of {@code strength} values, from {@code strength} different
+     * collections, appears at least once. With fewer collections than the strength, this is their full cross
+     * product.
+     *
+     * @param strength   number of parameters whose values are covered together, 2 for pairwise
+     * @param seed       seed breaking ties between equally good combinations
+     * @param parameters values of each parameter, e.g. a collection of factories for each buffer
+     * @return immutable list of combinations, each with one value of each parameter, in the order of the
+     *         parameters, empty if there are no parameters or any of them has no values
+     * @throws IllegalArgumentException if strength isn't positive, or there are too many tuples to track
+     */
+    public static List<Object[]> covering(final int strength, final long seed, final Collection<?>... parameters) {
+        if (strength < 1) {
+            throw new IllegalArgumentException("strength " + strength + " must be positive");
+        }
+        List<List<?>> values = new ArrayList<>(parameters.length);
+        for (Collection<?> parameter : parameters) {
+            if (parameter.isEmpty()) {
+                return Collections.emptyList();
+            }
+            values.add(new ArrayList<>(parameter));
+        }
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object[]> combinations = new ArrayList<>();
+        for (int[] row : new Generator(values, Math.min(strength, values.size()), new Random(seed)).generate()) {
+            Object[] combination = new Object[row.length];
+            for (int p = 0; p < row.length; p++) {
+                combination[p] = values.get(p).get(row[p]);
+            }
+            combinations.add(combination);
+        }
+        return Collections.unmodifiableList(combinations);
+    }
+
+    /**
+     * Builds a covering array over the indexes of the values of each parameter.
+     */
+    private static final class Generator {
+        /**
+         * Number of values of each parameter.
+         */
+        private final int[] sizes;
+        /**
+         * Every set of {@code strength} parameters, in ascending order.
+         */
+        private final List<int[]> subsets = new ArrayList<>();
+        /**
+         * Indexes in {@link #subsets} of the subsets containing each parameter.
+         */
+        private final List<List<Integer>> subsetsOf = new ArrayList<>();
+        /**
+         * Multiplier of the value of each parameter of each subset, in the index of a tuple of that subset.
+         */
+        private final List<int[]> strides = new ArrayList<>();
+        /**
+         * Covered tuples of each subset.
+         */
+        private final List<BitSet> covered = new ArrayList<>();
+        /**
+         * Number of uncovered tuples of each subset.
+         */
+        private final List<Integer> uncovered = new ArrayList<>();
+        /**
+         * Breaks ties.
+         */
+        private final Random random;
+
+        /**
+         * Constructor.
+         *
+         * @param values   values of each parameter
+         * @param strength number of parameters whose values are covered together, at most the number of parameters
+         * @param random   breaks ties
+         */
+        Generator(final List<List<?>> values, final int strength, final Random random) {
+            this.random = random;
+            sizes = new int[values.size()];
+            for (int p = 0; p < sizes.length; p++) {
+                sizes[p] = values.get(p).size();
+                subsetsOf.add(new ArrayList<>());
+            }
+            addSubsets(new int[strength], 0, 0);
+        }
+
+        /**
+         * Adds every subset completing a prefix, with the tracking of its tuples.
+         *
+         * @param subset prefix of the subset, completed in place
+         * @param depth  length of the prefix
+         * @param from   smallest parameter which may come next
+         */
+        private void addSubsets(final int[] subset, final int depth, final int from) {
+            if (depth == subset.length) {
+                int[] stride = new int[subset.length];
+                int tuples = 1;
+                for (int j = 0; j < subset.length; j++) {
+                    stride[j] = tuples;
+                    try {
+                        tuples = Math.multiplyExact(tuples, sizes[subset[j]]);
+                    } catch (ArithmeticException e) {
+                        throw new IllegalArgumentException("too many tuples to cover", e);
+                    }
+                }
+                for (int parameter : subset) {
+                    subsetsOf.get(parameter).add(subsets.size());
+                }
+                subsets.add(subset.clone());
+                strides.add(stride);
+                covered.add(new BitSet(tuples));
+                uncovered.add(tuples);
+                return;
+            }
+            for (int p = from; p <= sizes.length - subset.length + depth; p++) {
+                subset[depth] = p;
+                addSubsets(subset, depth + 1, p + 1);
+            }
+        }
+
+        /**
+         * Builds combinations until every tuple is covered.
+         *
+         * @return value indexes of each combination
+         */
+        List<int[]> generate() {
+            List<int[]> rows = new ArrayList<>();
+            int s = 0;
+            while (true) {
+                while (s < subsets.size() && uncovered.get(s) == 0) {
+                    s++;
+                }
+                if (s == subsets.size()) {
+                    return rows;
+                }
+                int tuple = covered.get(s).nextClearBit(0);
+                int[] best = null;
+                int bestGain = -1;
+                for (int i = 0; i < CANDIDATES; i++) {
+                    int[] candidate = candidate(s, tuple);
+                    int gain = gain(candidate);
+                    if (gain > bestGain) {
+                        best = candidate;
+                        bestGain = gain;
+                    }
+                }
+                cover(best);
+                rows.add(best);
+            }
+        }
+
+        /**
+         * Builds a combination containing an uncovered tuple, choosing the value of each other parameter, in a
+         * random order, to cover the most uncovered tuples with the parameters chosen so far.
+         *
+         * @param s     index of the tuple's subset
+         * @param tuple index of the tuple within its subset
+         * @return value indexes of the combination
+         */
+        private int[] candidate(final int s, final int tuple) {
+            int[] row = new int[sizes.length];
+            Arrays.fill(row, -1);
+            int[] subset = subsets.get(s);
+            int[] stride = strides.get(s);
+            for (int j = 0; j < subset.length; j++) {
+                row[subset[j]] = tuple / stride[j] % sizes[subset[j]];
+            }
+            List<Integer> order = new ArrayList<>();
+            for (int p = 0; p < row.length; p++) {
+                if (row[p] < 0) {
+                    order.add(p);
+                }
+            }
+            Collections.shuffle(order, random);
+            for (int p : order) {
+                int bestValue = 0;
+                int bestGain = -1;
+                int ties = 0;
+                for (int v = 0; v < sizes[p]; v++) {
+                    row[p] = v;
+                    int gain = 0;
+                    for (int candidate : subsetsOf.get(p)) {
+                        int index = index(candidate, row);
+                        if (index >= 0 && !covered.get(candidate).get(index)) {
+                            gain++;
+                        }
+                    }
+                    if (gain > bestGain) {
+                        bestValue = v;
+                        bestGain = gain;
+                        ties = 1;
+                    } else if (gain == bestGain && random.nextInt(++ties) == 0) {
+                        bestValue = v;
+                    }
+                }
+                row[p] = bestValue;
+            }
+            return row;
+        }
+
+        /**
+         * Counts the uncovered tuples of a combination.
+         *
+         * @param row value indexes of the combination
+         * @return number of uncovered tuples
+         */
+        private int gain(final int[] row) {
+            int gain = 0;
+            for (int s = 0; s < subsets.size(); s++) {
+                if (!covered.get(s).get(index(s, row))) {
+                    gain++;
+                }
+            }
+            return gain;
+        }
+
+        /**
+         * Marks the tuples of a combination covered.
+         *
+         * @param row value indexes of the combination
+         */
+        private void cover(final int[] row) {
+            for (int s = 0; s < subsets.size(); s++) {
+                int index = index(s, row);
+                if (!covered.get(s).get(index)) {
+                    covered.get(s).set(index);
+                    uncovered.set(s, uncovered.get(s) - 1);
+                }
+            }
+        }
+
+        /**
+         * Gets the index of the tuple of a subset in a combination.
+         *
+         * @param s   index of the subset
+         * @param row value indexes of the combination, -1 where not chosen yet
+         * @return index of the tuple, or -1 if a parameter of the subset isn't chosen yet
+         */
+        private int index(final int s, final int[] row) {
+            int[] subset = subsets.get(s);
+            int[] stride = strides.get(s);
+            int index = 0;
+            for (int j = 0; j < subset.length; j++) {
+                int value = row[subset[j]];
+                if (value < 0) {
+                    return -1;
+                }
+                index += value * stride[j];
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Immutable collections of the factories of one buffer type, indexed by their {@link BufferTrait}s. Traits are
+ * looked up once, when the registry is created, and the result of each query is cached.
+ *
+ * @param <F> Factory type
+ */
+final class FactoryRegistry<F> {
+    /**
+     * Factories creating writable buffers.
+     */
+    private final List<F> readWrite;
+    /**
+     * Factories creating read-only buffers.
+     */
+    private final List<F> readOnly;
+    /**
+     * Every factory, writable ones first.
+     */
+    private final List<F> all;
+    /**
+     * Smallest set of factories found by {@link #cover()}, in the order of {@link #all}.
+     */
+    private final List<F> quick;
+    /**
+     * Traits of each factory.
+     */
+    private final Map<F, Set<BufferTrait>> traits = new IdentityHashMap<>();
+    /**
+     * Indexes in {@link #all} of the factories with each trait.
+     */
+    private final Map<BufferTrait, BitSet> index = new EnumMap<>(BufferTrait.class);
+    /**
+     * Results of the queries made so far, by their required and excluded traits.
+     */
+    private final ConcurrentMap<List<Set<BufferTrait>>, List<F>> queries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param readWrite factories creating writable buffers
+     * @param readOnly  factories creating read-only buffers
+     * @param declared  looks up the traits a factory declares
+     */
+    FactoryRegistry(final List<F> readWrite, final List<F> readOnly, final Function<F, Set<BufferTrait>> declared) {
+        this.readWrite = Collections.unmodifiableList(new ArrayList<>(readWrite));
+        this.readOnly = Collections.unmodifiableList(new ArrayList<>(readOnly));
+        List<F> factories = new ArrayList<>(readWrite);
+        factories.addAll(readOnly);
+        this.all = Collections.unmodifiableList(factories);
+        for (BufferTrait trait : BufferTrait.values()) {
+            index.put(trait, new BitSet(all.size()));
+        }
+        for (int i = 0; i < all.size(); i++) {
+            F factory = all.get(i);
+            Set<BufferTrait> factoryTraits = Collections.unmodifiableSet(EnumSet.copyOf(declared.apply(factory)));
+            traits.put(factory, factoryTraits);
+            for (BufferTrait trait : factoryTraits) {
+                index.get(trait).set(i);
+            }
+        }
+        this.quick = cover();
+    }
+
+    /**
+     * @return immutable list of the factories creating writable buffers
+     */
+    List<F> readWrite() {
+        return readWrite;
+    }
+
+    /**
+     * @return immutable list of the factories creating read-only buffers
+     */
+    List<F> readOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return immutable list of every factory, writable ones first
+     */
+    List<F> all() {
+        return all;
+    }
+
+    /**
+     * @return immutable list of a few factories which, between them, have and lack each trait that any factory has
+     *         or lacks, in the order of {@link #all()}
+     */
+    List<F> quick() {
+        return quick;
+    }
+
+    /**
+     * Gets the traits of a factory.
+     *
+     * @param factory factory in this registry
+     * @return immutable set of the factory's traits
+     * @throws IllegalArgumentException if the factory isn't in this registry
+     */
+    Set<BufferTrait> traits(final F factory) {
+        Set<BufferTrait> factoryTraits = traits.get(factory);
+        if (factoryTraits == null) {
+            throw new IllegalArgumentException(factory + " isn't a registered factory");
+        }
+        return factoryTraits;
+    }
+
+    /**
+     * Gets the factories with all of the required traits, and none of the excluded traits.
+     *
+     * @param required traits every factory must have
+     * @param excluded traits no factory may have
+     * @return immutable list of the matching factories, in the order of {@link #all()}
+     */
+    List<F> query(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        Set<BufferTrait> requiredCopy = EnumSet.noneOf(BufferTrait.class);
+        requiredCopy.addAll(required);
+        Set<BufferTrait> excludedCopy = EnumSet.noneOf(BufferTrait.class);
+        excludedCopy.addAll(excluded);
+        List<Set<BufferTrait>> key = Arrays.asList(requiredCopy, excludedCopy);
+        List<F> result = queries.get(key);
+        if (result == null) {
+            result = evaluate(requiredCopy, excludedCopy);
+            queries.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates a query with the indexes.
+     *
+     * @param required traits every factory must have
+     * @param excluded traits no factory may have
+     * @return immutable list of the matching factories
+     */
+    private List<F> evaluate(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        BitSet matches = new BitSet(all.size());
+        matches.set(0, all.size());
+        for (BufferTrait trait : required) {
+            matches.and(index.get(trait));
+        }
+        for (BufferTrait trait : excluded) {
+            matches.andNot(index.get(trait));
+        }
+        List<F> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(all.get(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Greedily picks the factory covering the most uncovered facets, the presence or absence of a trait, until every
+     * facet that some factory has is covered. Ties go to the earlier factory, so the choice is stable. Greedy set
+     * cover isn't always minimal, but is within a log factor of it, and with a few dozen factories is near enough.
+     *
+     * @return immutable list of the chosen factories, in the order of {@link #all}
+     */
+    private List<F> cover() {
+        BufferTrait[] values = BufferTrait.values();
+        // facets 2t and 2t + 1 are the presence and absence of trait t
+        BitSet uncovered = new BitSet(2 * values.length);
+        for (F factory : all) {
+            uncovered.or(facets(factory));
+        }
+        BitSet chosen = new BitSet(all.size());
+        while (!uncovered.isEmpty()) {
+            int best = -1;
+            int bestCount = 0;
+            for (int i = chosen.nextClearBit(0); i < all.size(); i = chosen.nextClearBit(i + 1)) {
+                BitSet covered = facets(all.get(i));
+                covered.and(uncovered);
+                if (covered.cardinality() > bestCount) {
+                    best = i;
+                    bestCount = covered.cardinality();
+                }
+            }
+            chosen.set(best);
+            uncovered.andNot(facets(all.get(best)));
+        }
+        List<F> result = new ArrayList<>(chosen.cardinality());
+        for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) {
+            result.add(all.get(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Gets the facets of a factory, the presence or absence of each trait.
+     *
+     * @param factory factory in this registry
+     * @return new BitSet with bit 2t set if the factory has trait t, or bit 2t + 1 set if it doesn't
+     */
+    private BitSet facets(final F factory) {
+        Set<BufferTrait> factoryTraits = traits.get(factory);
+        BitSet facets = new BitSet(2 * BufferTrait.values().length);
+        for (BufferTrait trait : BufferTrait.values()) {
+            facets.set(2 * trait.ordinal() + (factoryTraits.contains(trait) ? 0 : 1));
+        }
+        return facets;
+    }
+}
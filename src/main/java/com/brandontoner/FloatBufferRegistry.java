@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the {@link FactoryRegistry} of the {@link FloatBufferFactory}s.
+ */
+final class FloatBufferRegistry {
+    /**
+     * Registry of the factories returned by {@link FloatBufferFactory#allFactories()}.
+     */
+    static final FactoryRegistry<FloatBufferFactory> REGISTRY = create();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private FloatBufferRegistry() {
+    }
+
+    /**
+     * Creates the factories, and the registry of their traits.
+     *
+     * @return registry
+     */
+    private static FactoryRegistry<FloatBufferFactory> create() {
+        List<FloatBufferFactory> readWrite = new ArrayList<>(Arrays.asList(ReadWriteFloatBufferFactory.values()));
+        readWrite.addAll(SegmentFloatBufferFactory.auto());
+        List<FloatBufferFactory> readOnly = Stream.concat(readWrite.stream().map(ReadOnlyFloatBufferFactory::new),
+                                                          Arrays.stream(ReadOnlyMappedFloatBufferFactory.values()))
+                                                  .collect(Collectors.toCollection(ArrayList::new));
+        return new FactoryRegistry<>(readWrite, readOnly, FloatBufferRegistry::traits);
+    }
+
+    /**
+     * Looks up the traits each factory declares, without allocating any buffers.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory's buffers
+     */
+    private static Set<BufferTrait> traits(final FloatBufferFactory factory) {
+        if (factory instanceof ReadWriteFloatBufferFactory) {
+            return ((ReadWriteFloatBufferFactory) factory).traits();
+        }
+        if (factory instanceof SegmentFloatBufferFactory) {
+            return ((SegmentFloatBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyMappedFloatBufferFactory) {
+            return ((ReadOnlyMappedFloatBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyFloatBufferFactory) {
+            // read-only views hide the array of the buffer they view, but keep the rest of its layout
+            Set<BufferTrait> traits = EnumSet.copyOf(traits(((ReadOnlyFloatBufferFactory) factory).factory()));
+            traits.remove(BufferTrait.ARRAY);
+            traits.add(BufferTrait.READ_ONLY);
+            return traits;
+        }
+        throw new IllegalArgumentException("no traits declared by " + factory);
+    }
+}
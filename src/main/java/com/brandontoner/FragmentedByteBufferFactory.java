@@ -0,0 +1,267 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Factory for fragmented content, i.e. arrays of ByteBuffers whose concatenated remaining bytes are the requested
+ * content, as consumed by {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])} and
+ * {@link java.nio.channels.ScatteringByteChannel#read(ByteBuffer[])}. Each fragment is created by a factory chosen at
+ * random, so fragments mix heap, direct, padded, and view layouts.
+ *
+ * <p>Fragment boundaries and factories are chosen from a seeded random sequence which restarts for each call, so the
+ * same seed and content always give the same fragments.
+ */
+public final class FragmentedByteBufferFactory {
+    /**
+     * Largest fragment created by {@link Boundaries#RANDOM}, in bytes.
+     */
+    private static final int MAX_RANDOM_FRAGMENT = 64;
+    /**
+     * Where fragments are split.
+     */
+    private final Boundaries boundaries;
+    /**
+     * Seed of the random sequence.
+     */
+    private final long seed;
+    /**
+     * Factories creating the fragments.
+     */
+    private final List<ByteBufferFactory> factories;
+
+    /**
+     * Creates a factory whose fragments are created by the {@link ReadWriteByteBufferFactory} variants, other than
+     * the memory-mapped ones, which would map a file for every fragment.
+     *
+     * @param boundaries where fragments are split
+     * @param seed       seed of the random sequence
+     */
+    public FragmentedByteBufferFactory(final Boundaries boundaries, final long seed) {
+        this(boundaries, seed, Arrays.stream(ReadWriteByteBufferFactory.values())
+                                     .filter(factory -> !factory.name().startsWith("MAPPED_"))
+                                     .collect(Collectors.toList()));
+    }
+
+    /**
+     * Creates a factory.
+     *
+     * @param boundaries where fragments are split
+     * @param seed       seed of the random sequence
+     * @param factories  factories creating the fragments, must not be empty
+     */
+    public FragmentedByteBufferFactory(final Boundaries boundaries,
+                                       final long seed,
+                                       final Collection<? extends ByteBufferFactory> factories) {
+        if (factories.isEmpty()) {
+            throw new IllegalArgumentException("factories must not be empty");
+        }
+        this.boundaries = boundaries;
+        this.seed = seed;
+        this.factories = Collections.unmodifiableList(new ArrayList<>(factories));
+    }
+
+    /**
+     * Gets a factory for each kind of {@link Boundaries}.
+     *
+     * @param seed seed of the random sequences
+     * @return Collection of factories
+     */
+    public static Collection<FragmentedByteBufferFactory> allFactories(final long seed) {
+        return Arrays.stream(Boundaries.values())
+                     .map(boundaries -> new FragmentedByteBufferFactory(boundaries, seed))
+                     .collect(Collectors.toList());
+    }
+
+    /**
+     * Allocates fragments for the given number of bytes, e.g. for a scattering read. Zero-filled content has no
+     * multi-byte sequences, so {@link Boundaries#MID_VARINT} and {@link Boundaries#MID_UTF8} split it at random.
+     *
+     * @param length total number of bytes remaining in the fragments
+     * @return fragments
+     */
+    public ByteBuffer[] allocate(final int length) {
+        return copyOf(new byte[length], 0, length);
+    }
+
+    /**
+     * Creates fragments with the given contents.
+     *
+     * @param array array to copy
+     * @return fragments whose concatenated remaining bytes equal {@code array}
+     */
+    public ByteBuffer[] copyOf(final byte[] array) {
+        return copyOf(array, 0, array.length);
+    }
+
+    /**
+     * Creates fragments with the given contents.
+     *
+     * @param array  array to copy
+     * @param offset index of the first byte to copy
+     * @param length number of bytes to copy
+     * @return fragments whose concatenated remaining bytes equal the given range of {@code array}
+     */
+    public ByteBuffer[] copyOf(final byte[] array, final int offset, final int length) {
+        if ((offset | length | (offset + length) | (array.length - (offset + length))) < 0) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + array.length);
+        }
+        Random random = new Random(seed);
+        List<Integer> lengths = boundaries.split(array, offset, length, random);
+        ByteBuffer[] fragments = new ByteBuffer[lengths.size()];
+        int position = offset;
+        for (int i = 0; i < fragments.length; i++) {
+            ByteBufferFactory factory = factories.get(random.nextInt(factories.size()));
+            fragments[i] = factory.copyOf(array, position, lengths.get(i));
+            position += lengths.get(i);
+        }
+        return fragments;
+    }
+
+    /**
+     * Creates fragments with the given contents. The position, limit, mark, and contents of {@code buffer} will be
+     * unchanged.
+     *
+     * @param buffer buffer to copy
+     * @return fragments whose concatenated remaining bytes equal the remaining bytes of {@code buffer}
+     */
+    public ByteBuffer[] copyOf(final ByteBuffer buffer) {
+        byte[] array = new byte[buffer.remaining()];
+        ByteBuffers.copy(buffer, ByteBuffer.wrap(array));
+        return copyOf(array);
+    }
+
+    @Override
+    public String toString() {
+        return "FRAGMENTED_" + boundaries;
+    }
+
+    /**
+     * Where fragments are split.
+     */
+    public enum Boundaries {
+        /**
+         * Fragments of random lengths between 1 and 64 bytes.
+         */
+        RANDOM {
+            @Override
+            List<Integer> split(final byte[] array, final int offset, final int length, final Random random) {
+                List<Integer> lengths = new ArrayList<>();
+                for (int remaining = length; remaining > 0; ) {
+                    int fragment = Math.min(remaining, 1 + random.nextInt(MAX_RANDOM_FRAGMENT));
+                    lengths.add(fragment);
+                    remaining -= fragment;
+                }
+                return lengths;
+            }
+        },
+        /**
+         * Fragments of one byte each.
+         */
+        ONE_BYTE {
+            @Override
+            List<Integer> split(final byte[] array, final int offset, final int length, final Random random) {
+                return Collections.nCopies(length, 1);
+            }
+        },
+        /**
+         * Fragments of random lengths, with an empty fragment before, between, and after them.
+         */
+        EMPTY_FRAGMENTS {
+            @Override
+            List<Integer> split(final byte[] array, final int offset, final int length, final Random random) {
+                List<Integer> lengths = new ArrayList<>();
+                lengths.add(0);
+                for (int fragment : RANDOM.split(array, offset, length, random)) {
+                    lengths.add(fragment);
+                    lengths.add(0);
+                }
+                return lengths;
+            }
+        },
+        /**
+         * Splits after every byte with its high bit set, i.e. inside every multi-byte varint. Content without such
+         * bytes is split at random.
+         */
+        MID_VARINT {
+            @Override
+            List<Integer> split(final byte[] array, final int offset, final int length, final Random random) {
+                return splitBefore(array, offset, length, random, i -> (array[i - 1] & 0x80) != 0);
+            }
+        },
+        /**
+         * Splits before every UTF-8 continuation byte, i.e. inside every multi-byte character. Content without such
+         * bytes is split at random.
+         */
+        MID_UTF8 {
+            @Override
+            List<Integer> split(final byte[] array, final int offset, final int length, final Random random) {
+                return splitBefore(array, offset, length, random, i -> (array[i] & 0xC0) == 0x80);
+            }
+        };
+
+        /**
+         * Chooses the lengths of the fragments.
+         *
+         * @param array  content
+         * @param offset index of the first byte of content
+         * @param length number of bytes of content
+         * @param random random sequence
+         * @return lengths of the fragments, whose sum is {@code length}
+         */
+        abstract List<Integer> split(byte[] array, int offset, int length, Random random);
+
+        /**
+         * Splits the content before every index matching a predicate, or at random if none match.
+         *
+         * @param array     content
+         * @param offset    index of the first byte of content
+         * @param length    number of bytes of content
+         * @param random    random sequence
+         * @param splitHere whether to split before the byte at an index, only tested past the first byte
+         * @return lengths of the fragments
+         */
+        private static List<Integer> splitBefore(final byte[] array,
+                                                 final int offset,
+                                                 final int length,
+                                                 final Random random,
+                                                 final IntPredicate splitHere) {
+            List<Integer> lengths = new ArrayList<>();
+            int start = offset;
+            for (int i = offset + 1; i < offset + length; i++) {
+                if (splitHere.test(i)) {
+                    lengths.add(i - start);
+                    start = i;
+                }
+            }
+            if (lengths.isEmpty()) {
+                return RANDOM.split(array, offset, length, random);
+            }
+            lengths.add(offset + length - start);
+            return lengths;
+        }
+    }
+}
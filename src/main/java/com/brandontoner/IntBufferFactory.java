@@ -17,10 +17,22 @@
 package com.brandontoner;
 
 import java.nio.IntBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Factory for IntBuffers.
@@ -29,28 +41,227 @@ public interface IntBufferFactory extends BufferFactory<int[], IntBuffer> {
     /**
      * Gets a Collection of {@link IntBufferFactory}s which create non-readonly buffers.
      *
-     * @return Collection of {@link IntBufferFactory}s which create non-readonly buffers
+     * @return immutable Collection of {@link IntBufferFactory}s which create non-readonly buffers
      */
     static Collection<IntBufferFactory> readWriteFactories() {
-        return Arrays.asList(ReadWriteIntBufferFactory.values());
+        return IntBufferRegistry.REGISTRY.readWrite();
+    }
+
+    /**
+     * Gets a Collection of {@link IntBufferFactory}s which create buffers over {@code MemorySegment}s, each
+     * allocated from its own automatic {@code Arena}. These buffers are direct, but have the liveness and
+     * confinement checks of segments rather than those of {@link java.nio.ByteBuffer#allocateDirect(int)}. Use
+     * {@link SegmentArena} for confined or shared arenas which can be closed.
+     *
+     * @return Collection of segment-backed {@link IntBufferFactory}s, empty before Java 21
+     */
+    static Collection<IntBufferFactory> segmentFactories() {
+        return SegmentIntBufferFactory.auto();
     }
 
     /**
      * Gets a Collection of {@link IntBufferFactory}s which create readonly buffers.
      *
-     * @return Collection of {@link IntBufferFactory}s which create readonly buffers
+     * @return immutable Collection of {@link IntBufferFactory}s which create readonly buffers
      */
     static Collection<IntBufferFactory> readOnlyFactories() {
-        return readWriteFactories().stream().map(ReadOnlyIntBufferFactory::new).collect(Collectors.toList());
+        return IntBufferRegistry.REGISTRY.readOnly();
     }
 
     /**
      * Gets a Collection of {@link IntBufferFactory}s.
      *
-     * @return Collection of {@link IntBufferFactory}s
+     * @return immutable Collection of {@link IntBufferFactory}s
      */
     static Collection<IntBufferFactory> allFactories() {
-        return Stream.concat(readWriteFactories().stream(), readOnlyFactories().stream()).collect(Collectors.toList());
+        return IntBufferRegistry.REGISTRY.all();
+    }
+
+    /**
+     * Gets a few of {@link #allFactories()} which, between them, have and lack every {@link BufferTrait} that any of
+     * {@link #allFactories()} has or lacks, e.g. a buffer with an array and one without, a direct buffer and a heap
+     * buffer, each byte order, with and without padding. Testing with these exercises each code path a consumer
+     * takes for one of those traits in a fraction of the time, while {@link #allFactories()} also catches the
+     * combinations of traits.
+     *
+     * @return immutable Collection of {@link IntBufferFactory}s, in the order of {@link #allFactories()}
+     */
+    static Collection<IntBufferFactory> quickFactories() {
+        return IntBufferRegistry.REGISTRY.quick();
+    }
+
+    /**
+     * Gets the factories of {@link #allFactories()} whose buffers have all of the required traits, and none of the
+     * excluded traits, e.g. {@code factories(EnumSet.of(BufferTrait.DIRECT, BufferTrait.READ_ONLY),
+     * EnumSet.of(BufferTrait.BIG_ENDIAN))}. The traits of each factory are found once, and the result of each query
+     * is cached, so this is cheap enough to call while setting up each test.
+     *
+     * @param required traits every factory must have
+     * @param excluded traits no factory may have
+     * @return immutable Collection of the matching {@link IntBufferFactory}s, in the order of
+     *         {@link #allFactories()}
+     */
+    static Collection<IntBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return IntBufferRegistry.REGISTRY.query(required, excluded);
+    }
+
+    /**
+     * Gets the factories of {@link #allFactories()} whose buffers have all of the required traits.
+     *
+     * @param required traits every factory must have
+     * @return immutable Collection of the matching {@link IntBufferFactory}s, in the order of
+     *         {@link #allFactories()}
+     */
+    static Collection<IntBufferFactory> factories(final BufferTrait... required) {
+        return factories(new HashSet<>(Arrays.asList(required)), Collections.emptySet());
+    }
+
+    /**
+     * Gets the traits of the buffers created by one of {@link #allFactories()}.
+     *
+     * @param factory factory to describe
+     * @return immutable set of the factory's traits
+     * @throws IllegalArgumentException if the factory isn't one of {@link #allFactories()}
+     */
+    static Set<BufferTrait> traits(final IntBufferFactory factory) {
+        return IntBufferRegistry.REGISTRY.traits(factory);
+    }
+
+    /**
+     * Gets a Collection of {@link IntBufferFactory}s which create direct buffers whose first element is at each
+     * byte offset within a cache line, as well as buffers which are page aligned, or start 8 bytes before a page
+     * boundary.
+     *
+     * @return Collection of {@link IntBufferFactory}s sweeping the alignment of direct buffers
+     */
+    static Collection<IntBufferFactory> alignmentSweepFactories() {
+        return AlignedIntBufferFactory.sweep();
+    }
+
+    /**
+     * Copies the remaining elements of {@code src} into {@code dst}, starting at the position of {@code dst}. Unlike
+     * {@link IntBuffer#put(IntBuffer)}, the positions, limits, and marks of both buffers are unchanged, and no
+     * intermediate buffers are allocated.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     * @throws java.nio.BufferOverflowException if {@code dst} has fewer elements remaining than {@code src}
+     * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+     */
+    static void copyInto(final IntBuffer src, final IntBuffer dst) {
+        IntBuffers.copy(src, dst);
+    }
+
+    /**
+     * Copies an array with each of {@link #allFactories()}, see {@link #copyOfAll(Collection, int[])}.
+     *
+     * @param array array to copy
+     * @return copy made by each factory, in the order of {@link #allFactories()}
+     */
+    static Map<IntBufferFactory, IntBuffer> copyOfAll(final int[] array) {
+        return copyOfAll(allFactories(), array);
+    }
+
+    /**
+     * Copies an array with each factory in a collection, in one call. Each copy has the layout of its factory, and
+     * is equal to {@code IntBuffer.wrap(array)}, but the copies aren't independent of each other: the copy of a
+     * read-only wrapper of a factory which is also in the collection is a read-only view of that factory's copy, and
+     * the direct memory of all copies is carved out of one slab. This roughly halves the memory allocated and filled
+     * by tests which check every variant. The slab is freed by the garbage collector once no copy refers to it, so
+     * keeping any one direct copy retains the memory of all of them.
+     *
+     * @param factories factories to copy with
+     * @param array     array to copy
+     * @return copy made by each factory, in the order of {@code factories}
+     */
+    static Map<IntBufferFactory, IntBuffer> copyOfAll(final Collection<IntBufferFactory> factories,
+                                                      final int[] array) {
+        return IntBufferBatch.copyOfAll(factories, array);
+    }
+
+    /**
+     * Creates a factory which copies buffers of more than {@code threshold} elements on the common
+     * {@link ForkJoinPool}, by splitting them into slices of at most {@code threshold} elements. Copies into direct
+     * and mapped buffers are usually limited by the memory bandwidth of a single core, rather than that of the
+     * machine.
+     *
+     * @param factory   factory creating the buffers
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @return parallel factory, whose buffers are the same as those of {@code factory}
+     * @throws IllegalArgumentException if {@code threshold} isn't positive
+     */
+    static IntBufferFactory parallel(final IntBufferFactory factory, final int threshold) {
+        return parallel(factory, threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a factory which copies buffers of more than {@code threshold} elements on {@code pool}, by splitting
+     * them into slices of at most {@code threshold} elements.
+     *
+     * @param factory   factory creating the buffers
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @param pool      pool copying the slices
+     * @return parallel factory, whose buffers are the same as those of {@code factory}
+     * @throws IllegalArgumentException if {@code threshold} isn't positive
+     */
+    static IntBufferFactory parallel(final IntBufferFactory factory,
+                                     final int threshold,
+                                     final ForkJoinPool pool) {
+        return new ParallelIntBufferFactory(factory, threshold, pool);
+    }
+
+    /**
+     * Creates a factory whose copies with the same contents share the memory of one copy created by
+     * {@code factory}, retaining the contents of up to 64 copies.
+     *
+     * @param factory factory creating read-only buffers
+     * @return interning factory
+     * @throws IllegalArgumentException if {@code factory} creates writable buffers, or is pooled, arena or tracked
+     * @see #interning(IntBufferFactory, int)
+     */
+    static IntBufferFactory interning(final IntBufferFactory factory) {
+        return interning(factory, InterningIntBufferFactory.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a factory whose copies with the same contents share the memory of one copy created by
+     * {@code factory}. Each copy is a new read-only view with its own position and limit, but repeated copies of the
+     * same contents don't allocate or fill any memory. Contents are compared element by element,
+     * after a hash lookup. The least recently used contents are evicted once more than {@code maxEntries} are
+     * retained.
+     *
+     * @param factory    factory creating read-only buffers
+     * @param maxEntries maximum number of contents retained
+     * @return interning factory
+     * @throws IllegalArgumentException if {@code factory} creates writable buffers, or is pooled, arena or tracked,
+     *                                  since interned copies are shared after their memory would be reclaimed, or
+     *                                  {@code maxEntries} isn't positive
+     */
+    static IntBufferFactory interning(final IntBufferFactory factory, final int maxEntries) {
+        return new InterningIntBufferFactory(factory, maxEntries);
+    }
+
+    /**
+     * Creates a factory which recycles the buffers created by {@code factory}, see {@link PooledIntBufferFactory}.
+     *
+     * @param factory factory creating the buffers to recycle
+     * @return pooled factory
+     */
+    static PooledIntBufferFactory pooled(final IntBufferFactory factory) {
+        return pooled(factory, PooledIntBufferFactory.DEFAULT_SLOTS_PER_SIZE_CLASS);
+    }
+
+    /**
+     * Creates a factory which recycles the buffers created by {@code factory}, see {@link PooledIntBufferFactory}.
+     *
+     * @param factory           factory creating the buffers to recycle
+     * @param slotsPerSizeClass maximum number of buffers retained for each power of two size
+     * @return pooled factory
+     */
+    static PooledIntBufferFactory pooled(final IntBufferFactory factory, final int slotsPerSizeClass) {
+        return new PooledIntBufferFactory(factory, slotsPerSizeClass);
     }
 
     /**
@@ -84,7 +295,7 @@ public interface IntBufferFactory extends BufferFactory<int[], IntBuffer> {
     @Override
     default IntBuffer copyOf(final int[] array, final int offset, final int length) {
         IntBuffer buffer = allocate(length);
-        buffer.duplicate().put(array, offset, length);
+        IntBuffers.copy(array, offset, length, buffer);
         return buffer;
     }
 
@@ -98,7 +309,87 @@ public interface IntBufferFactory extends BufferFactory<int[], IntBuffer> {
     @Override
     default IntBuffer copyOf(final IntBuffer buffer) {
         IntBuffer output = allocate(buffer.remaining());
-        output.duplicate().put(buffer.duplicate());
+        IntBuffers.copy(buffer, output);
         return output;
     }
+
+    /**
+     * Allocates a IntBuffer with the given size, where the element at index {@code i} (relative to the position)
+     * is {@code generator.applyAsInt(i)}. The generator is called once for each index, in
+     * ascending order, and its results are put straight into the buffer, without boxing or an intermediate array.
+     *
+     * @param length    the number of elements that should be remaining in the buffer
+     * @param generator computes the element at each index
+     * @return IntBuffer with generated contents
+     */
+    default IntBuffer allocate(final int length, final IntUnaryOperator generator) {
+        IntBuffer buffer = allocate(length);
+        IntBuffers.fill(buffer, generator);
+        return buffer;
+    }
+
+    /**
+     * Allocates a IntBuffer with the given size, where the element at index {@code i} (relative to the position)
+     * is {@code generator.applyAsInt(i)}. Large buffers are split into ranges which are filled
+     * by the tasks of {@code pool}, so the generator may be called concurrently, and in any order.
+     *
+     * @param length    the number of elements that should be remaining in the buffer
+     * @param generator computes the element at each index, must be safe to call from multiple threads
+     * @param pool      pool filling the ranges of large buffers
+     * @return IntBuffer with generated contents
+     */
+    default IntBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        IntBuffer buffer = allocate(length);
+        IntBuffers.fill(buffer, generator, pool);
+        return buffer;
+    }
+
+    /**
+     * Creates a IntBuffer containing the elements of a stream, in encounter order. If the
+     * size of the stream is known, its elements are put straight into the buffer, otherwise they are collected into
+     * an array first. The stream is consumed, but not closed.
+     *
+     * @param stream stream of the elements
+     * @return IntBuffer with the stream's elements
+     * @throws IllegalArgumentException if the stream has more than {@link Integer#MAX_VALUE} elements
+     */
+    default IntBuffer copyOf(final IntStream stream) {
+        Spliterator.OfInt spliterator = stream.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("stream of " + size + " elements is too long for a buffer");
+        }
+        if (size < 0) {
+            int[] elements = StreamSupport.intStream(spliterator, false).toArray();
+            return allocate(elements.length, i -> elements[i]);
+        }
+        // allocate calls the generator in ascending index order, so it can simply take the next element
+        PrimitiveIterator.OfInt iterator = Spliterators.iterator(spliterator);
+        return allocate((int) size, i -> iterator.nextInt());
+    }
+
+    /**
+     * Allocates content which may be too large for a single IntBuffer, e.g. more than 2 GiB, as a sequence of
+     * buffers which each have the layout of this factory, see {@link #allocateChunked(long, int)}. The element at
+     * index {@code i} of the content is {@code generator.applyAsInt(i)}, so the buffer at index
+     * {@code k} starts with element {@code k * chunkLength}. The generator is called once for each index, in
+     * ascending order.
+     *
+     * @param length      total number of elements
+     * @param chunkLength number of elements remaining in each buffer but the last
+     * @param generator   computes the element at each index of the content
+     * @return buffers, in order, empty if {@code length} is 0
+     * @throws IllegalArgumentException if {@code length} is negative, {@code chunkLength} isn't positive, or there
+     *                                  would be more than {@link Integer#MAX_VALUE} buffers
+     */
+    default List<IntBuffer> allocateChunked(final long length,
+                                            final int chunkLength,
+                                            final LongToIntFunction generator) {
+        List<IntBuffer> buffers = new ArrayList<>(Sizes.chunks(length, chunkLength));
+        for (long start = 0; start < length; start += chunkLength) {
+            long first = start;
+            buffers.add(allocate((int) Math.min(chunkLength, length - start), i -> generator.applyAsInt(first + i)));
+        }
+        return buffers;
+    }
 }
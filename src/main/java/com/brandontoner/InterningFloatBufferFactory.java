@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.FloatBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Provides implementation of {@link FloatBufferFactory} which shares the memory of read-only copies with the same
+ * contents. Copies are looked up by a hash of their contents, and compared element by element, by their raw bits.
+ * The least recently used contents are evicted once more than a maximum number are retained.
+ */
+class InterningFloatBufferFactory implements FloatBufferFactory {
+    /**
+     * Default maximum number of contents retained.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 64;
+    /**
+     * Delegate factory, creating read-only buffers.
+     */
+    private final FloatBufferFactory factory;
+    /**
+     * Copies created by {@link #factory}, by their contents, in access order.
+     */
+    private final Map<Content, FloatBuffer> copies;
+
+    /**
+     * Constructor.
+     *
+     * @param factory    delegate factory, creating read-only buffers
+     * @param maxEntries maximum number of contents retained
+     */
+    InterningFloatBufferFactory(final FloatBufferFactory factory, final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive, but was " + maxEntries);
+        }
+        if (reclaimsMemory(factory)) {
+            // interned copies are shared until evicted, so their memory can't be returned while callers still use it
+            throw new IllegalArgumentException("can't intern buffers created by " + factory
+                                               + ", whose memory is reclaimed while copies are still shared");
+        }
+        if (!ParallelFloatBufferFactory.createsReadOnly(factory)) {
+            // callers could write through a shared writable buffer, changing every other copy
+            throw new IllegalArgumentException("only read-only buffers can be interned, but " + factory
+                                               + " creates writable buffers");
+        }
+        this.factory = factory;
+        this.copies = new LinkedHashMap<Content, FloatBuffer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Content, FloatBuffer> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length) {
+        return factory.allocate(length);
+    }
+
+    @Override
+    public FloatBuffer copyOf(final float[] array, final int offset, final int length) {
+        FloatBuffer shared = lookUp(FloatBuffer.wrap(array, offset, length));
+        if (shared != null) {
+            return view(shared);
+        }
+        return intern(factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public FloatBuffer copyOf(final FloatBuffer buffer) {
+        FloatBuffer shared = lookUp(buffer);
+        if (shared != null) {
+            return view(shared);
+        }
+        return intern(factory.copyOf(buffer));
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator) {
+        return factory.allocate(length, generator);
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool);
+    }
+
+    /**
+     * Looks up a copy with the same contents as the remaining elements of a buffer.
+     *
+     * @param contents buffer whose remaining elements are the contents, which is unchanged
+     * @return shared copy, or null if there is none
+     */
+    private FloatBuffer lookUp(final FloatBuffer contents) {
+        Content key = new Content(contents);
+        synchronized (copies) {
+            return copies.get(key);
+        }
+    }
+
+    /**
+     * Retains a new copy, so that later copies of the same contents can share its memory.
+     *
+     * @param copy read-only copy created by the delegate factory
+     * @return view of {@code copy}
+     */
+    private FloatBuffer intern(final FloatBuffer copy) {
+        Content key = new Content(copy.duplicate());
+        synchronized (copies) {
+            // another thread may have interned the same contents in the meantime, either copy will do
+            copies.putIfAbsent(key, copy);
+        }
+        return view(copy);
+    }
+
+    /**
+     * Creates a view of a shared copy, so that callers can't move each other's positions.
+     *
+     * @param shared shared copy
+     * @return read-only view of {@code shared}, with the same position, limit, and byte order
+     */
+    private static FloatBuffer view(final FloatBuffer shared) {
+        return shared.duplicate();
+    }
+
+    /**
+     * Finds whether a factory, or one it decorates, reclaims the memory of its buffers: pooled buffers are recycled
+     * once released, and arena and tracked buffers are freed when the arena is closed or the tracker frees them.
+     *
+     * @param factory factory to check
+     * @return true if the memory of the factory's buffers may be reused or freed while they are still referenced
+     */
+    private static boolean reclaimsMemory(final FloatBufferFactory factory) {
+        if (factory instanceof ParallelFloatBufferFactory) {
+            return reclaimsMemory(((ParallelFloatBufferFactory) factory).factory());
+        }
+        return factory instanceof PooledFloatBufferFactory
+               || factory instanceof ArenaFloatBufferFactory
+               || factory instanceof TrackedFloatBufferFactory;
+    }
+
+    @Override
+    public String toString() {
+        return "INTERNING_" + factory;
+    }
+
+    /**
+     * Contents of a buffer, as a map key.
+     */
+    private static final class Content {
+        /**
+         * Buffer whose remaining elements are the contents, whose position isn't moved.
+         */
+        private final FloatBuffer buffer;
+        /**
+         * Hash of the contents.
+         */
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer buffer whose remaining elements are the contents, which must not be moved or changed while
+         *               this key is used
+         */
+        Content(final FloatBuffer buffer) {
+            this.buffer = buffer;
+            int result = 1;
+            for (int i = buffer.position(); i < buffer.limit(); i++) {
+                result = 31 * result + Float.hashCode(buffer.get(i));
+            }
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Content)) {
+                return false;
+            }
+            Content other = (Content) obj;
+            int length = buffer.remaining();
+            if (hash != other.hash || length != other.buffer.remaining()) {
+                return false;
+            }
+            int position = buffer.position();
+            int otherPosition = other.buffer.position();
+            for (int i = 0; i < length; i++) {
+                float element = buffer.get(position + i);
+                float otherElement = other.buffer.get(otherPosition + i);
+                if (Float.floatToRawIntBits(element) != Float.floatToRawIntBits(otherElement)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
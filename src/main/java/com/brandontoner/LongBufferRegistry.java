@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the {@link FactoryRegistry} of the {@link LongBufferFactory}s.
+ */
+final class LongBufferRegistry {
+    /**
+     * Registry of the factories returned by {@link LongBufferFactory#allFactories()}.
+     */
+    static final FactoryRegistry<LongBufferFactory> REGISTRY = create();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private LongBufferRegistry() {
+    }
+
+    /**
+     * Creates the factories, and the registry of their traits.
+     *
+     * @return registry
+     */
+    private static FactoryRegistry<LongBufferFactory> create() {
+        List<LongBufferFactory> readWrite = new ArrayList<>(Arrays.asList(ReadWriteLongBufferFactory.values()));
+        readWrite.addAll(SegmentLongBufferFactory.auto());
+        List<LongBufferFactory> readOnly = Stream.concat(readWrite.stream().map(ReadOnlyLongBufferFactory::new),
+                                                         Arrays.stream(ReadOnlyMappedLongBufferFactory.values()))
+                                                 .collect(Collectors.toCollection(ArrayList::new));
+        return new FactoryRegistry<>(readWrite, readOnly, LongBufferRegistry::traits);
+    }
+
+    /**
+     * Looks up the traits each factory declares, without allocating any buffers.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory's buffers
+     */
+    private static Set<BufferTrait> traits(final LongBufferFactory factory) {
+        if (factory instanceof ReadWriteLongBufferFactory) {
+            return ((ReadWriteLongBufferFactory) factory).traits();
+        }
+        if (factory instanceof SegmentLongBufferFactory) {
+            return ((SegmentLongBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyMappedLongBufferFactory) {
+            return ((ReadOnlyMappedLongBufferFactory) factory).traits();
+        }
+        if (factory instanceof ReadOnlyLongBufferFactory) {
+            // read-only views hide the array of the buffer they view, but keep the rest of its layout
+            Set<BufferTrait> traits = EnumSet.copyOf(traits(((ReadOnlyLongBufferFactory) factory).factory()));
+            traits.remove(BufferTrait.ARRAY);
+            traits.add(BufferTrait.READ_ONLY);
+            return traits;
+        }
+        throw new IllegalArgumentException("no traits declared by " + factory);
+    }
+}
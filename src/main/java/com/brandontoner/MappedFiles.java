@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Maps temporary files into memory. Each file is deleted as soon as it has been mapped, so no file names are left
+ * behind, but its disk space is only released once its mapping is unmapped.
+ *
+ * <p>Mappings are unmapped deterministically when their buffer is freed with {@link DirectBufferTracker#free}, when
+ * the {@link BufferArena} they were created through is closed, or when a pooled factory's {@code trim()} drops them.
+ * Any other mapping is only unmapped once the garbage collector finds its buffer unreachable, so until then its file
+ * keeps taking up disk space.
+ */
+final class MappedFiles {
+    /**
+     * Private constructor, utility class.
+     */
+    private MappedFiles() {
+    }
+
+    /**
+     * Maps a new zero-filled temporary file into memory.
+     *
+     * @param mode     mapping mode
+     * @param capacity size of the file, in bytes
+     * @return mapped buffer
+     */
+    static MappedByteBuffer map(final FileChannel.MapMode mode, final int capacity) {
+        return withTemporaryFile(capacity, channel -> channel.map(mode, 0, capacity));
+    }
+
+    /**
+     * Maps a new temporary file into memory as read-only.
+     *
+     * @param capacity     size of the file, in bytes
+     * @param keepWritable true to keep the writable mapping given to the initializer, which is then owned along with
+     *                     the read-only mapping, false to unmap it as soon as the initializer returns
+     * @param initializer  writes the initial contents of the file, given a writable mapping of the whole file
+     * @return read-only mapped buffer
+     */
+    static MappedByteBuffer mapReadOnly(final int capacity,
+                                        final boolean keepWritable,
+                                        final Consumer<ByteBuffer> initializer) {
+        return withTemporaryFile(capacity, channel -> {
+            MappedByteBuffer writable = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            initializer.accept(writable);
+            if (keepWritable) {
+                register(writable);
+            } else if (capacity > 0) {
+                DirectMemory.free(writable);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+        });
+    }
+
+    /**
+     * Creates a temporary file of the given size, and maps it. The file is deleted once the channel is closed.
+     *
+     * @param capacity size of the file, in bytes
+     * @param mapper   maps the file
+     * @return mapped buffer
+     */
+    private static MappedByteBuffer withTemporaryFile(final int capacity, final Mapper mapper) {
+        return register(DirectMemoryGovernor.allocate(capacity, () -> mapTemporaryFile(capacity, mapper)));
+    }
+
+    /**
+     * Notifies the current thread's listener of a mapping, so that its owner can unmap it. Empty files aren't
+     * actually mapped, so there is nothing to unmap.
+     *
+     * @param buffer mapped buffer
+     * @return {@code buffer}
+     */
+    private static MappedByteBuffer register(final MappedByteBuffer buffer) {
+        return buffer.capacity() == 0 ? buffer : DirectMemory.allocated(buffer);
+    }
+
+    /**
+     * Creates a temporary file of the given size, and maps it, without consulting the governor.
+     *
+     * @param capacity size of the file, in bytes
+     * @param mapper   maps the file
+     * @return mapped buffer
+     */
+    private static MappedByteBuffer mapTemporaryFile(final int capacity, final Mapper mapper) {
+        try {
+            Path file = Files.createTempFile("bad-buffers", ".bin");
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(file,
+                                           StandardOpenOption.READ,
+                                           StandardOpenOption.WRITE,
+                                           StandardOpenOption.DELETE_ON_CLOSE);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            try (FileChannel c = channel) {
+                if (capacity > 0) {
+                    // read-only and private mappings don't extend the file, so it must be sized up front
+                    c.write(ByteBuffer.allocate(1), capacity - 1);
+                }
+                return mapper.map(c);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps an open file channel.
+     */
+    @FunctionalInterface
+    private interface Mapper {
+        /**
+         * Maps the given channel.
+         *
+         * @param channel channel to map
+         * @return mapped buffer
+         * @throws IOException if the channel can't be mapped
+         */
+        MappedByteBuffer map(FileChannel channel) throws IOException;
+    }
+}
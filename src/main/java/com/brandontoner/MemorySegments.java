@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+/**
+ * Allocates ByteBuffers from {@code java.lang.foreign.MemorySegment}s. The foreign memory API is only available on
+ * Java 21 and later, and is a preview API on Java 21, so it is called through method handles which take and return
+ * arenas and segments as Objects.
+ */
+final class MemorySegments {
+    /**
+     * Alignment of each segment, in bytes, large enough for any element type.
+     */
+    private static final long ALIGNMENT = Long.BYTES;
+    /**
+     * {@code java.lang.foreign.Arena}, or null if it doesn't exist.
+     */
+    private static final Class<?> ARENA = findClass("java.lang.foreign.Arena");
+    /**
+     * {@code java.lang.foreign.MemorySegment}, or null if it doesn't exist.
+     */
+    private static final Class<?> SEGMENT = findClass("java.lang.foreign.MemorySegment");
+    /**
+     * {@code Arena.ofAuto()}.
+     */
+    private static final MethodHandle OF_AUTO = findStatic(ARENA, "ofAuto", ARENA);
+    /**
+     * {@code Arena.ofConfined()}.
+     */
+    private static final MethodHandle OF_CONFINED = findStatic(ARENA, "ofConfined", ARENA);
+    /**
+     * {@code Arena.ofShared()}.
+     */
+    private static final MethodHandle OF_SHARED = findStatic(ARENA, "ofShared", ARENA);
+    /**
+     * {@code Arena.allocate(long, long)}.
+     */
+    private static final MethodHandle ALLOCATE = findVirtual(ARENA, "allocate", SEGMENT, long.class, long.class);
+    /**
+     * {@code Arena.close()}.
+     */
+    private static final MethodHandle CLOSE = findVirtual(ARENA, "close", void.class);
+    /**
+     * {@code MemorySegment.asSlice(long, long)}.
+     */
+    private static final MethodHandle AS_SLICE = findVirtual(SEGMENT, "asSlice", SEGMENT, long.class, long.class);
+    /**
+     * {@code MemorySegment.asByteBuffer()}.
+     */
+    private static final MethodHandle AS_BYTE_BUFFER = findVirtual(SEGMENT, "asByteBuffer", ByteBuffer.class);
+
+    /**
+     * Private constructor, utility class.
+     */
+    private MemorySegments() {
+    }
+
+    /**
+     * @return true if the foreign memory API is available
+     */
+    static boolean isSupported() {
+        return OF_AUTO != null && OF_CONFINED != null && OF_SHARED != null && ALLOCATE != null && CLOSE != null
+                && AS_SLICE != null && AS_BYTE_BUFFER != null;
+    }
+
+    /**
+     * @return new arena whose memory is freed once it is garbage collected
+     */
+    static Object ofAuto() {
+        return invoke(OF_AUTO);
+    }
+
+    /**
+     * @return new arena which can only be accessed by the current thread, and is freed when closed
+     */
+    static Object ofConfined() {
+        return invoke(OF_CONFINED);
+    }
+
+    /**
+     * @return new arena which can be accessed by any thread, and is freed when closed
+     */
+    static Object ofShared() {
+        return invoke(OF_SHARED);
+    }
+
+    /**
+     * Allocates a segment from an arena, and returns a ByteBuffer over a slice of it.
+     *
+     * @param arena      arena to allocate from
+     * @param byteOffset offset of the slice within the segment, in bytes
+     * @param byteSize   size of the slice, in bytes
+     * @return direct ByteBuffer over the slice
+     */
+    static ByteBuffer allocate(final Object arena, final long byteOffset, final long byteSize) {
+        return DirectMemoryGovernor.allocate(byteOffset + byteSize, () -> {
+            try {
+                Object segment = ALLOCATE.invokeExact(arena, byteOffset + byteSize, ALIGNMENT);
+                if (byteOffset != 0) {
+                    segment = AS_SLICE.invokeExact(segment, byteOffset, byteSize);
+                }
+                Object buffer = AS_BYTE_BUFFER.invokeExact(segment);
+                return (ByteBuffer) buffer;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+    }
+
+    /**
+     * Closes an arena, freeing its memory.
+     *
+     * @param arena arena created by {@link #ofConfined()} or {@link #ofShared()}
+     */
+    static void close(final Object arena) {
+        try {
+            CLOSE.invokeExact(arena);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Invokes a method handle creating an arena.
+     *
+     * @param factory method handle taking no arguments
+     * @return new arena
+     * @throws UnsupportedOperationException if the foreign memory API isn't available
+     */
+    private static Object invoke(final MethodHandle factory) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("MemorySegments require Java 21 or later");
+        }
+        try {
+            return factory.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Looks up a class.
+     *
+     * @param name fully qualified name of the class
+     * @return class, or null if it doesn't exist
+     */
+    private static Class<?> findClass(final String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up a static method taking no arguments, with its reference types erased to Object.
+     *
+     * @param owner      class declaring the method, or null
+     * @param name       name of the method
+     * @param returnType return type of the method
+     * @return method handle, or null if the method doesn't exist
+     */
+    private static MethodHandle findStatic(final Class<?> owner, final String name, final Class<?> returnType) {
+        if (owner == null) {
+            return null;
+        }
+        try {
+            MethodType type = MethodType.methodType(returnType);
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(owner, name, type);
+            return handle.asType(handle.type().erase());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up a virtual method, with its receiver and reference types erased to Object.
+     *
+     * @param owner          class declaring the method, or null
+     * @param name           name of the method
+     * @param returnType     return type of the method
+     * @param parameterTypes parameter types of the method, excluding the receiver
+     * @return method handle, or null if the method doesn't exist
+     */
+    private static MethodHandle findVirtual(final Class<?> owner,
+                                            final String name,
+                                            final Class<?> returnType,
+                                            final Class<?>... parameterTypes) {
+        if (owner == null) {
+            return null;
+        }
+        try {
+            MethodType type = MethodType.methodType(returnType, parameterTypes);
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(owner, name, type);
+            return handle.asType(handle.type().erase());
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Provides implementation of {@link CharBufferFactory} which copies large buffers on a {@link ForkJoinPool}, by
+ * splitting the source and destination into slices which are copied concurrently.
+ */
+class ParallelCharBufferFactory implements CharBufferFactory {
+    /**
+     * Delegate factory.
+     */
+    private final CharBufferFactory factory;
+    /**
+     * Factory creating the buffers to copy into, which are writable unless {@link #readOnlyMemory} is set.
+     */
+    private final CharBufferFactory writable;
+    /**
+     * Whether copies should be made read-only after they are filled.
+     */
+    private final boolean readOnly;
+    /**
+     * Whether {@link #writable} only creates read-only buffers, which have to be filled by the delegate factory.
+     */
+    private final boolean readOnlyMemory;
+    /**
+     * Number of elements above which copies are split, and the maximum number of elements in each slice.
+     */
+    private final int threshold;
+    /**
+     * Pool copying the slices.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor.
+     *
+     * @param factory   delegate factory
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @param pool      pool copying the slices
+     */
+    ParallelCharBufferFactory(final CharBufferFactory factory, final int threshold, final ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive, but was " + threshold);
+        }
+        this.factory = factory;
+        if (factory instanceof ReadOnlyCharBufferFactory) {
+            // copy into the writable buffers, and make them read-only afterwards
+            this.writable = ((ReadOnlyCharBufferFactory) factory).factory();
+            this.readOnly = true;
+        } else {
+            this.writable = factory;
+            this.readOnly = false;
+        }
+        this.readOnlyMemory = createsReadOnly(writable);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length) {
+        return factory.allocate(length);
+    }
+
+    @Override
+    public CharBuffer copyOf(final char[] array, final int offset, final int length) {
+        if (length <= threshold) {
+            return factory.copyOf(array, offset, length);
+        }
+        // wrapping checks the bounds, before the generator would see them
+        CharBuffer src = CharBuffer.wrap(array, offset, length);
+        if (readOnlyMemory) {
+            return factory.allocate(length, i -> array[offset + i], pool);
+        }
+        CharBuffer output = writable.allocate(length);
+        CharBuffers.copy(src, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public CharBuffer copyOf(final CharBuffer buffer) {
+        int length = buffer.remaining();
+        if (length <= threshold) {
+            return factory.copyOf(buffer);
+        }
+        if (readOnlyMemory) {
+            int position = buffer.position();
+            return factory.allocate(length, i -> buffer.get(position + i), pool);
+        }
+        CharBuffer output = writable.allocate(length);
+        CharBuffers.copy(buffer, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return factory.allocate(length, generator);
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool);
+    }
+
+    /**
+     * Finds whether a factory creates read-only buffers, e.g. read-only mapped files whose contents are written before
+     * they are mapped, from its type and those of the factories it decorates, rather than by allocating a buffer,
+     * which may map a file or fail for a closed arena. Factories of other types are taken to create writable buffers.
+     *
+     * @param factory factory to check
+     * @return true if every buffer the factory creates is read-only
+     */
+    static boolean createsReadOnly(final CharBufferFactory factory) {
+        if (factory instanceof PooledCharBufferFactory) {
+            PooledCharBufferFactory pooled = (PooledCharBufferFactory) factory;
+            return pooled.readOnly() || createsReadOnly(pooled.factory());
+        }
+        if (factory instanceof ArenaCharBufferFactory) {
+            return createsReadOnly(((ArenaCharBufferFactory) factory).factory());
+        }
+        if (factory instanceof TrackedCharBufferFactory) {
+            return createsReadOnly(((TrackedCharBufferFactory) factory).factory());
+        }
+        if (factory instanceof ParallelCharBufferFactory) {
+            return createsReadOnly(((ParallelCharBufferFactory) factory).factory());
+        }
+        return factory instanceof ReadOnlyCharBufferFactory
+               || factory instanceof ReadOnlyMappedCharBufferFactory
+               || factory instanceof InterningCharBufferFactory
+               || factory instanceof CharSequenceCharBufferFactory;
+    }
+
+    /**
+     * @return delegate factory
+     */
+    CharBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "PARALLEL_" + factory;
+    }
+}
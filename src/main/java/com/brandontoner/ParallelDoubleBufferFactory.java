@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Provides implementation of {@link DoubleBufferFactory} which copies large buffers on a {@link ForkJoinPool}, by
+ * splitting the source and destination into slices which are copied concurrently.
+ */
+class ParallelDoubleBufferFactory implements DoubleBufferFactory {
+    /**
+     * Delegate factory.
+     */
+    private final DoubleBufferFactory factory;
+    /**
+     * Factory creating the buffers to copy into, which are writable unless {@link #readOnlyMemory} is set.
+     */
+    private final DoubleBufferFactory writable;
+    /**
+     * Whether copies should be made read-only after they are filled.
+     */
+    private final boolean readOnly;
+    /**
+     * Whether {@link #writable} only creates read-only buffers, which have to be filled by the delegate factory.
+     */
+    private final boolean readOnlyMemory;
+    /**
+     * Number of elements above which copies are split, and the maximum number of elements in each slice.
+     */
+    private final int threshold;
+    /**
+     * Pool copying the slices.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor.
+     *
+     * @param factory   delegate factory
+     * @param threshold number of elements above which copies are split, and the maximum number of elements in each
+     *                  slice
+     * @param pool      pool copying the slices
+     */
+    ParallelDoubleBufferFactory(final DoubleBufferFactory factory, final int threshold, final ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive, but was " + threshold);
+        }
+        this.factory = factory;
+        if (factory instanceof ReadOnlyDoubleBufferFactory) {
+            // copy into the writable buffers, and make them read-only afterwards
+            this.writable = ((ReadOnlyDoubleBufferFactory) factory).factory();
+            this.readOnly = true;
+        } else {
+            this.writable = factory;
+            this.readOnly = false;
+        }
+        this.readOnlyMemory = createsReadOnly(writable);
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    @Override
+    public DoubleBuffer allocate(final int length) {
+        return factory.allocate(length);
+    }
+
+    @Override
+    public DoubleBuffer copyOf(final double[] array, final int offset, final int length) {
+        if (length <= threshold) {
+            return factory.copyOf(array, offset, length);
+        }
+        // wrapping checks the bounds, before the generator would see them
+        DoubleBuffer src = DoubleBuffer.wrap(array, offset, length);
+        if (readOnlyMemory) {
+            return factory.allocate(length, i -> array[offset + i], pool);
+        }
+        DoubleBuffer output = writable.allocate(length);
+        DoubleBuffers.copy(src, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public DoubleBuffer copyOf(final DoubleBuffer buffer) {
+        int length = buffer.remaining();
+        if (length <= threshold) {
+            return factory.copyOf(buffer);
+        }
+        if (readOnlyMemory) {
+            int position = buffer.position();
+            return factory.allocate(length, i -> buffer.get(position + i), pool);
+        }
+        DoubleBuffer output = writable.allocate(length);
+        DoubleBuffers.copy(buffer, output, pool, threshold);
+        return readOnly ? output.asReadOnlyBuffer() : output;
+    }
+
+    @Override
+    public DoubleBuffer allocate(final int length, final IntToDoubleFunction generator) {
+        return factory.allocate(length, generator);
+    }
+
+    @Override
+    public DoubleBuffer allocate(final int length, final IntToDoubleFunction generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool);
+    }
+
+    /**
+     * Finds whether a factory creates read-only buffers, e.g. read-only mapped files whose contents are written before
+     * they are mapped, from its type and those of the factories it decorates, rather than by allocating a buffer,
+     * which may map a file or fail for a closed arena. Factories of other types are taken to create writable buffers.
+     *
+     * @param factory factory to check
+     * @return true if every buffer the factory creates is read-only
+     */
+    static boolean createsReadOnly(final DoubleBufferFactory factory) {
+        if (factory instanceof PooledDoubleBufferFactory) {
+            PooledDoubleBufferFactory pooled = (PooledDoubleBufferFactory) factory;
+            return pooled.readOnly() || createsReadOnly(pooled.factory());
+        }
+        if (factory instanceof ArenaDoubleBufferFactory) {
+            return createsReadOnly(((ArenaDoubleBufferFactory) factory).factory());
+        }
+        if (factory instanceof TrackedDoubleBufferFactory) {
+            return createsReadOnly(((TrackedDoubleBufferFactory) factory).factory());
+        }
+        if (factory instanceof ParallelDoubleBufferFactory) {
+            return createsReadOnly(((ParallelDoubleBufferFactory) factory).factory());
+        }
+        return factory instanceof ReadOnlyDoubleBufferFactory
+               || factory instanceof ReadOnlyMappedDoubleBufferFactory
+               || factory instanceof InterningDoubleBufferFactory;
+    }
+
+    /**
+     * @return delegate factory
+     */
+    DoubleBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "PARALLEL_" + factory;
+    }
+}
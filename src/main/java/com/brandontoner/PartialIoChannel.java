@@ -0,0 +1,379 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * In-memory channel which transfers fewer bytes than requested. Every read and write copies its data through a buffer
+ * created by a {@link ByteBufferFactory}, the way the JDK copies through a cached temporary direct buffer, and
+ * transfers a seeded random number of bytes between 1 and the maximum transfer size. The buffer is allocated once for
+ * each maximum transfer size and reused, unless the factory creates read-only buffers whose memory can't be written
+ * some other way, in which case every transfer copies into a new buffer.
+ *
+ * <p>In non-blocking mode the channel also simulates readiness. {@link #isReady()} reports whether the next read or
+ * write will transfer data, and operations while the channel isn't ready transfer nothing and return 0. Blocking
+ * channels always transfer at least one byte, as required by {@link java.nio.channels.ReadableByteChannel}, so they
+ * can be used with {@link java.nio.channels.Channels#newInputStream}.
+ */
+public final class PartialIoChannel implements SeekableByteChannel {
+    /**
+     * Default maximum number of bytes transferred by each read or write.
+     */
+    public static final int DEFAULT_MAX_TRANSFER = 8192;
+    /**
+     * Factory creating the buffers data is transferred through.
+     */
+    private final ByteBufferFactory factory;
+    /**
+     * Chooses transfer sizes and readiness.
+     */
+    private final Random random;
+    /**
+     * Buffer data is transferred through, or null if it hasn't been allocated for the current maximum transfer size.
+     */
+    private ByteBuffer transfer;
+    /**
+     * Writable buffer sharing the memory and indexes of {@link #transfer}, or null if there is none.
+     */
+    private ByteBuffer writable;
+    /**
+     * Position of the first byte of {@link #transfer} that data is transferred through.
+     */
+    private int transferStart;
+    /**
+     * Contents of the channel, the first {@link #size} bytes are valid.
+     */
+    private byte[] data;
+    /**
+     * Size of the contents, in bytes.
+     */
+    private int size;
+    /**
+     * Position of the next read or write.
+     */
+    private int position;
+    /**
+     * Maximum number of bytes transferred by each read or write.
+     */
+    private int maxTransfer = DEFAULT_MAX_TRANSFER;
+    /**
+     * Whether the channel is in blocking mode.
+     */
+    private boolean blocking = true;
+    /**
+     * Probability of the channel being ready for each operation in non-blocking mode.
+     */
+    private double readyProbability = 0.5;
+    /**
+     * Whether the next operation will transfer data.
+     */
+    private boolean ready = true;
+    /**
+     * Whether the channel is open.
+     */
+    private boolean open = true;
+
+    /**
+     * Creates an empty channel.
+     *
+     * @param factory factory creating the buffers data is transferred through
+     * @param seed    seed of the transfer sizes and readiness
+     */
+    public PartialIoChannel(final ByteBufferFactory factory, final long seed) {
+        this(factory, new byte[0], seed);
+    }
+
+    /**
+     * Creates a channel with the given contents, positioned at its start.
+     *
+     * @param factory factory creating the buffers data is transferred through
+     * @param content initial contents, which are copied
+     * @param seed    seed of the transfer sizes and readiness
+     */
+    public PartialIoChannel(final ByteBufferFactory factory, final byte[] content, final long seed) {
+        this.factory = factory;
+        this.random = new Random(seed);
+        this.data = content.clone();
+        this.size = content.length;
+    }
+
+    /**
+     * Sets the maximum number of bytes transferred by each read or write.
+     *
+     * @param bytes maximum transfer size, in bytes
+     * @return this channel
+     */
+    public synchronized PartialIoChannel maxTransfer(final int bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("maxTransfer must be positive: " + bytes);
+        }
+        if (bytes != maxTransfer) {
+            this.maxTransfer = bytes;
+            this.transfer = null;
+            this.writable = null;
+        }
+        return this;
+    }
+
+    /**
+     * Adjusts the blocking mode of the channel.
+     *
+     * @param block true to block, false to simulate readiness and return zero counts
+     * @return this channel
+     */
+    public synchronized PartialIoChannel configureBlocking(final boolean block) {
+        this.blocking = block;
+        this.ready = block || random.nextDouble() < readyProbability;
+        return this;
+    }
+
+    /**
+     * Sets the probability of the channel being ready for each operation in non-blocking mode.
+     *
+     * @param probability probability, greater than 0 and at most 1
+     * @return this channel
+     */
+    public synchronized PartialIoChannel readyProbability(final double probability) {
+        if (!(probability > 0 && probability <= 1)) {
+            throw new IllegalArgumentException("probability must be in (0, 1]: " + probability);
+        }
+        this.readyProbability = probability;
+        return this;
+    }
+
+    /**
+     * @return true if the channel is in blocking mode
+     */
+    public synchronized boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Reports whether the next read or write will transfer data, as a selector would. Always true in blocking mode.
+     *
+     * @return true if the channel is ready
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public synchronized int read(final ByteBuffer dst) throws ClosedChannelException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        if (!dst.hasRemaining() || !consumeReadiness()) {
+            return 0;
+        }
+        int count = count(Math.min(dst.remaining(), size - position));
+        dst.put(transfer(data, position, count));
+        position += count;
+        return count;
+    }
+
+    @Override
+    public synchronized int write(final ByteBuffer src) throws IOException {
+        ensureOpen();
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        if (position == Integer.MAX_VALUE) {
+            throw new IOException("channel can't grow past " + Integer.MAX_VALUE + " bytes");
+        }
+        if (!consumeReadiness()) {
+            return 0;
+        }
+        // short writes stop at the largest possible size
+        int count = count((int) Math.min(src.remaining(), (long) Integer.MAX_VALUE - position));
+        ByteBuffer chunk = src.duplicate();
+        chunk.limit(chunk.position() + count);
+        ByteBuffer transferred = transfer(chunk);
+        if (position + count > data.length) {
+            // the new bytes past the old end, and any gap before them, read as zero
+            data = Arrays.copyOf(data, Math.max(position + count, (int) Math.min(Integer.MAX_VALUE, 2L * data.length)));
+        }
+        transferred.get(data, position, count);
+        src.position(src.position() + count);
+        position += count;
+        size = Math.max(size, position);
+        return count;
+    }
+
+    @Override
+    public synchronized long position() throws ClosedChannelException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized PartialIoChannel position(final long newPosition) throws ClosedChannelException {
+        ensureOpen();
+        if (newPosition < 0 || newPosition > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("position out of range: " + newPosition);
+        }
+        // the contents only grow when bytes are written past the end
+        position = (int) newPosition;
+        return this;
+    }
+
+    @Override
+    public synchronized long size() throws ClosedChannelException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public synchronized PartialIoChannel truncate(final long newSize) throws ClosedChannelException {
+        ensureOpen();
+        if (newSize < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + newSize);
+        }
+        if (newSize < size) {
+            // bytes past the new size read as zero if the channel is extended again
+            Arrays.fill(data, (int) newSize, size, (byte) 0);
+            size = (int) newSize;
+        }
+        position = (int) Math.min(position, newSize);
+        return this;
+    }
+
+    /**
+     * Gets a copy of the contents of the channel.
+     *
+     * @return contents
+     */
+    public synchronized byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() {
+        open = false;
+    }
+
+    /**
+     * Copies part of an array into a buffer from the factory.
+     *
+     * @param src    array to copy from
+     * @param offset index of the first byte to copy
+     * @param length number of bytes to copy, at most the maximum transfer size
+     * @return buffer whose remaining bytes are the copied bytes
+     */
+    private ByteBuffer transfer(final byte[] src, final int offset, final int length) {
+        ByteBuffer buffer = transferBuffer(length);
+        if (buffer == null) {
+            return factory.copyOf(src, offset, length);
+        }
+        ByteBuffers.copy(src, offset, length, writable);
+        return buffer;
+    }
+
+    /**
+     * Copies the remaining bytes of a buffer into a buffer from the factory.
+     *
+     * @param src buffer to copy from, with at most the maximum transfer size remaining
+     * @return buffer whose remaining bytes are the copied bytes
+     */
+    private ByteBuffer transfer(final ByteBuffer src) {
+        ByteBuffer buffer = transferBuffer(src.remaining());
+        if (buffer == null) {
+            return factory.copyOf(src);
+        }
+        ByteBuffers.copy(src, writable);
+        return buffer;
+    }
+
+    /**
+     * Gets the reused transfer buffer, allocating it if the maximum transfer size has changed.
+     *
+     * @param length number of bytes to transfer
+     * @return transfer buffer with {@code length} bytes remaining, or null if its memory can't be written
+     */
+    private ByteBuffer transferBuffer(final int length) {
+        if (transfer == null) {
+            allocateTransfer();
+        }
+        if (writable == null) {
+            return null;
+        }
+        // the writable buffer may be the transfer buffer, so its limit must be set before copying into it
+        transfer.limit(transferStart + length);
+        transfer.position(transferStart);
+        return transfer;
+    }
+
+    /**
+     * Allocates the transfer buffer, finding a writable buffer sharing its memory.
+     */
+    private void allocateTransfer() {
+        if (factory instanceof ReadOnlyByteBufferFactory) {
+            writable = ((ReadOnlyByteBufferFactory) factory).factory().allocate(maxTransfer);
+            transfer = writable.asReadOnlyBuffer();
+        } else if (factory instanceof ReadOnlyMappedByteBufferFactory) {
+            ByteBuffer[] alias = new ByteBuffer[1];
+            ReadOnlyMappedByteBufferFactory mapped = (ReadOnlyMappedByteBufferFactory) factory;
+            transfer = mapped.map(maxTransfer, true, contents -> alias[0] = contents);
+            writable = alias[0];
+        } else {
+            transfer = factory.allocate(maxTransfer);
+            writable = transfer.isReadOnly() ? null : transfer;
+        }
+        transferStart = transfer.position();
+    }
+
+    /**
+     * Decides whether the current operation transfers data, and whether the next one will.
+     *
+     * @return true if the current operation should transfer data
+     */
+    private boolean consumeReadiness() {
+        boolean current = ready;
+        ready = blocking || random.nextDouble() < readyProbability;
+        return current;
+    }
+
+    /**
+     * Chooses the number of bytes to transfer.
+     *
+     * @param available number of bytes which could be transferred, must be positive
+     * @return number of bytes to transfer, between 1 and {@code available}
+     */
+    private int count(final int available) {
+        return 1 + random.nextInt(Math.min(available, maxTransfer));
+    }
+
+    /**
+     * @throws ClosedChannelException if the channel is closed
+     */
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link CharBufferFactory} which recycles the buffers of another factory. Buffers are grouped into power of two
+ * size classes, and {@link #release(CharBuffer)} makes a buffer's memory available to later calls to
+ * {@link #allocate(int)} and {@code copyOf}, so that in steady state the delegate factory isn't called at all.
+ *
+ * <p>Recycled buffers have the same position, limit, and capacity as a buffer created by the delegate factory, and
+ * are read-only if the delegate's buffers are. A buffer must not be used after it has been released.
+ */
+public final class PooledCharBufferFactory implements CharBufferFactory {
+    /**
+     * Default maximum number of buffers retained for each size class.
+     */
+    static final int DEFAULT_SLOTS_PER_SIZE_CLASS = 64;
+    /**
+     * Factory creating writable buffers to recycle.
+     */
+    private final CharBufferFactory factory;
+    /**
+     * Whether handed out buffers should be read-only.
+     */
+    private final boolean readOnly;
+    /**
+     * Pool of buffers created by {@link #factory}.
+     */
+    private final BufferPool<CharBuffer> pool;
+    /**
+     * Name of the factory.
+     */
+    private final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param factory           factory creating the buffers to recycle
+     * @param slotsPerSizeClass maximum number of buffers retained for each size class
+     */
+    PooledCharBufferFactory(final CharBufferFactory factory, final int slotsPerSizeClass) {
+        if (factory instanceof ReadOnlyCharBufferFactory) {
+            // pool the writable buffers, so that copyOf can fill them
+            this.factory = ((ReadOnlyCharBufferFactory) factory).factory();
+            this.readOnly = true;
+        } else {
+            this.factory = factory;
+            this.readOnly = false;
+        }
+        // memory tracked by a DirectBufferTracker is left for it to free, rather than freed when trimmed
+        this.pool = new BufferPool<>(this.factory::allocate,
+                                     Character.BYTES,
+                                     slotsPerSizeClass,
+                                     !(this.factory instanceof TrackedCharBufferFactory));
+        this.name = "POOLED_" + factory;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length) {
+        BufferPool.Slot<CharBuffer> slot = pool.acquire(length);
+        return handOut(slot, layout(slot, length));
+    }
+
+    @Override
+    public CharBuffer copyOf(final char[] array, final int offset, final int length) {
+        BufferPool.Slot<CharBuffer> slot = pool.acquire(length);
+        CharBuffer buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            pool.release(handOut(slot, buffer));
+            return factory.copyOf(array, offset, length);
+        }
+        CharBuffers.copy(array, offset, length, buffer);
+        return handOut(slot, buffer);
+    }
+
+    @Override
+    public CharBuffer copyOf(final CharBuffer buffer) {
+        BufferPool.Slot<CharBuffer> slot = pool.acquire(buffer.remaining());
+        CharBuffer output = layout(slot, buffer.remaining());
+        if (output.isReadOnly()) {
+            pool.release(handOut(slot, output));
+            return factory.copyOf(buffer);
+        }
+        CharBuffers.copy(buffer, output);
+        return handOut(slot, output);
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator) {
+        BufferPool.Slot<CharBuffer> slot = pool.acquire(length);
+        CharBuffer buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            pool.release(handOut(slot, buffer));
+            return factory.allocate(length, generator);
+        }
+        CharBuffers.fill(buffer, generator);
+        return handOut(slot, buffer);
+    }
+
+    @Override
+    public CharBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        BufferPool.Slot<CharBuffer> slot = this.pool.acquire(length);
+        CharBuffer buffer = layout(slot, length);
+        if (buffer.isReadOnly()) {
+            this.pool.release(handOut(slot, buffer));
+            return factory.allocate(length, generator, pool);
+        }
+        CharBuffers.fill(buffer, generator, pool);
+        return handOut(slot, buffer);
+    }
+
+    /**
+     * Returns a buffer's memory to the pool. Buffers which weren't created by this factory, or have already been
+     * released, are ignored and left to the garbage collector.
+     *
+     * @param buffer buffer created by this factory, which will no longer be used
+     * @return true if the buffer's memory will be reused
+     */
+    public boolean release(final CharBuffer buffer) {
+        return pool.release(buffer);
+    }
+
+    /**
+     * Drops the memory retained for buffers which aren't handed out, immediately freeing the direct memory the pool
+     * allocated for them, rather than waiting for it to be garbage collected. Suitable as a
+     * {@link DirectMemoryGovernor} reclaimer, since the freed memory counts against the budget again straight away.
+     * Memory tracked by a {@link DirectBufferTracker}, or owned by an arena, is only dropped.
+     *
+     * @return number of buffers dropped
+     */
+    public int trim() {
+        return pool.trim();
+    }
+
+    /**
+     * Creates a writable buffer over the memory of a slot, with the delegate factory's layout.
+     *
+     * @param slot   acquired slot
+     * @param length number of elements that should be remaining in the buffer
+     * @return writable buffer, unless the delegate factory creates read-only buffers
+     */
+    private static CharBuffer layout(final BufferPool.Slot<CharBuffer> slot, final int length) {
+        CharBuffer buffer = slot.memory(length).slice();
+        buffer.position(slot.before());
+        buffer.limit(slot.before() + length);
+        return buffer;
+    }
+
+    /**
+     * Hands out a buffer for a slot, making it read-only if necessary.
+     *
+     * @param slot   acquired slot
+     * @param buffer writable buffer over the slot's memory
+     * @return buffer to return to the caller
+     */
+    private CharBuffer handOut(final BufferPool.Slot<CharBuffer> slot, final CharBuffer buffer) {
+        return pool.handOut(slot, readOnly ? buffer.asReadOnlyBuffer() : buffer);
+    }
+
+    /**
+     * @return whether handed out buffers are read-only views of the recycled buffers
+     */
+    boolean readOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return factory creating the writable buffers which are recycled
+     */
+    CharBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
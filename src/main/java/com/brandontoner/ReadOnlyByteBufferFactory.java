@@ -17,6 +17,8 @@
 package com.brandontoner;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Provides read-only implementation of {@link ByteBufferFactory}.
@@ -36,6 +38,13 @@ class ReadOnlyByteBufferFactory implements ByteBufferFactory {
         this.factory = factory;
     }
 
+    /**
+     * @return delegate factory
+     */
+    ByteBufferFactory factory() {
+        return factory;
+    }
+
     @Override
     public ByteBuffer allocate(final int length) {
         return factory.allocate(length).asReadOnlyBuffer();
@@ -51,6 +60,16 @@ class ReadOnlyByteBufferFactory implements ByteBufferFactory {
         return factory.copyOf(buffer).asReadOnlyBuffer();
     }
 
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
         return "READ_ONLY_" + factory;
@@ -17,6 +17,8 @@
 package com.brandontoner;
 
 import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Provides read-only implementation of {@link FloatBufferFactory}.
@@ -36,6 +38,13 @@ class ReadOnlyFloatBufferFactory implements FloatBufferFactory {
         this.factory = factory;
     }
 
+    /**
+     * @return delegate factory
+     */
+    FloatBufferFactory factory() {
+        return factory;
+    }
+
     @Override
     public FloatBuffer allocate(final int length) {
         return factory.allocate(length).asReadOnlyBuffer();
@@ -51,6 +60,16 @@ class ReadOnlyFloatBufferFactory implements FloatBufferFactory {
         return factory.copyOf(buffer).asReadOnlyBuffer();
     }
 
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public FloatBuffer allocate(final int length, final IntToDoubleFunction generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
         return "READ_ONLY_" + factory;
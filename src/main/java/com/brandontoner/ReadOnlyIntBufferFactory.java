@@ -17,6 +17,8 @@
 package com.brandontoner;
 
 import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Provides read-only implementation of {@link IntBufferFactory}.
@@ -36,6 +38,13 @@ class ReadOnlyIntBufferFactory implements IntBufferFactory {
         this.factory = factory;
     }
 
+    /**
+     * @return delegate factory
+     */
+    IntBufferFactory factory() {
+        return factory;
+    }
+
     @Override
     public IntBuffer allocate(final int length) {
         return factory.allocate(length).asReadOnlyBuffer();
@@ -51,6 +60,16 @@ class ReadOnlyIntBufferFactory implements IntBufferFactory {
         return factory.copyOf(buffer).asReadOnlyBuffer();
     }
 
+    @Override
+    public IntBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public IntBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
         return "READ_ONLY_" + factory;
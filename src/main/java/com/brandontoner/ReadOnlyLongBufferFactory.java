@@ -17,6 +17,8 @@
 package com.brandontoner;
 
 import java.nio.LongBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToLongFunction;
 
 /**
  * Provides read-only implementation of {@link LongBufferFactory}.
@@ -36,6 +38,13 @@ class ReadOnlyLongBufferFactory implements LongBufferFactory {
         this.factory = factory;
     }
 
+    /**
+     * @return delegate factory
+     */
+    LongBufferFactory factory() {
+        return factory;
+    }
+
     @Override
     public LongBuffer allocate(final int length) {
         return factory.allocate(length).asReadOnlyBuffer();
@@ -51,6 +60,16 @@ class ReadOnlyLongBufferFactory implements LongBufferFactory {
         return factory.copyOf(buffer).asReadOnlyBuffer();
     }
 
+    @Override
+    public LongBuffer allocate(final int length, final IntToLongFunction generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public LongBuffer allocate(final int length, final IntToLongFunction generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
         return "READ_ONLY_" + factory;
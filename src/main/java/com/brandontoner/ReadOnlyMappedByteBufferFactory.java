@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Enumeration providing implementations of {@link ByteBufferFactory} backed by files mapped as read-only.
+ */
+enum ReadOnlyMappedByteBufferFactory implements ByteBufferFactory {
+    /**
+     * Allocates read-only memory-mapped ByteBuffers of the correct size.
+     */
+    MAPPED_READ_ONLY_CORRECT_SIZE(0, 0),
+    /**
+     * Allocates read-only memory-mapped ByteBuffers with padding before the data.
+     */
+    MAPPED_READ_ONLY_PADDING_BEFORE(10, 0),
+    /**
+     * Allocates read-only memory-mapped ByteBuffers with padding after the data.
+     */
+    MAPPED_READ_ONLY_PADDING_AFTER(0, 10),
+    /**
+     * Allocates read-only memory-mapped ByteBuffers with padding before and after the data.
+     */
+    MAPPED_READ_ONLY_PADDING_BOTH(10, 10);
+
+    /**
+     * Number of elements before the data.
+     */
+    private final int paddingBefore;
+    /**
+     * Number of elements after the data.
+     */
+    private final int paddingAfter;
+
+    /**
+     * Constructor.
+     *
+     * @param paddingBefore number of elements before the data
+     * @param paddingAfter  number of elements after the data
+     */
+    ReadOnlyMappedByteBufferFactory(final int paddingBefore, final int paddingAfter) {
+        this.paddingBefore = paddingBefore;
+        this.paddingAfter = paddingAfter;
+    }
+
+    /**
+     * @return traits of the buffers this factory creates
+     */
+    Set<BufferTrait> traits() {
+        return BufferTrait.of(ByteOrder.BIG_ENDIAN, paddingBefore, paddingAfter,
+                              BufferTrait.DIRECT, BufferTrait.READ_ONLY);
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length) {
+        return map(length, false, contents -> { });
+    }
+
+    @Override
+    public ByteBuffer copyOf(final byte[] array, final int offset, final int length) {
+        return map(length, false, contents -> ByteBuffers.copy(array, offset, length, contents));
+    }
+
+    @Override
+    public ByteBuffer copyOf(final ByteBuffer buffer) {
+        return map(buffer.remaining(), false, contents -> ByteBuffers.copy(buffer, contents));
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return map(length, false, contents -> ByteBuffers.fill(contents, generator));
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return map(length, false, contents -> ByteBuffers.fill(contents, generator, pool));
+    }
+
+    /**
+     * Maps a temporary file as read-only, after writing its contents.
+     *
+     * @param length       number of elements that should be remaining in the buffer
+     * @param keepWritable true if the writable buffer given to the initializer stays mapped, so that it can be kept to
+     *                     change the contents of the read-only buffer later
+     * @param initializer  writes the data, given a writable buffer whose remaining elements are the data
+     * @return read-only ByteBuffer
+     */
+    ByteBuffer map(final int length, final boolean keepWritable, final Consumer<ByteBuffer> initializer) {
+        int capacity = Sizes.add(Sizes.add(paddingBefore, length), paddingAfter);
+        int bytes = Sizes.bytes(capacity, Byte.BYTES);
+        ByteBuffer mapped = MappedFiles.mapReadOnly(bytes, keepWritable, writable -> {
+            ByteBuffer contents = writable;
+            contents.position(paddingBefore);
+            contents.limit(paddingBefore + length);
+            initializer.accept(contents);
+        });
+        ByteBuffer buffer = mapped;
+        buffer.position(paddingBefore);
+        buffer.limit(paddingBefore + length);
+        return buffer;
+    }
+}
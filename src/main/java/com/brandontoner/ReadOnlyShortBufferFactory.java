@@ -17,6 +17,8 @@
 package com.brandontoner;
 
 import java.nio.ShortBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Provides read-only implementation of {@link ShortBufferFactory}.
@@ -36,6 +38,13 @@ class ReadOnlyShortBufferFactory implements ShortBufferFactory {
         this.factory = factory;
     }
 
+    /**
+     * @return delegate factory
+     */
+    ShortBufferFactory factory() {
+        return factory;
+    }
+
     @Override
     public ShortBuffer allocate(final int length) {
         return factory.allocate(length).asReadOnlyBuffer();
@@ -51,6 +60,16 @@ class ReadOnlyShortBufferFactory implements ShortBufferFactory {
         return factory.copyOf(buffer).asReadOnlyBuffer();
     }
 
+    @Override
+    public ShortBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return factory.allocate(length, generator).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ShortBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return factory.allocate(length, generator, pool).asReadOnlyBuffer();
+    }
+
     @Override
     public String toString() {
         return "READ_ONLY_" + factory;
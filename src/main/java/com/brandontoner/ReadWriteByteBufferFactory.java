@@ -17,6 +17,10 @@
 package com.brandontoner;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Enumeration providing read-write implementations of {@link ByteBufferFactory}.
@@ -25,7 +29,7 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates non-direct ByteBuffers of the correct size.
      */
-    NON_DIRECT_CORRECT_SIZE {
+    NON_DIRECT_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.ARRAY) {
         @Override
         public ByteBuffer allocate(final int length) {
             return ByteBuffer.allocate(length);
@@ -34,10 +38,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates non-direct ByteBuffers with padding before the data.
      */
-    NON_DIRECT_PADDING_BEFORE {
+    NON_DIRECT_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.ARRAY,
+                              BufferTrait.PADDED_BEFORE) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = ByteBuffer.allocate(length + 10);
+            ByteBuffer buffer = ByteBuffer.allocate(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -45,10 +50,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates non-direct ByteBuffers with padding after the data.
      */
-    NON_DIRECT_PADDING_AFTER {
+    NON_DIRECT_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.ARRAY,
+                             BufferTrait.PADDED_AFTER) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = ByteBuffer.allocate(length + 10);
+            ByteBuffer buffer = ByteBuffer.allocate(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -56,10 +62,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates non-direct ByteBuffers with padding before and after the data.
      */
-    NON_DIRECT_PADDING_BOTH {
+    NON_DIRECT_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.ARRAY,
+                            BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = ByteBuffer.allocate(length + 20);
+            ByteBuffer buffer = ByteBuffer.allocate(Sizes.add(length, 20));
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
@@ -68,10 +75,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates non-direct ByteBuffers with correct size, but non-zero array offset.
      */
-    NON_DIRECT_NON_ZERO_ARRAY_OFFSET {
+    NON_DIRECT_NON_ZERO_ARRAY_OFFSET(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.ARRAY,
+                                     BufferTrait.NONZERO_ARRAY_OFFSET) {
         @Override
         public ByteBuffer allocate(final int length) {
-            byte[] array = new byte[length + 10];
+            byte[] array = new byte[Sizes.add(length, 10)];
             ByteBuffer buffer = ByteBuffer.wrap(array, 10, length).slice();
             assert buffer.arrayOffset() != 0 : "Array offset should be non-zero";
             return buffer;
@@ -80,7 +88,7 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates direct ByteBuffers of the correct size.
      */
-    DIRECT_CORRECT_SIZE {
+    DIRECT_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT) {
         @Override
         public ByteBuffer allocate(final int length) {
             return allocateDirect(length);
@@ -89,10 +97,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates direct ByteBuffers with padding before the data.
      */
-    DIRECT_PADDING_BEFORE {
+    DIRECT_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                          BufferTrait.PADDED_BEFORE) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = allocateDirect(length + 10);
+            ByteBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -100,10 +109,11 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates direct ByteBuffers with padding after the data.
      */
-    DIRECT_PADDING_AFTER {
+    DIRECT_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                         BufferTrait.PADDED_AFTER) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = allocateDirect(length + 10);
+            ByteBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -111,16 +121,131 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
     /**
      * Allocates direct ByteBuffers with padding before and after the data.
      */
-    DIRECT_PADDING_BOTH {
+    DIRECT_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                        BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public ByteBuffer allocate(final int length) {
-            ByteBuffer buffer = allocateDirect(length + 20);
+            ByteBuffer buffer = allocateDirect(Sizes.add(length, 20));
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped ByteBuffers of the correct size.
+     */
+    MAPPED_READ_WRITE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.READ_WRITE);
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped ByteBuffers with padding before the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                     BufferTrait.PADDED_BEFORE) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped ByteBuffers with padding after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                    BufferTrait.PADDED_AFTER) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped ByteBuffers with padding before and after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                   BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped ByteBuffers of the correct size.
+     */
+    MAPPED_PRIVATE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.PRIVATE);
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped ByteBuffers with padding before the data.
+     */
+    MAPPED_PRIVATE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                  BufferTrait.PADDED_BEFORE) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped ByteBuffers with padding after the data.
+     */
+    MAPPED_PRIVATE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                 BufferTrait.PADDED_AFTER) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped ByteBuffers with padding before and after the data.
+     */
+    MAPPED_PRIVATE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT,
+                                BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public ByteBuffer allocate(final int length) {
+            ByteBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.PRIVATE);
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
         }
     };
 
+    /**
+     * Traits of the buffers.
+     */
+    private final Set<BufferTrait> traits;
+
+    /**
+     * Constructor.
+     *
+     * @param order  byte order of the buffers
+     * @param traits the other traits of the buffers
+     */
+    ReadWriteByteBufferFactory(final ByteOrder order, final BufferTrait... traits) {
+        this.traits = BufferTrait.of(order, traits);
+    }
+
+    /**
+     * @return traits of the buffers
+     */
+    Set<BufferTrait> traits() {
+        return EnumSet.copyOf(traits);
+    }
+
     /**
      * Allocates a direct ByteBuffer with the given capacity.
      *
@@ -128,6 +253,17 @@ enum ReadWriteByteBufferFactory implements ByteBufferFactory {
      * @return direct ByteBuffer.
      */
     static ByteBuffer allocateDirect(final int length) {
-        return ByteBuffer.allocateDirect(length * Byte.BYTES);
+        return DirectMemory.allocate(Sizes.bytes(length, Byte.BYTES));
+    }
+
+    /**
+     * Allocates a ByteBuffer with the given capacity, backed by a memory-mapped temporary file.
+     *
+     * @param length capacity
+     * @param mode   mapping mode
+     * @return memory-mapped ByteBuffer.
+     */
+    static ByteBuffer allocateMapped(final int length, final FileChannel.MapMode mode) {
+        return MappedFiles.map(mode, Sizes.bytes(length, Byte.BYTES));
     }
 }
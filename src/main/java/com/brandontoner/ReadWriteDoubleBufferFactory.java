@@ -17,7 +17,11 @@
 package com.brandontoner;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Enumeration providing read-write implementations of {@link DoubleBufferFactory}.
@@ -26,7 +30,7 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates non-direct DoubleBuffers of the correct size.
      */
-    NON_DIRECT_CORRECT_SIZE {
+    NON_DIRECT_CORRECT_SIZE(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY) {
         @Override
         public DoubleBuffer allocate(final int length) {
             return DoubleBuffer.allocate(length);
@@ -35,10 +39,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates non-direct DoubleBuffers with padding before the data.
      */
-    NON_DIRECT_PADDING_BEFORE {
+    NON_DIRECT_PADDING_BEFORE(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                              BufferTrait.PADDED_BEFORE) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = DoubleBuffer.allocate(length + 10);
+            DoubleBuffer buffer = DoubleBuffer.allocate(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -46,10 +51,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates non-direct DoubleBuffers with padding after the data.
      */
-    NON_DIRECT_PADDING_AFTER {
+    NON_DIRECT_PADDING_AFTER(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                             BufferTrait.PADDED_AFTER) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = DoubleBuffer.allocate(length + 10);
+            DoubleBuffer buffer = DoubleBuffer.allocate(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -57,10 +63,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates non-direct DoubleBuffers with padding before and after the data.
      */
-    NON_DIRECT_PADDING_BOTH {
+    NON_DIRECT_PADDING_BOTH(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                            BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = DoubleBuffer.allocate(length + 20);
+            DoubleBuffer buffer = DoubleBuffer.allocate(Sizes.add(length, 20));
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
@@ -69,10 +76,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates non-direct DoubleBuffers with correct size, but non-zero array offset.
      */
-    NON_DIRECT_NON_ZERO_ARRAY_OFFSET {
+    NON_DIRECT_NON_ZERO_ARRAY_OFFSET(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                                     BufferTrait.NONZERO_ARRAY_OFFSET) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            double[] array = new double[length + 10];
+            double[] array = new double[Sizes.add(length, 10)];
             DoubleBuffer buffer = DoubleBuffer.wrap(array, 10, length).slice();
             assert buffer.arrayOffset() != 0 : "Array offset should be non-zero";
             return buffer;
@@ -81,7 +89,7 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates direct DoubleBuffers of the correct size.
      */
-    DIRECT_CORRECT_SIZE {
+    DIRECT_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
         @Override
         public DoubleBuffer allocate(final int length) {
             return allocateDirect(length);
@@ -90,10 +98,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates direct DoubleBuffers with padding before the data.
      */
-    DIRECT_PADDING_BEFORE {
+    DIRECT_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                          BufferTrait.PADDED_BEFORE) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = allocateDirect(length + 10);
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -101,10 +110,11 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates direct DoubleBuffers with padding after the data.
      */
-    DIRECT_PADDING_AFTER {
+    DIRECT_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                         BufferTrait.PADDED_AFTER) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = allocateDirect(length + 10);
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -112,16 +122,369 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
     /**
      * Allocates direct DoubleBuffers with padding before and after the data.
      */
-    DIRECT_PADDING_BOTH {
+    DIRECT_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                        BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public DoubleBuffer allocate(final int length) {
-            DoubleBuffer buffer = allocateDirect(length + 20);
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 20));
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
         }
+    },
+    /**
+     * Allocates read-write memory-mapped DoubleBuffers of the correct size.
+     */
+    MAPPED_READ_WRITE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.READ_WRITE);
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped DoubleBuffers with padding before the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                     BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped DoubleBuffers with padding after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                    BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped DoubleBuffers with padding before and after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                   BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped DoubleBuffers of the correct size.
+     */
+    MAPPED_PRIVATE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.PRIVATE);
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped DoubleBuffers with padding before the data.
+     */
+    MAPPED_PRIVATE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                  BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped DoubleBuffers with padding after the data.
+     */
+    MAPPED_PRIVATE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                 BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped DoubleBuffers with padding before and after the data.
+     */
+    MAPPED_PRIVATE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.PRIVATE);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers of the correct size.
+     */
+    DIRECT_NATIVE_ORDER_CORRECT_SIZE(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateDirect(length, ByteOrder.nativeOrder());
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers with padding before the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_BEFORE(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.nativeOrder());
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers with padding after the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_AFTER(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.nativeOrder());
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers with padding before and after the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_BOTH(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                     BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 20), ByteOrder.nativeOrder());
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct DoubleBuffers of the correct size.
+     */
+    DIRECT_LITTLE_ENDIAN_CORRECT_SIZE(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateDirect(length, ByteOrder.LITTLE_ENDIAN);
+        }
+    },
+    /**
+     * Allocates little-endian direct DoubleBuffers with padding before the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_BEFORE(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                        BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct DoubleBuffers with padding after the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_AFTER(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct DoubleBuffers with padding before and after the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_BOTH(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateDirect(Sizes.add(length, 20), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view DoubleBuffers of the correct size.
+     */
+    HEAP_VIEW_BIG_ENDIAN_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateHeapView(length, ByteOrder.BIG_ENDIAN);
+        }
+    },
+    /**
+     * Allocates big-endian heap view DoubleBuffers with padding before the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                        BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.BIG_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view DoubleBuffers with padding after the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.BIG_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view DoubleBuffers with padding before and after the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 20), ByteOrder.BIG_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view DoubleBuffers with correct size, but starting at a non-zero offset
+     * of the underlying ByteBuffer.
+     */
+    HEAP_VIEW_BIG_ENDIAN_NON_ZERO_OFFSET(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            ByteBuffer bytes = ByteBuffer.allocate(Sizes.bytes(Sizes.add(length, 10), Double.BYTES));
+            bytes.position(10 * Double.BYTES);
+            return bytes.order(ByteOrder.BIG_ENDIAN).asDoubleBuffer();
+        }
+    },
+    /**
+     * Allocates little-endian heap view DoubleBuffers of the correct size.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_CORRECT_SIZE(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateHeapView(length, ByteOrder.LITTLE_ENDIAN);
+        }
+    },
+    /**
+     * Allocates little-endian heap view DoubleBuffers with padding before the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_BEFORE(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                           BufferTrait.PADDED_BEFORE) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view DoubleBuffers with padding after the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_AFTER(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                          BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view DoubleBuffers with padding before and after the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_BOTH(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                         BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            DoubleBuffer buffer = allocateHeapView(Sizes.add(length, 20), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view DoubleBuffers with correct size, but starting at a non-zero offset
+     * of the underlying ByteBuffer.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_NON_ZERO_OFFSET(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            ByteBuffer bytes = ByteBuffer.allocate(Sizes.bytes(Sizes.add(length, 10), Double.BYTES));
+            bytes.position(10 * Double.BYTES);
+            return bytes.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers of the correct size, starting 1 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_1(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 1);
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers of the correct size, starting 3 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_3(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 3);
+        }
+    },
+    /**
+     * Allocates native-order direct DoubleBuffers of the correct size, starting 7 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_7(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public DoubleBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 7);
+        }
     };
 
+    /**
+     * Traits of the buffers.
+     */
+    private final Set<BufferTrait> traits;
+
+    /**
+     * Constructor.
+     *
+     * @param order  byte order of the buffers
+     * @param traits the other traits of the buffers
+     */
+    ReadWriteDoubleBufferFactory(final ByteOrder order, final BufferTrait... traits) {
+        this.traits = BufferTrait.of(order, traits);
+    }
+
+    /**
+     * @return traits of the buffers
+     */
+    Set<BufferTrait> traits() {
+        return EnumSet.copyOf(traits);
+    }
+
     /**
      * Allocates a direct DoubleBuffer with the given capacity.
      *
@@ -129,6 +492,55 @@ enum ReadWriteDoubleBufferFactory implements DoubleBufferFactory {
      * @return direct DoubleBuffer.
      */
     static DoubleBuffer allocateDirect(final int length) {
-        return ByteBuffer.allocateDirect(length * Double.BYTES).asDoubleBuffer();
+        return DirectMemory.allocate(Sizes.bytes(length, Double.BYTES)).asDoubleBuffer();
+    }
+
+    /**
+     * Allocates a DoubleBuffer with the given capacity, backed by a memory-mapped temporary file.
+     *
+     * @param length capacity
+     * @param mode   mapping mode
+     * @return memory-mapped DoubleBuffer.
+     */
+    static DoubleBuffer allocateMapped(final int length, final FileChannel.MapMode mode) {
+        return MappedFiles.map(mode, Sizes.bytes(length, Double.BYTES)).asDoubleBuffer();
+    }
+
+    /**
+     * Allocates a direct DoubleBuffer with the given capacity, viewing the underlying ByteBuffer in the given order.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return direct DoubleBuffer.
+     */
+    static DoubleBuffer allocateDirect(final int length, final ByteOrder order) {
+        return DirectMemory.allocate(Sizes.bytes(length, Double.BYTES)).order(order).asDoubleBuffer();
+    }
+
+    /**
+     * Allocates a non-direct DoubleBuffer which is a view of a heap ByteBuffer, i.e. it is not backed by an accessible
+     * array.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return non-direct DoubleBuffer without an accessible array.
+     */
+    static DoubleBuffer allocateHeapView(final int length, final ByteOrder order) {
+        return ByteBuffer.allocate(Sizes.bytes(length, Double.BYTES)).order(order).asDoubleBuffer();
+    }
+
+    /**
+     * Allocates a native-order direct DoubleBuffer with the given capacity, whose first element starts
+     * {@code byteOffset} bytes into the underlying ByteBuffer. Since direct memory is allocated with at least 8 byte
+     * alignment, an odd offset means no element is naturally aligned.
+     *
+     * @param length     capacity
+     * @param byteOffset offset of the first element within the underlying ByteBuffer, in bytes
+     * @return direct DoubleBuffer.
+     */
+    static DoubleBuffer allocateDirectMisaligned(final int length, final int byteOffset) {
+        ByteBuffer bytes = DirectMemory.allocate(Sizes.add(Sizes.bytes(length, Double.BYTES), byteOffset));
+        bytes.position(byteOffset);
+        return bytes.order(ByteOrder.nativeOrder()).asDoubleBuffer();
     }
 }
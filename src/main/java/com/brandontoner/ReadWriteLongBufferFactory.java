@@ -17,7 +17,11 @@
 package com.brandontoner;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Enumeration providing read-write implementations of {@link LongBufferFactory}.
@@ -26,7 +30,7 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates non-direct LongBuffers of the correct size.
      */
-    NON_DIRECT_CORRECT_SIZE {
+    NON_DIRECT_CORRECT_SIZE(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY) {
         @Override
         public LongBuffer allocate(final int length) {
             return LongBuffer.allocate(length);
@@ -35,10 +39,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates non-direct LongBuffers with padding before the data.
      */
-    NON_DIRECT_PADDING_BEFORE {
+    NON_DIRECT_PADDING_BEFORE(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                              BufferTrait.PADDED_BEFORE) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = LongBuffer.allocate(length + 10);
+            LongBuffer buffer = LongBuffer.allocate(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -46,10 +51,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates non-direct LongBuffers with padding after the data.
      */
-    NON_DIRECT_PADDING_AFTER {
+    NON_DIRECT_PADDING_AFTER(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                             BufferTrait.PADDED_AFTER) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = LongBuffer.allocate(length + 10);
+            LongBuffer buffer = LongBuffer.allocate(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -57,10 +63,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates non-direct LongBuffers with padding before and after the data.
      */
-    NON_DIRECT_PADDING_BOTH {
+    NON_DIRECT_PADDING_BOTH(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                            BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = LongBuffer.allocate(length + 20);
+            LongBuffer buffer = LongBuffer.allocate(Sizes.add(length, 20));
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
@@ -69,10 +76,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates non-direct LongBuffers with correct size, but non-zero array offset.
      */
-    NON_DIRECT_NON_ZERO_ARRAY_OFFSET {
+    NON_DIRECT_NON_ZERO_ARRAY_OFFSET(ByteOrder.nativeOrder(), BufferTrait.HEAP, BufferTrait.ARRAY,
+                                     BufferTrait.NONZERO_ARRAY_OFFSET) {
         @Override
         public LongBuffer allocate(final int length) {
-            long[] array = new long[length + 10];
+            long[] array = new long[Sizes.add(length, 10)];
             LongBuffer buffer = LongBuffer.wrap(array, 10, length).slice();
             assert buffer.arrayOffset() != 0 : "Array offset should be non-zero";
             return buffer;
@@ -81,7 +89,7 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates direct LongBuffers of the correct size.
      */
-    DIRECT_CORRECT_SIZE {
+    DIRECT_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
         @Override
         public LongBuffer allocate(final int length) {
             return allocateDirect(length);
@@ -90,10 +98,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates direct LongBuffers with padding before the data.
      */
-    DIRECT_PADDING_BEFORE {
+    DIRECT_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                          BufferTrait.PADDED_BEFORE) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = allocateDirect(length + 10);
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.position(10);
             return buffer;
         }
@@ -101,10 +110,11 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates direct LongBuffers with padding after the data.
      */
-    DIRECT_PADDING_AFTER {
+    DIRECT_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                         BufferTrait.PADDED_AFTER) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = allocateDirect(length + 10);
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10));
             buffer.limit(buffer.position() + length);
             return buffer;
         }
@@ -112,16 +122,369 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
     /**
      * Allocates direct LongBuffers with padding before and after the data.
      */
-    DIRECT_PADDING_BOTH {
+    DIRECT_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                        BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
         @Override
         public LongBuffer allocate(final int length) {
-            LongBuffer buffer = allocateDirect(length + 20);
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 20));
             buffer.position(10);
             buffer.limit(buffer.position() + length);
             return buffer;
         }
+    },
+    /**
+     * Allocates read-write memory-mapped LongBuffers of the correct size.
+     */
+    MAPPED_READ_WRITE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.READ_WRITE);
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped LongBuffers with padding before the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                     BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped LongBuffers with padding after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                    BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.READ_WRITE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates read-write memory-mapped LongBuffers with padding before and after the data.
+     */
+    MAPPED_READ_WRITE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                   BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.READ_WRITE);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped LongBuffers of the correct size.
+     */
+    MAPPED_PRIVATE_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateMapped(length, FileChannel.MapMode.PRIVATE);
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped LongBuffers with padding before the data.
+     */
+    MAPPED_PRIVATE_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                  BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped LongBuffers with padding after the data.
+     */
+    MAPPED_PRIVATE_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                 BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 10), FileChannel.MapMode.PRIVATE);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates private (copy-on-write) memory-mapped LongBuffers with padding before and after the data.
+     */
+    MAPPED_PRIVATE_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateMapped(Sizes.add(length, 20), FileChannel.MapMode.PRIVATE);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers of the correct size.
+     */
+    DIRECT_NATIVE_ORDER_CORRECT_SIZE(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateDirect(length, ByteOrder.nativeOrder());
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers with padding before the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_BEFORE(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.nativeOrder());
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers with padding after the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_AFTER(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.nativeOrder());
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers with padding before and after the data.
+     */
+    DIRECT_NATIVE_ORDER_PADDING_BOTH(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW,
+                                     BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 20), ByteOrder.nativeOrder());
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct LongBuffers of the correct size.
+     */
+    DIRECT_LITTLE_ENDIAN_CORRECT_SIZE(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateDirect(length, ByteOrder.LITTLE_ENDIAN);
+        }
+    },
+    /**
+     * Allocates little-endian direct LongBuffers with padding before the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_BEFORE(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                        BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct LongBuffers with padding after the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_AFTER(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian direct LongBuffers with padding before and after the data.
+     */
+    DIRECT_LITTLE_ENDIAN_PADDING_BOTH(ByteOrder.LITTLE_ENDIAN, BufferTrait.DIRECT, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateDirect(Sizes.add(length, 20), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view LongBuffers of the correct size.
+     */
+    HEAP_VIEW_BIG_ENDIAN_CORRECT_SIZE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateHeapView(length, ByteOrder.BIG_ENDIAN);
+        }
+    },
+    /**
+     * Allocates big-endian heap view LongBuffers with padding before the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_BEFORE(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                        BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.BIG_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view LongBuffers with padding after the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_AFTER(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                       BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.BIG_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view LongBuffers with padding before and after the data.
+     */
+    HEAP_VIEW_BIG_ENDIAN_PADDING_BOTH(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                      BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 20), ByteOrder.BIG_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates big-endian heap view LongBuffers with correct size, but starting at a non-zero offset
+     * of the underlying ByteBuffer.
+     */
+    HEAP_VIEW_BIG_ENDIAN_NON_ZERO_OFFSET(ByteOrder.BIG_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            ByteBuffer bytes = ByteBuffer.allocate(Sizes.bytes(Sizes.add(length, 10), Long.BYTES));
+            bytes.position(10 * Long.BYTES);
+            return bytes.order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+        }
+    },
+    /**
+     * Allocates little-endian heap view LongBuffers of the correct size.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_CORRECT_SIZE(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateHeapView(length, ByteOrder.LITTLE_ENDIAN);
+        }
+    },
+    /**
+     * Allocates little-endian heap view LongBuffers with padding before the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_BEFORE(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                           BufferTrait.PADDED_BEFORE) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view LongBuffers with padding after the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_AFTER(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                          BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 10), ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view LongBuffers with padding before and after the data.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_PADDING_BOTH(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW,
+                                         BufferTrait.PADDED_BEFORE, BufferTrait.PADDED_AFTER) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            LongBuffer buffer = allocateHeapView(Sizes.add(length, 20), ByteOrder.LITTLE_ENDIAN);
+            buffer.position(10);
+            buffer.limit(buffer.position() + length);
+            return buffer;
+        }
+    },
+    /**
+     * Allocates little-endian heap view LongBuffers with correct size, but starting at a non-zero offset
+     * of the underlying ByteBuffer.
+     */
+    HEAP_VIEW_LITTLE_ENDIAN_NON_ZERO_OFFSET(ByteOrder.LITTLE_ENDIAN, BufferTrait.HEAP, BufferTrait.VIEW) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            ByteBuffer bytes = ByteBuffer.allocate(Sizes.bytes(Sizes.add(length, 10), Long.BYTES));
+            bytes.position(10 * Long.BYTES);
+            return bytes.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers of the correct size, starting 1 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_1(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 1);
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers of the correct size, starting 3 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_3(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 3);
+        }
+    },
+    /**
+     * Allocates native-order direct LongBuffers of the correct size, starting 7 byte(s) into the underlying
+     * ByteBuffer, so elements are misaligned.
+     */
+    DIRECT_MISALIGNED_BY_7(ByteOrder.nativeOrder(), BufferTrait.DIRECT, BufferTrait.VIEW, BufferTrait.MISALIGNED) {
+        @Override
+        public LongBuffer allocate(final int length) {
+            return allocateDirectMisaligned(length, 7);
+        }
     };
 
+    /**
+     * Traits of the buffers.
+     */
+    private final Set<BufferTrait> traits;
+
+    /**
+     * Constructor.
+     *
+     * @param order  byte order of the buffers
+     * @param traits the other traits of the buffers
+     */
+    ReadWriteLongBufferFactory(final ByteOrder order, final BufferTrait... traits) {
+        this.traits = BufferTrait.of(order, traits);
+    }
+
+    /**
+     * @return traits of the buffers
+     */
+    Set<BufferTrait> traits() {
+        return EnumSet.copyOf(traits);
+    }
+
     /**
      * Allocates a direct LongBuffer with the given capacity.
      *
@@ -129,6 +492,55 @@ enum ReadWriteLongBufferFactory implements LongBufferFactory {
      * @return direct LongBuffer.
      */
     static LongBuffer allocateDirect(final int length) {
-        return ByteBuffer.allocateDirect(length * Long.BYTES).asLongBuffer();
+        return DirectMemory.allocate(Sizes.bytes(length, Long.BYTES)).asLongBuffer();
+    }
+
+    /**
+     * Allocates a LongBuffer with the given capacity, backed by a memory-mapped temporary file.
+     *
+     * @param length capacity
+     * @param mode   mapping mode
+     * @return memory-mapped LongBuffer.
+     */
+    static LongBuffer allocateMapped(final int length, final FileChannel.MapMode mode) {
+        return MappedFiles.map(mode, Sizes.bytes(length, Long.BYTES)).asLongBuffer();
+    }
+
+    /**
+     * Allocates a direct LongBuffer with the given capacity, viewing the underlying ByteBuffer in the given order.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return direct LongBuffer.
+     */
+    static LongBuffer allocateDirect(final int length, final ByteOrder order) {
+        return DirectMemory.allocate(Sizes.bytes(length, Long.BYTES)).order(order).asLongBuffer();
+    }
+
+    /**
+     * Allocates a non-direct LongBuffer which is a view of a heap ByteBuffer, i.e. it is not backed by an accessible
+     * array.
+     *
+     * @param length capacity
+     * @param order  byte order of the underlying ByteBuffer
+     * @return non-direct LongBuffer without an accessible array.
+     */
+    static LongBuffer allocateHeapView(final int length, final ByteOrder order) {
+        return ByteBuffer.allocate(Sizes.bytes(length, Long.BYTES)).order(order).asLongBuffer();
+    }
+
+    /**
+     * Allocates a native-order direct LongBuffer with the given capacity, whose first element starts
+     * {@code byteOffset} bytes into the underlying ByteBuffer. Since direct memory is allocated with at least 8 byte
+     * alignment, an odd offset means no element is naturally aligned.
+     *
+     * @param length     capacity
+     * @param byteOffset offset of the first element within the underlying ByteBuffer, in bytes
+     * @return direct LongBuffer.
+     */
+    static LongBuffer allocateDirectMisaligned(final int length, final int byteOffset) {
+        ByteBuffer bytes = DirectMemory.allocate(Sizes.add(Sizes.bytes(length, Long.BYTES), byteOffset));
+        bytes.position(byteOffset);
+        return bytes.order(ByteOrder.nativeOrder()).asLongBuffer();
     }
 }
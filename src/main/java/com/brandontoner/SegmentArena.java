@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Scope owning a {@code java.lang.foreign.Arena}, whose factories create buffers over {@code MemorySegment}s
+ * allocated from it. Closing the arena frees the memory of every buffer at once, after which any access to the
+ * buffers throws {@link IllegalStateException}, rather than having undefined results.
+ *
+ * <p>Buffers from a confined arena can only be accessed by the thread which created the arena, other threads get a
+ * {@code WrongThreadException}. The foreign memory API requires Java 21 or later, see {@link #isSupported()}.
+ */
+public final class SegmentArena implements AutoCloseable {
+    /**
+     * The {@code java.lang.foreign.Arena}.
+     */
+    private final Object arena;
+    /**
+     * Prefix of the names of the factories.
+     */
+    private final String prefix;
+
+    /**
+     * Constructor.
+     *
+     * @param arena  the {@code java.lang.foreign.Arena}
+     * @param prefix prefix of the names of the factories
+     */
+    private SegmentArena(final Object arena, final String prefix) {
+        this.arena = arena;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return true if the running JVM supports the foreign memory API
+     */
+    public static boolean isSupported() {
+        return MemorySegments.isSupported();
+    }
+
+    /**
+     * Creates an arena whose buffers can only be accessed by the current thread.
+     *
+     * @return confined arena
+     * @throws UnsupportedOperationException if the foreign memory API isn't available
+     */
+    public static SegmentArena ofConfined() {
+        return new SegmentArena(MemorySegments.ofConfined(), "SEGMENT_CONFINED");
+    }
+
+    /**
+     * Creates an arena whose buffers can be accessed by any thread.
+     *
+     * @return shared arena
+     * @throws UnsupportedOperationException if the foreign memory API isn't available
+     */
+    public static SegmentArena ofShared() {
+        return new SegmentArena(MemorySegments.ofShared(), "SEGMENT_SHARED");
+    }
+
+    /**
+     * @return factories creating ByteBuffers over segments allocated from this arena
+     */
+    public Collection<ByteBufferFactory> byteBufferFactories() {
+        return SegmentByteBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating CharBuffers over segments allocated from this arena
+     */
+    public Collection<CharBufferFactory> charBufferFactories() {
+        return SegmentCharBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating DoubleBuffers over segments allocated from this arena
+     */
+    public Collection<DoubleBufferFactory> doubleBufferFactories() {
+        return SegmentDoubleBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating FloatBuffers over segments allocated from this arena
+     */
+    public Collection<FloatBufferFactory> floatBufferFactories() {
+        return SegmentFloatBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating IntBuffers over segments allocated from this arena
+     */
+    public Collection<IntBufferFactory> intBufferFactories() {
+        return SegmentIntBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating LongBuffers over segments allocated from this arena
+     */
+    public Collection<LongBufferFactory> longBufferFactories() {
+        return SegmentLongBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * @return factories creating ShortBuffers over segments allocated from this arena
+     */
+    public Collection<ShortBufferFactory> shortBufferFactories() {
+        return SegmentShortBufferFactory.variants(prefix, arena());
+    }
+
+    /**
+     * Closes the arena, freeing the memory of every buffer created by its factories.
+     *
+     * @throws IllegalStateException if the arena is already closed
+     */
+    @Override
+    public void close() {
+        MemorySegments.close(arena);
+    }
+
+    /**
+     * @return supplier of the arena to allocate from
+     */
+    private Supplier<Object> arena() {
+        return () -> arena;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Provides implementations of {@link CharBufferFactory} creating native-order buffers over
+ * {@code java.lang.foreign.MemorySegment}s, which are only available on Java 21 and later.
+ */
+final class SegmentCharBufferFactory implements CharBufferFactory {
+    /**
+     * Factories allocating from automatic arenas, created once so that the read-only wrappers of each call to
+     * {@link CharBufferFactory#readOnlyFactories()} wrap the same factories.
+     */
+    private static final Collection<CharBufferFactory> AUTO = MemorySegments.isSupported()
+            ? variants("SEGMENT_AUTO", MemorySegments::ofAuto)
+            : Collections.emptyList();
+    /**
+     * Name of the factory.
+     */
+    private final String name;
+    /**
+     * Supplies the arena to allocate each segment from.
+     */
+    private final Supplier<Object> arena;
+    /**
+     * Number of elements before the data.
+     */
+    private final int paddingBefore;
+    /**
+     * Number of elements after the data.
+     */
+    private final int paddingAfter;
+    /**
+     * Offset of the buffer within its segment, in bytes.
+     */
+    private final int byteOffset;
+
+    /**
+     * Constructor.
+     *
+     * @param name          name of the factory
+     * @param arena         supplies the arena to allocate each segment from
+     * @param paddingBefore number of elements before the data
+     * @param paddingAfter  number of elements after the data
+     * @param byteOffset    offset of the buffer within its segment, in bytes
+     */
+    private SegmentCharBufferFactory(final String name,
+                                     final Supplier<Object> arena,
+                                     final int paddingBefore,
+                                     final int paddingAfter,
+                                     final int byteOffset) {
+        this.name = name;
+        this.arena = arena;
+        this.paddingBefore = paddingBefore;
+        this.paddingAfter = paddingAfter;
+        this.byteOffset = byteOffset;
+    }
+
+    /**
+     * Gets factories with each padding, and with buffers sliced at odd offsets of their segments.
+     *
+     * @param prefix prefix of the names of the factories
+     * @param arena  supplies the arena to allocate each segment from
+     * @return factories
+     */
+    static List<CharBufferFactory> variants(final String prefix, final Supplier<Object> arena) {
+        return Collections.unmodifiableList(Arrays.asList(
+                new SegmentCharBufferFactory(prefix + "_CORRECT_SIZE", arena, 0, 0, 0),
+                new SegmentCharBufferFactory(prefix + "_PADDING_BEFORE", arena, 10, 0, 0),
+                new SegmentCharBufferFactory(prefix + "_PADDING_AFTER", arena, 0, 10, 0),
+                new SegmentCharBufferFactory(prefix + "_PADDING_BOTH", arena, 10, 10, 0),
+                new SegmentCharBufferFactory(prefix + "_SLICED_AT_1", arena, 0, 0, 1),
+                new SegmentCharBufferFactory(prefix + "_SLICED_AT_3", arena, 0, 0, 3),
+                new SegmentCharBufferFactory(prefix + "_SLICED_AT_7", arena, 0, 0, 7)));
+    }
+
+    /**
+     * Gets factories whose segments are each allocated from a new automatic arena, so their memory is freed once
+     * they are garbage collected.
+     *
+     * @return factories, or an empty collection if the foreign memory API isn't available
+     */
+    static Collection<CharBufferFactory> auto() {
+        return AUTO;
+    }
+
+    /**
+     * @return traits of the buffers this factory creates
+     */
+    Set<BufferTrait> traits() {
+        Set<BufferTrait> traits = BufferTrait.of(ByteOrder.nativeOrder(), paddingBefore, paddingAfter,
+                                                 BufferTrait.DIRECT, BufferTrait.VIEW);
+        if (byteOffset % Character.BYTES != 0) {
+            traits.add(BufferTrait.MISALIGNED);
+        }
+        return traits;
+    }
+
+    @Override
+    public CharBuffer allocate(final int length) {
+        int capacity = Sizes.add(Sizes.add(paddingBefore, length), paddingAfter);
+        CharBuffer buffer = MemorySegments.allocate(arena.get(), byteOffset, (long) capacity * Character.BYTES)
+                                        .order(ByteOrder.nativeOrder()).asCharBuffer();
+        buffer.position(paddingBefore);
+        buffer.limit(paddingBefore + length);
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
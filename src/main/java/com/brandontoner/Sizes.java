@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+/**
+ * Computes buffer sizes, failing instead of silently overflowing int.
+ */
+final class Sizes {
+    /**
+     * Private constructor, utility class.
+     */
+    private Sizes() {
+    }
+
+    /**
+     * Adds padding to a size.
+     *
+     * @param size    number of elements or bytes
+     * @param padding number of elements or bytes to add
+     * @return {@code size + padding}
+     * @throws IllegalArgumentException if the sum is larger than {@link Integer#MAX_VALUE}
+     */
+    static int add(final int size, final int padding) {
+        long sum = (long) size + padding;
+        if (sum > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("size " + size + " plus " + padding + " is too large for a buffer");
+        }
+        return (int) sum;
+    }
+
+    /**
+     * Converts a number of elements to a number of bytes.
+     *
+     * @param length       number of elements
+     * @param elementBytes number of bytes in each element
+     * @return {@code length * elementBytes}
+     * @throws IllegalArgumentException if the product is larger than {@link Integer#MAX_VALUE}
+     */
+    static int bytes(final int length, final int elementBytes) {
+        long bytes = (long) length * elementBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(length + " elements of " + elementBytes
+                                               + " bytes are too large for a buffer");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Counts the chunks needed to hold a number of elements.
+     *
+     * @param length      total number of elements
+     * @param chunkLength number of elements in each chunk but the last
+     * @return number of chunks, 0 if {@code length} is 0
+     * @throws IllegalArgumentException if {@code length} is negative, {@code chunkLength} isn't positive, or there
+     *                                  would be more than {@link Integer#MAX_VALUE} chunks
+     */
+    static int chunks(final long length, final int chunkLength) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative, but was " + length);
+        }
+        if (chunkLength < 1) {
+            throw new IllegalArgumentException("chunkLength must be positive, but was " + chunkLength);
+        }
+        long chunks = length / chunkLength + (length % chunkLength == 0 ? 0 : 1);
+        if (chunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(length + " elements need " + chunks + " chunks of " + chunkLength);
+        }
+        return (int) chunks;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Provides implementation of {@link ByteBufferFactory} whose direct buffers are tracked by a
+ * {@link DirectBufferTracker}.
+ */
+class TrackedByteBufferFactory implements ByteBufferFactory {
+    /**
+     * Tracker recording the direct buffers.
+     */
+    private final DirectBufferTracker tracker;
+    /**
+     * Delegate factory.
+     */
+    private final ByteBufferFactory factory;
+
+    /**
+     * Constructor.
+     *
+     * @param tracker tracker recording the direct buffers
+     * @param factory delegate factory
+     */
+    TrackedByteBufferFactory(final DirectBufferTracker tracker, final ByteBufferFactory factory) {
+        this.tracker = tracker;
+        this.factory = factory;
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length) {
+        return tracker.track(factory, () -> factory.allocate(length));
+    }
+
+    @Override
+    public ByteBuffer copyOf(final byte[] array, final int offset, final int length) {
+        return tracker.track(factory, () -> factory.copyOf(array, offset, length));
+    }
+
+    @Override
+    public ByteBuffer copyOf(final ByteBuffer buffer) {
+        return tracker.track(factory, () -> factory.copyOf(buffer));
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator) {
+        return tracker.track(factory, () -> factory.allocate(length, generator));
+    }
+
+    @Override
+    public ByteBuffer allocate(final int length, final IntUnaryOperator generator, final ForkJoinPool pool) {
+        return tracker.track(factory, () -> factory.allocate(length, generator, pool));
+    }
+
+    /**
+     * @return delegate factory
+     */
+    ByteBufferFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public String toString() {
+        return "TRACKED_" + factory;
+    }
+}
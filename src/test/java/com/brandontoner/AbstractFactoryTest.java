@@ -16,62 +16,83 @@
 
 package com.brandontoner;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.lang.reflect.Field;
 import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @TestInstance(Lifecycle.PER_CLASS)
 abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<A, B>> {
+    /**
+     * Whether to test only the quick factories, set by running gradle with -Pquick.
+     */
+    private static final boolean QUICK = Boolean.getBoolean("badbuffers.quick");
     private static final int TEST_ARRAY_SIZE = 128;
+    private static final int PARALLEL_SLICE_LENGTH = 7;
+    private static final int PARALLEL_FILL_SIZE = 4 * IntBuffers.PARALLEL_FILL_THRESHOLD + 1;
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void allocate_empty_remaining(final T factory) {
         assertEquals(0, factory.allocate(0).remaining());
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void allocate_nonempty_remaining(final T factory) {
         assertEquals(TEST_ARRAY_SIZE, factory.allocate(TEST_ARRAY_SIZE).remaining());
     }
 
     @ParameterizedTest
-    @MethodSource("readOnlyFactories")
+    @MethodSource("testedReadOnlyFactories")
     void allocate_readonly(final T factory) {
         assertTrue(factory.allocate(TEST_ARRAY_SIZE).isReadOnly());
     }
 
     @ParameterizedTest
-    @MethodSource("readWriteFactories")
+    @MethodSource("testedReadWriteFactories")
     void allocate_readwrite(final T factory) {
         assertFalse(factory.allocate(TEST_ARRAY_SIZE).isReadOnly());
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_array_empty(final T factory) {
         A array = randomArray(0);
         assertEquals(wrap(array), factory.copyOf(array));
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_array_nonEmpty(final T factory) {
         A array = randomArray(TEST_ARRAY_SIZE);
         assertEquals(wrap(array), factory.copyOf(array));
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_array_subsection(final T factory) {
         A data = randomArray(TEST_ARRAY_SIZE);
         int offset = 1;
@@ -80,33 +101,33 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
     }
 
     @ParameterizedTest
-    @MethodSource("readOnlyFactories")
+    @MethodSource("testedReadOnlyFactories")
     void copyOf_array_isReadOnly(final T factory) {
         assertTrue(factory.copyOf(randomArray(0)).isReadOnly());
     }
 
     @ParameterizedTest
-    @MethodSource("readWriteFactories")
+    @MethodSource("testedReadWriteFactories")
     void copyOf_array_isReadWrite(final T factory) {
         assertFalse(factory.copyOf(randomArray(0)).isReadOnly());
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_buffer_empty(final T factory) {
         B buffer = wrap(randomArray(0));
         assertEquals(buffer, factory.copyOf(buffer));
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_buffer_nonEmpty(final T factory) {
         B buffer = wrap(randomArray(TEST_ARRAY_SIZE));
         assertEquals(buffer, factory.copyOf(buffer));
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_buffer_subsection(final T factory) {
         B buffer = wrap(randomArray(TEST_ARRAY_SIZE));
         buffer.position(1);
@@ -115,7 +136,7 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_buffer_positionAndLimitUnchanged(final T factory) {
         B buffer = wrap(randomArray(TEST_ARRAY_SIZE));
         buffer.position(1);
@@ -126,7 +147,7 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
     }
 
     @ParameterizedTest
-    @MethodSource("allFactories")
+    @MethodSource("testedFactories")
     void copyOf_buffer_dataUnchanged(final T factory) {
         A array = randomArray(TEST_ARRAY_SIZE);
         factory.copyOf(array);
@@ -134,17 +155,371 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
     }
 
     @ParameterizedTest
-    @MethodSource("readOnlyFactories")
+    @MethodSource("testedReadOnlyFactories")
     void copyOf_buffer_isReadOnly(final T factory) {
         assertTrue(factory.copyOf(wrap(randomArray(0))).isReadOnly());
     }
 
     @ParameterizedTest
-    @MethodSource("readWriteFactories")
+    @MethodSource("testedReadWriteFactories")
     void copyOf_buffer_isReadWrite(final T factory) {
         assertFalse(factory.copyOf(wrap(randomArray(0))).isReadOnly());
     }
 
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void copyInto_fromFactory(final T factory) {
+        B src = factory.copyOf(randomArray(TEST_ARRAY_SIZE));
+        int srcPosition = src.position();
+        B dst = wrap(randomArray(TEST_ARRAY_SIZE + 2), 1, TEST_ARRAY_SIZE);
+        copyInto(src, dst);
+        assertEquals(src, dst);
+        assertEquals(srcPosition, src.position());
+        assertEquals(1, dst.position());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedReadWriteFactories")
+    void copyInto_intoFactory(final T factory) {
+        B src = wrap(randomArray(TEST_ARRAY_SIZE));
+        B dst = factory.allocate(TEST_ARRAY_SIZE);
+        int dstPosition = dst.position();
+        copyInto(src, dst);
+        assertEquals(src, dst);
+        assertEquals(0, src.position());
+        assertEquals(dstPosition, dst.position());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedReadOnlyFactories")
+    void copyInto_readOnly_throws(final T factory) {
+        B src = wrap(randomArray(TEST_ARRAY_SIZE));
+        B dst = factory.allocate(TEST_ARRAY_SIZE);
+        assertThrows(ReadOnlyBufferException.class, () -> copyInto(src, dst));
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocate_generator(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        B buffer = allocate(factory, array);
+        assertEquals(wrap(array), buffer);
+        assertEquals(factory.allocate(0).isReadOnly(), buffer.isReadOnly());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocate_generator_parallel(final T factory) {
+        A array = randomArray(PARALLEL_FILL_SIZE);
+        B buffer = allocate(factory, array, ForkJoinPool.commonPool());
+        assertEquals(wrap(array), buffer);
+        assertEquals(factory.allocate(0).isReadOnly(), buffer.isReadOnly());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void copyOf_sizedStream(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        assertEquals(wrap(array), copyOf(factory, array, true));
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void copyOf_unsizedStream(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        assertEquals(wrap(array), copyOf(factory, array, false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void parallel_copyOf_array(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE + 2);
+        B buffer = parallel(factory, PARALLEL_SLICE_LENGTH).copyOf(array, 1, TEST_ARRAY_SIZE);
+        assertEquals(wrap(array, 1, TEST_ARRAY_SIZE), buffer);
+        assertEquals(factory.allocate(0).isReadOnly(), buffer.isReadOnly());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void parallel_copyOf_buffer(final T factory) {
+        B src = wrap(randomArray(TEST_ARRAY_SIZE + 2), 1, TEST_ARRAY_SIZE);
+        B buffer = parallel(factory, PARALLEL_SLICE_LENGTH).copyOf(src);
+        assertEquals(src, buffer);
+        assertEquals(1, src.position());
+        assertEquals(factory.allocate(0).isReadOnly(), buffer.isReadOnly());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void parallel_copyOf_belowThreshold(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        assertEquals(wrap(array), parallel(factory, TEST_ARRAY_SIZE).copyOf(array));
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocateChunked_remaining(final T factory) {
+        List<B> chunks = factory.allocateChunked(10L * TEST_ARRAY_SIZE + 3, TEST_ARRAY_SIZE);
+        assertEquals(11, chunks.size());
+        for (int i = 0; i < 10; i++) {
+            assertSameLayout(factory.allocate(TEST_ARRAY_SIZE), chunks.get(i));
+        }
+        assertSameLayout(factory.allocate(3), chunks.get(10));
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocateChunked_generator(final T factory) {
+        int chunkLength = 7;
+        A array = randomArray(TEST_ARRAY_SIZE);
+        List<B> chunks = allocateChunked(factory, array, chunkLength);
+        assertEquals((TEST_ARRAY_SIZE + chunkLength - 1) / chunkLength, chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            int offset = i * chunkLength;
+            int length = Math.min(chunkLength, TEST_ARRAY_SIZE - offset);
+            assertEquals(wrap(array, offset, length), chunks.get(i));
+            assertSameLayout(factory.allocate(length), chunks.get(i));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocateChunked_empty(final T factory) {
+        assertTrue(factory.allocateChunked(0, TEST_ARRAY_SIZE).isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void allocateChunked_tooManyChunks_throws(final T factory) {
+        assertThrows(IllegalArgumentException.class, () -> factory.allocateChunked(Long.MAX_VALUE, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("paddedFactories")
+    void allocate_paddingOverflows_throws(final T factory) {
+        assertThrows(IllegalArgumentException.class, () -> factory.allocate(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void copyOfAll_matchesEachFactory() {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        Map<T, B> copies = copyOfAll(array);
+        List<String> names = new ArrayList<>();
+        for (T factory : copies.keySet()) {
+            names.add(factory.toString());
+        }
+        assertEquals(allFactories().stream().map(Object::toString).collect(Collectors.toList()), names);
+        for (Map.Entry<T, B> entry : copies.entrySet()) {
+            B expected = entry.getKey().copyOf(array);
+            B actual = entry.getValue();
+            assertEquals(expected, actual, entry.getKey().toString());
+            assertEquals(expected.position(), actual.position());
+            assertEquals(expected.limit(), actual.limit());
+            assertEquals(expected.isDirect(), actual.isDirect());
+            assertEquals(expected.isReadOnly(), actual.isReadOnly());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("testedFactories")
+    void traits_matchBuffer(final T factory) throws ReflectiveOperationException {
+        Set<BufferTrait> traits = traits(factory);
+        B buffer = factory.allocate(TEST_ARRAY_SIZE);
+        assertEquals(buffer.isDirect(), traits.contains(BufferTrait.DIRECT));
+        assertEquals(!buffer.isDirect(), traits.contains(BufferTrait.HEAP));
+        assertEquals(buffer.isReadOnly(), traits.contains(BufferTrait.READ_ONLY));
+        assertEquals(buffer.hasArray(), traits.contains(BufferTrait.ARRAY));
+        if (buffer.hasArray()) {
+            // read-only views hide the array, but keep the trait of the buffer they view
+            assertEquals(buffer.arrayOffset() != 0, traits.contains(BufferTrait.NONZERO_ARRAY_OFFSET));
+        }
+        assertEquals(buffer.position() > 0, traits.contains(BufferTrait.PADDED_BEFORE));
+        assertEquals(buffer.limit() < buffer.capacity(), traits.contains(BufferTrait.PADDED_AFTER));
+        assertEquals(order(buffer) == ByteOrder.BIG_ENDIAN, traits.contains(BufferTrait.BIG_ENDIAN));
+        assertEquals(order(buffer) == ByteOrder.LITTLE_ENDIAN, traits.contains(BufferTrait.LITTLE_ENDIAN));
+        assertEquals(buffer.isDirect() && address(buffer) % elementBytes() != 0,
+                     traits.contains(BufferTrait.MISALIGNED));
+    }
+
+    @Test
+    void factories_matchTraits() {
+        for (BufferTrait trait : BufferTrait.values()) {
+            Set<BufferTrait> traitSet = EnumSet.of(trait);
+            Set<BufferTrait> none = EnumSet.noneOf(BufferTrait.class);
+            List<T> with = new ArrayList<>();
+            List<T> without = new ArrayList<>();
+            for (T factory : allFactories()) {
+                (traits(factory).contains(trait) ? with : without).add(factory);
+            }
+            assertEquals(with, new ArrayList<>(factories(traitSet, none)));
+            assertEquals(without, new ArrayList<>(factories(none, traitSet)));
+            assertSame(factories(traitSet, none), factories(traitSet, none));
+        }
+    }
+
+    @Test
+    void quickFactories_coverEveryTrait() {
+        Collection<T> quick = quickFactories();
+        assertTrue(quick.size() < allFactories().size());
+        assertTrue(allFactories().containsAll(quick));
+        for (BufferTrait trait : BufferTrait.values()) {
+            for (boolean present : new boolean[]{true, false}) {
+                boolean anyFactory = allFactories().stream().anyMatch(f -> traits(f).contains(trait) == present);
+                boolean anyQuick = quick.stream().anyMatch(f -> traits(f).contains(trait) == present);
+                assertEquals(anyFactory, anyQuick, trait + " " + present);
+            }
+        }
+    }
+
+    @Test
+    void allFactories_cached() {
+        assertSame(allFactories(), allFactories());
+        assertThrows(UnsupportedOperationException.class, () -> allFactories().clear());
+    }
+
+    @ParameterizedTest
+    @MethodSource("alignmentSweepFactories")
+    void alignmentSweep_allocate_remaining(final T factory) {
+        assertEquals(TEST_ARRAY_SIZE, factory.allocate(TEST_ARRAY_SIZE).remaining());
+    }
+
+    @ParameterizedTest
+    @MethodSource("alignmentSweepFactories")
+    void alignmentSweep_allocate_isDirect(final T factory) {
+        assertTrue(factory.allocate(TEST_ARRAY_SIZE).isDirect());
+    }
+
+    @ParameterizedTest
+    @MethodSource("alignmentSweepFactories")
+    void alignmentSweep_copyOf_array(final T factory) {
+        A array = randomArray(TEST_ARRAY_SIZE);
+        assertEquals(wrap(array), factory.copyOf(array));
+    }
+
+    @ParameterizedTest
+    @MethodSource("alignmentSweepFactories")
+    void alignmentSweep_atNamedOffset(final T factory) throws ReflectiveOperationException {
+        String name = factory.toString();
+        long alignment = name.startsWith("DIRECT_PAGE_") ? Alignment.PAGE_SIZE : Alignment.CACHE_LINE_SIZE;
+        long offset = 0;
+        if (name.startsWith("DIRECT_CACHE_LINE_OFFSET_")) {
+            offset = Integer.parseInt(name.substring("DIRECT_CACHE_LINE_OFFSET_".length()));
+        } else if (name.equals("DIRECT_PAGE_BOUNDARY_MINUS_8")) {
+            offset = Alignment.PAGE_SIZE - 8;
+        }
+        List<B> buffers = new ArrayList<>();
+        buffers.add(factory.allocate(1));
+        buffers.add(factory.allocate(TEST_ARRAY_SIZE));
+        buffers.add(factory.copyOf(randomArray(TEST_ARRAY_SIZE)));
+        for (B buffer : buffers) {
+            assertEquals(0, buffer.position());
+            assertEquals(offset, Math.floorMod(address(buffer), alignment), name);
+        }
+    }
+
+    @Test
+    void directNativeOrder_hasNativeOrder() {
+        assumeTrue(elementBytes() > 1, "only view buffers can have a byte order other than the ByteBuffer's");
+        assertDirectWithOrder("DIRECT_NATIVE_ORDER_", ByteOrder.nativeOrder());
+    }
+
+    @Test
+    void directLittleEndian_isLittleEndian() {
+        assumeTrue(elementBytes() > 1, "only view buffers can have a byte order other than the ByteBuffer's");
+        assertDirectWithOrder("DIRECT_LITTLE_ENDIAN_", ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    void heapView_isHeapWithoutArray() {
+        assumeTrue(elementBytes() > 1, "only view buffers can be heap buffers without an array");
+        for (ByteOrder order : Arrays.asList(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+            for (T factory : named("HEAP_VIEW_" + order + "_")) {
+                for (B buffer : Arrays.asList(factory.allocate(TEST_ARRAY_SIZE), factory.copyOf(randomArray(1)))) {
+                    assertFalse(buffer.isDirect(), factory.toString());
+                    assertFalse(buffer.hasArray(), factory.toString());
+                    assertEquals(order, order(buffer), factory.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void directMisaligned_atNamedOffset() throws ReflectiveOperationException {
+        assumeTrue(elementBytes() > 1, "ByteBuffers are never misaligned");
+        for (int misalignment : new int[]{1, 3, 7}) {
+            for (T factory : named("DIRECT_MISALIGNED_BY_" + misalignment)) {
+                for (B buffer : Arrays.asList(factory.allocate(TEST_ARRAY_SIZE), factory.copyOf(randomArray(1)))) {
+                    assertTrue(buffer.isDirect(), factory.toString());
+                    long offset = Math.floorMod(address(buffer), elementBytes());
+                    assertEquals(misalignment % elementBytes(), offset, factory.toString());
+                    assertTrue(offset != 0, factory.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the buffers of the named factories, and of their read-only twins, are direct with a byte order.
+     *
+     * @param prefix prefix of the names of the factories
+     * @param order  expected byte order
+     */
+    private void assertDirectWithOrder(final String prefix, final ByteOrder order) {
+        for (T factory : named(prefix)) {
+            for (B buffer : Arrays.asList(factory.allocate(TEST_ARRAY_SIZE), factory.copyOf(randomArray(1)))) {
+                assertTrue(buffer.isDirect(), factory.toString());
+                assertEquals(order, order(buffer), factory.toString());
+            }
+        }
+    }
+
+    /**
+     * Gets the factories with a name prefix, and their read-only twins.
+     *
+     * @param prefix prefix of the names of the factories
+     * @return matching factories, of which there is at least one
+     */
+    private List<T> named(final String prefix) {
+        List<T> factories = allFactories().stream()
+                                          .filter(factory -> factory.toString().startsWith(prefix)
+                                                             || factory.toString().startsWith("READ_ONLY_" + prefix))
+                                          .collect(Collectors.toList());
+        assertFalse(factories.isEmpty(), prefix);
+        return factories;
+    }
+
+    /**
+     * Checks that a buffer has the layout of another buffer created by the same factory.
+     *
+     * @param expected buffer created by the factory
+     * @param actual   buffer to check
+     */
+    private static void assertSameLayout(final Buffer expected, final Buffer actual) {
+        assertEquals(expected.position(), actual.position());
+        assertEquals(expected.limit(), actual.limit());
+        assertEquals(expected.capacity(), actual.capacity());
+        assertEquals(expected.isDirect(), actual.isDirect());
+        assertEquals(expected.isReadOnly(), actual.isReadOnly());
+    }
+
+    /**
+     * Reads the address of the first element of a direct buffer, from the {@code Buffer.address} field. The field is
+     * read with {@code sun.misc.Unsafe}, through reflection, which works on every Java version the tests run on.
+     *
+     * @param buffer direct buffer
+     * @return address of the buffer's element at index 0
+     * @throws ReflectiveOperationException if {@code sun.misc.Unsafe} or the field can't be found
+     */
+    private static long address(final Buffer buffer) throws ReflectiveOperationException {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Object unsafe = theUnsafe.get(null);
+        Field address = Buffer.class.getDeclaredField("address");
+        long fieldOffset = (long) unsafeClass.getMethod("objectFieldOffset", Field.class).invoke(unsafe, address);
+        return (long) unsafeClass.getMethod("getLong", Object.class, long.class).invoke(unsafe, buffer, fieldOffset);
+    }
+
     /**
      * Creates a Buffer wrapping the given array.
      *
@@ -163,6 +538,105 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
      */
     abstract B wrap(A array, int offset, int length);
 
+    /**
+     * Copies the remaining elements of one buffer into another, with the factory interface's copyInto.
+     *
+     * @param src buffer to copy from
+     * @param dst buffer to copy into
+     */
+    abstract void copyInto(B src, B dst);
+
+    /**
+     * Allocates chunks with the factory's generator form of allocateChunked, reading the elements from an array.
+     *
+     * @param factory     factory to allocate with
+     * @param array       elements of the content
+     * @param chunkLength number of elements in each chunk but the last
+     * @return chunks with the elements of array
+     */
+    abstract List<B> allocateChunked(T factory, A array, int chunkLength);
+
+    /**
+     * Allocates a buffer with the factory's generator fill, reading the elements from an array.
+     *
+     * @param factory factory to allocate with
+     * @param array   elements of the buffer
+     * @return buffer with the elements of array
+     */
+    abstract B allocate(T factory, A array);
+
+    /**
+     * Allocates a buffer with the factory's parallel generator fill, reading the elements from an array.
+     *
+     * @param factory factory to allocate with
+     * @param array   elements of the buffer
+     * @param pool    pool filling the buffer
+     * @return buffer with the elements of array
+     */
+    abstract B allocate(T factory, A array, ForkJoinPool pool);
+
+    /**
+     * Copies a primitive stream of the elements of an array with the factory.
+     *
+     * @param factory factory to copy with
+     * @param array   elements of the stream
+     * @param sized   whether the stream should report its size
+     * @return buffer with the elements of array
+     */
+    abstract B copyOf(T factory, A array, boolean sized);
+
+    /**
+     * Creates a factory which copies on the common pool, with the interface's parallel method.
+     *
+     * @param factory   factory creating the buffers
+     * @param threshold number of elements from which copies are split
+     * @return parallel factory
+     */
+    abstract T parallel(T factory, int threshold);
+
+    /**
+     * Copies an array with every factory, with the interface's copyOfAll.
+     *
+     * @param array array to copy
+     * @return copy made by each factory
+     */
+    abstract Map<T, B> copyOfAll(A array);
+
+    /**
+     * Queries the factories by their traits, with the interface's factories method.
+     *
+     * @param required traits every factory must have
+     * @param excluded traits no factory may have
+     * @return matching factories
+     */
+    abstract Collection<T> factories(Set<BufferTrait> required, Set<BufferTrait> excluded);
+
+    /**
+     * Gets the traits of a factory, with the interface's traits method.
+     *
+     * @param factory factory to describe
+     * @return traits of the factory
+     */
+    abstract Set<BufferTrait> traits(T factory);
+
+    /**
+     * Gets the byte order of a buffer.
+     *
+     * @param buffer buffer
+     * @return byte order of the buffer
+     */
+    abstract ByteOrder order(B buffer);
+
+    /**
+     * @return size of each element of the buffers, in bytes
+     */
+    abstract int elementBytes();
+
+    /**
+     * @return a few BufferFactories covering every trait, with the interface's quickFactories method
+     */
+    abstract Collection<T> quickFactories();
+
     /**
      * Creates a random array of a given size.
      *
@@ -185,4 +659,53 @@ abstract class AbstractFactoryTest<A, B extends Buffer, T extends BufferFactory<
      * @return collection of read-write BufferFactories
      */
     abstract Collection<T> readWriteFactories();
+
+    /**
+     * @return the BufferFactories the parameterized tests run with, only the quick ones with -Pquick
+     */
+    Collection<T> testedFactories() {
+        return tested(allFactories());
+    }
+
+    /**
+     * @return the read-only BufferFactories the parameterized tests run with, only the quick ones with -Pquick
+     */
+    Collection<T> testedReadOnlyFactories() {
+        return tested(readOnlyFactories());
+    }
+
+    /**
+     * @return the read-write BufferFactories the parameterized tests run with, only the quick ones with -Pquick
+     */
+    Collection<T> testedReadWriteFactories() {
+        return tested(readWriteFactories());
+    }
+
+    /**
+     * Keeps the quick factories, when the tests run in quick mode.
+     *
+     * @param factories factories to filter
+     * @return the factories to test
+     */
+    private Collection<T> tested(final Collection<T> factories) {
+        if (!QUICK) {
+            return factories;
+        }
+        Collection<T> quick = quickFactories();
+        return factories.stream().filter(quick::contains).collect(Collectors.toList());
+    }
+
+    /**
+     * @return collection of BufferFactories which allocate padding around the data
+     */
+    Collection<T> paddedFactories() {
+        return allFactories().stream()
+                             .filter(factory -> factory.toString().contains("PADDING"))
+                             .collect(Collectors.toList());
+    }
+
+    /**
+     * @return collection of BufferFactories sweeping the alignment of direct buffers
+     */
+    abstract Collection<T> alignmentSweepFactories();
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferArenaTest {
+    private static final int TEST_ARRAY_SIZE = 100;
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void copyOf_matchesDelegateLayout(final IntBufferFactory factory) {
+        int[] data = ThreadLocalRandom.current().ints(TEST_ARRAY_SIZE).toArray();
+        try (BufferArena arena = new BufferArena()) {
+            IntBuffer expected = factory.copyOf(data);
+            IntBuffer actual = arena.wrap(factory).copyOf(data);
+            assertEquals(expected, actual);
+            assertEquals(expected.position(), actual.position());
+            assertEquals(expected.limit(), actual.limit());
+            assertEquals(expected.capacity(), actual.capacity());
+            assertEquals(expected.isDirect(), actual.isDirect());
+            assertEquals(expected.isReadOnly(), actual.isReadOnly());
+            assertEquals(expected.order(), actual.order());
+        }
+    }
+
+    @Test
+    void allocate_carvesFromSlab() {
+        long before = directBufferCount();
+        try (BufferArena arena = new BufferArena()) {
+            IntBufferFactory factory = arena.wrap(ReadWriteIntBufferFactory.DIRECT_PADDING_BOTH);
+            for (int i = 0; i < 100; i++) {
+                factory.allocate(TEST_ARRAY_SIZE);
+            }
+            // buffers from other tests may be garbage collected concurrently, so the count can only be bounded
+            assertTrue(directBufferCount() <= before + 1);
+        }
+        assertTrue(directBufferCount() <= before);
+    }
+
+    @Test
+    void allocate_largerThanSlab() {
+        try (BufferArena arena = new BufferArena(16)) {
+            assertEquals(TEST_ARRAY_SIZE, arena.wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE)
+                                               .allocate(TEST_ARRAY_SIZE)
+                                               .remaining());
+        }
+    }
+
+    @Test
+    void allocate_afterClose_throws() {
+        BufferArena arena = new BufferArena();
+        IntBufferFactory factory = arena.wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE);
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> factory.allocate(TEST_ARRAY_SIZE));
+    }
+
+    @Test
+    void close_unmapsMappedBuffers() {
+        long before = bufferCount("mapped");
+        List<IntBuffer> buffers = new ArrayList<>();
+        try (BufferArena arena = new BufferArena()) {
+            List<IntBufferFactory> factories =
+                    Arrays.asList(ReadWriteIntBufferFactory.MAPPED_READ_WRITE_CORRECT_SIZE,
+                                  ReadOnlyMappedIntBufferFactory.MAPPED_READ_ONLY_CORRECT_SIZE);
+            for (IntBufferFactory factory : factories) {
+                for (int i = 0; i < 10; i++) {
+                    buffers.add(arena.wrap(factory).allocate(TEST_ARRAY_SIZE));
+                }
+            }
+            // the writable mappings which initialize read-only mappings are unmapped straight away
+            assertTrue(bufferCount("mapped") <= before + buffers.size());
+        }
+        // the buffers are still reachable, so only the arena can have unmapped them
+        assertTrue(bufferCount("mapped") <= before);
+        assertEquals(20, buffers.size());
+    }
+
+    private static long directBufferCount() {
+        return bufferCount("direct");
+    }
+
+    private static long bufferCount(final String name) {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)
+                                .stream()
+                                .filter(pool -> pool.getName().equals(name))
+                                .mapToLong(BufferPoolMXBean::getCount)
+                                .sum();
+    }
+
+    @Test
+    void sizing_measuresDirectAllocations() {
+        try (BufferArena.Sizing sizing = new BufferArena.Sizing()) {
+            sizing.measure(() -> ReadWriteIntBufferFactory.NON_DIRECT_CORRECT_SIZE.allocate(TEST_ARRAY_SIZE));
+            assertFalse(sizing.allocated());
+            assertEquals(0, sizing.bytes());
+            IntBufferFactory tracked = new DirectBufferTracker().wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE);
+            assertEquals(TEST_ARRAY_SIZE, sizing.measure(() -> tracked.allocate(TEST_ARRAY_SIZE)).remaining());
+            assertTrue(sizing.allocated());
+            // 400 bytes, rounded up to the arena's alignment
+            assertEquals(448, sizing.bytes());
+        }
+    }
+
+    @Test
+    void copyOfAll_decoratedFactories_matchDelegates() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        List<IntBufferFactory> factories = Arrays.asList(ReadWriteIntBufferFactory.NON_DIRECT_CORRECT_SIZE,
+                                                         tracker.wrap(ReadWriteIntBufferFactory.DIRECT_PADDING_BOTH),
+                                                         IntBufferFactory.parallel(
+                                                                 ReadWriteIntBufferFactory.DIRECT_MISALIGNED_BY_3, 7));
+        int[] data = ThreadLocalRandom.current().ints(TEST_ARRAY_SIZE).toArray();
+        Map<IntBufferFactory, IntBuffer> copies = IntBufferFactory.copyOfAll(factories, data);
+        for (IntBufferFactory factory : factories) {
+            IntBuffer expected = factory.copyOf(data);
+            IntBuffer actual = copies.get(factory);
+            assertEquals(expected, actual, factory.toString());
+            assertEquals(expected.position(), actual.position());
+            assertEquals(expected.isDirect(), actual.isDirect());
+        }
+    }
+
+    @Test
+    void copyOfAll_copiesOncePerFactory() {
+        AtomicInteger copies = new AtomicInteger();
+        IntBufferFactory counting = new IntBufferFactory() {
+            @Override
+            public IntBuffer allocate(final int length) {
+                return ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE.allocate(length);
+            }
+
+            @Override
+            public IntBuffer copyOf(final int[] array) {
+                copies.incrementAndGet();
+                return IntBufferFactory.super.copyOf(array);
+            }
+        };
+        int[] data = ThreadLocalRandom.current().ints(TEST_ARRAY_SIZE).toArray();
+        Map<IntBufferFactory, IntBuffer> result = IntBufferFactory.copyOfAll(Arrays.asList(
+                counting, ReadWriteIntBufferFactory.NON_DIRECT_CORRECT_SIZE), data);
+        assertEquals(IntBuffer.wrap(data), result.get(counting));
+        assertTrue(result.get(counting).isDirect());
+        assertEquals(1, copies.get());
+    }
+
+    private static Collection<IntBufferFactory> allFactories() {
+        return IntBufferFactory.allFactories();
+    }
+}
@@ -17,8 +17,14 @@
 package com.brandontoner;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 class ByteBufferFactoryTest extends AbstractFactoryTest<byte[], ByteBuffer, ByteBufferFactory> {
     @Override
@@ -31,6 +37,62 @@ class ByteBufferFactoryTest extends AbstractFactoryTest<byte[], ByteBuffer, Byte
         return ByteBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final ByteBuffer src, final ByteBuffer dst) {
+        ByteBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<ByteBuffer> allocateChunked(final ByteBufferFactory factory, final byte[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    ByteBuffer allocate(final ByteBufferFactory factory, final byte[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    ByteBuffer allocate(final ByteBufferFactory factory, final byte[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<ByteBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return ByteBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final ByteBufferFactory factory) {
+        return ByteBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final ByteBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Byte.BYTES;
+    }
+
+    @Override
+    Map<ByteBufferFactory, ByteBuffer> copyOfAll(final byte[] array) {
+        return ByteBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    ByteBufferFactory parallel(final ByteBufferFactory factory, final int threshold) {
+        return ByteBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    ByteBuffer copyOf(final ByteBufferFactory factory, final byte[] array, final boolean sized) {
+        IntStream stream = IntStream.range(0, array.length).map(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     byte[] randomArray(final int size) {
         byte[] data = new byte[size];
@@ -52,4 +114,14 @@ class ByteBufferFactoryTest extends AbstractFactoryTest<byte[], ByteBuffer, Byte
     Collection<ByteBufferFactory> readWriteFactories() {
         return ByteBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<ByteBufferFactory> quickFactories() {
+        return ByteBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<ByteBufferFactory> alignmentSweepFactories() {
+        return ByteBufferFactory.alignmentSweepFactories();
+    }
 }
@@ -16,9 +16,15 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.CharBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 class CharBufferFactoryTest extends AbstractFactoryTest<char[], CharBuffer, CharBufferFactory> {
     @Override
@@ -31,6 +37,62 @@ class CharBufferFactoryTest extends AbstractFactoryTest<char[], CharBuffer, Char
         return CharBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final CharBuffer src, final CharBuffer dst) {
+        CharBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<CharBuffer> allocateChunked(final CharBufferFactory factory, final char[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    CharBuffer allocate(final CharBufferFactory factory, final char[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    CharBuffer allocate(final CharBufferFactory factory, final char[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<CharBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return CharBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final CharBufferFactory factory) {
+        return CharBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final CharBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Character.BYTES;
+    }
+
+    @Override
+    Map<CharBufferFactory, CharBuffer> copyOfAll(final char[] array) {
+        return CharBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    CharBufferFactory parallel(final CharBufferFactory factory, final int threshold) {
+        return CharBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    CharBuffer copyOf(final CharBufferFactory factory, final char[] array, final boolean sized) {
+        IntStream stream = IntStream.range(0, array.length).map(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     char[] randomArray(final int size) {
         char[] output = new char[size];
@@ -54,4 +116,14 @@ class CharBufferFactoryTest extends AbstractFactoryTest<char[], CharBuffer, Char
     Collection<CharBufferFactory> readWriteFactories() {
         return CharBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<CharBufferFactory> quickFactories() {
+        return CharBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<CharBufferFactory> alignmentSweepFactories() {
+        return CharBufferFactory.alignmentSweepFactories();
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.IntBuffer;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectBufferTrackerTest {
+    private static final int TEST_ARRAY_SIZE = 100;
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void copyOf_tracksOnlyDirectBuffers(final IntBufferFactory factory) {
+        int[] data = ThreadLocalRandom.current().ints(TEST_ARRAY_SIZE).toArray();
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        IntBuffer expected = factory.copyOf(data);
+        IntBuffer actual = tracker.wrap(factory).copyOf(data);
+        assertEquals(expected, actual);
+        assertEquals(expected.isDirect(), actual.isDirect());
+        assertEquals(expected.isReadOnly(), actual.isReadOnly());
+        // segment-backed buffers are freed by their arena, so they aren't tracked
+        if (actual.isDirect() && !factory.toString().contains("SEGMENT_")) {
+            assertEquals(1, tracker.liveCount());
+            assertTrue(tracker.liveBytes() >= (long) TEST_ARRAY_SIZE * Integer.BYTES);
+            tracker.free(actual);
+        }
+        assertEquals(0, tracker.liveCount());
+        assertEquals(0, tracker.liveBytes());
+    }
+
+    @Test
+    void report_describesLiveBuffers() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        IntBufferFactory factory = tracker.wrap(ReadWriteIntBufferFactory.DIRECT_PADDING_BOTH);
+        IntBuffer buffer = factory.allocate(TEST_ARRAY_SIZE);
+        String report = tracker.report();
+        assertTrue(report.contains("DIRECT_PADDING_BOTH"), report);
+        assertTrue(report.contains(getClass().getName()), report);
+        tracker.free(buffer);
+        assertEquals("", tracker.report());
+    }
+
+    @Test
+    void report_withoutSampledStackTrace() {
+        DirectBufferTracker tracker = new DirectBufferTracker(Integer.MAX_VALUE);
+        IntBufferFactory factory = tracker.wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE);
+        IntBuffer first = factory.allocate(TEST_ARRAY_SIZE);
+        IntBuffer second = factory.allocate(TEST_ARRAY_SIZE);
+        tracker.free(first);
+        String report = tracker.report();
+        assertTrue(report.contains("DIRECT_CORRECT_SIZE"), report);
+        assertFalse(report.contains(getClass().getName()), report);
+        tracker.free(second);
+    }
+
+    @Test
+    void free_twice_throws() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        IntBuffer buffer = tracker.wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE).allocate(TEST_ARRAY_SIZE);
+        tracker.free(buffer);
+        assertThrows(IllegalArgumentException.class, () -> tracker.free(buffer));
+    }
+
+    @Test
+    void free_untracked_throws() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        IntBuffer buffer = ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE.allocate(TEST_ARRAY_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> tracker.free(buffer));
+    }
+
+    @Test
+    void arenaMemory_isNotTracked() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        try (BufferArena arena = new BufferArena()) {
+            tracker.wrap(arena.wrap(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE)).allocate(TEST_ARRAY_SIZE);
+            assertEquals(0, tracker.liveCount());
+        }
+    }
+
+    @Test
+    void pooledMemory_isNotTracked() {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        tracker.wrap(IntBufferFactory.pooled(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE)).allocate(TEST_ARRAY_SIZE);
+        assertEquals(0, tracker.liveCount());
+    }
+
+    @Test
+    void constructor_nonPositiveSampleInterval_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new DirectBufferTracker(0));
+    }
+
+    private static Collection<IntBufferFactory> allFactories() {
+        return IntBufferFactory.allFactories();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectMemoryGovernorTest {
+    private static final int MEGABYTE = 1 << 20;
+
+    @AfterEach
+    void uninstall() {
+        DirectMemoryGovernor.install(null);
+    }
+
+    @Test
+    void allocate_withinBudget() {
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(Long.MAX_VALUE, DirectMemoryGovernor.Policy.FAIL_FAST));
+        assertEquals(MEGABYTE, ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE.allocate(MEGABYTE).remaining());
+    }
+
+    @Test
+    void allocate_overBudget_failsFast() {
+        AtomicInteger reclaimed = new AtomicInteger();
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(0, DirectMemoryGovernor.Policy.FAIL_FAST)
+                                             .addReclaimer(reclaimed::incrementAndGet));
+        OutOfMemoryError error = assertThrows(OutOfMemoryError.class,
+                                              () -> ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE.allocate(10));
+        assertTrue(error.getMessage().contains("budget of 0"), error.getMessage());
+        assertEquals(1, reclaimed.get());
+    }
+
+    @Test
+    void mapped_overBudget_failsFast() {
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(0, DirectMemoryGovernor.Policy.FAIL_FAST));
+        assertThrows(OutOfMemoryError.class,
+                     () -> ReadWriteIntBufferFactory.MAPPED_READ_WRITE_CORRECT_SIZE.allocate(10));
+        assertThrows(OutOfMemoryError.class,
+                     () -> ReadOnlyMappedIntBufferFactory.MAPPED_READ_ONLY_CORRECT_SIZE.allocate(10));
+    }
+
+    @Test
+    void heap_isNotGoverned() {
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(0, DirectMemoryGovernor.Policy.FAIL_FAST));
+        assertEquals(10, ReadWriteIntBufferFactory.NON_DIRECT_CORRECT_SIZE.allocate(10).remaining());
+    }
+
+    @Test
+    void allocate_overBudget_throttlesUntilReleased() throws InterruptedException {
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        ByteBufferFactory factory = tracker.wrap(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(DirectMemoryGovernor.used() + MEGABYTE + MEGABYTE / 2,
+                                                              DirectMemoryGovernor.Policy.THROTTLE,
+                                                              1,
+                                                              TimeUnit.MINUTES));
+        ByteBuffer first = factory.allocate(MEGABYTE);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tracker.free(first);
+        });
+        releaser.start();
+        try {
+            assertEquals(MEGABYTE, factory.allocate(MEGABYTE).remaining());
+        } finally {
+            releaser.join();
+        }
+    }
+
+    @Test
+    void allocate_overBudget_throttleTimesOut() {
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(0,
+                                                              DirectMemoryGovernor.Policy.THROTTLE,
+                                                              10,
+                                                              TimeUnit.MILLISECONDS));
+        assertThrows(OutOfMemoryError.class, () -> ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE.allocate(10));
+    }
+
+    @Test
+    void pooledTrim_reclaimsRetainedBuffers() {
+        PooledIntBufferFactory pooled = IntBufferFactory.pooled(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE);
+        IntBuffer buffer = pooled.allocate(10);
+        assertEquals(0, pooled.trim());
+        assertTrue(pooled.release(buffer));
+        assertEquals(1, pooled.trim());
+        assertEquals(0, pooled.trim());
+    }
+
+    @Test
+    void pooledTrim_freesMemoryForFailFast() {
+        PooledByteBufferFactory pooled = ByteBufferFactory.pooled(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        long budget = DirectMemoryGovernor.used() + 2 * MEGABYTE + MEGABYTE / 2;
+        DirectMemoryGovernor.install(new DirectMemoryGovernor(budget, DirectMemoryGovernor.Policy.FAIL_FAST)
+                                             .addReclaimer(pooled::trim));
+        assertTrue(pooled.release(pooled.allocate(MEGABYTE)));
+        // rounded up to two megabytes, which only fit once the retained megabyte has been freed
+        assertEquals(MEGABYTE + 1, pooled.allocate(MEGABYTE + 1).remaining());
+    }
+
+    @Test
+    void constructor_negativeBudget_throws() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new DirectMemoryGovernor(-1, DirectMemoryGovernor.Policy.FAIL_FAST));
+    }
+}
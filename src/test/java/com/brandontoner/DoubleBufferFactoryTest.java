@@ -16,9 +16,16 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 class DoubleBufferFactoryTest extends AbstractFactoryTest<double[], DoubleBuffer, DoubleBufferFactory> {
     @Override
@@ -31,6 +38,62 @@ class DoubleBufferFactoryTest extends AbstractFactoryTest<double[], DoubleBuffer
         return DoubleBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final DoubleBuffer src, final DoubleBuffer dst) {
+        DoubleBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<DoubleBuffer> allocateChunked(final DoubleBufferFactory factory, final double[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    DoubleBuffer allocate(final DoubleBufferFactory factory, final double[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    DoubleBuffer allocate(final DoubleBufferFactory factory, final double[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<DoubleBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return DoubleBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final DoubleBufferFactory factory) {
+        return DoubleBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final DoubleBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Double.BYTES;
+    }
+
+    @Override
+    Map<DoubleBufferFactory, DoubleBuffer> copyOfAll(final double[] array) {
+        return DoubleBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    DoubleBufferFactory parallel(final DoubleBufferFactory factory, final int threshold) {
+        return DoubleBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    DoubleBuffer copyOf(final DoubleBufferFactory factory, final double[] array, final boolean sized) {
+        DoubleStream stream = IntStream.range(0, array.length).mapToDouble(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     double[] randomArray(final int size) {
         return ThreadLocalRandom.current().doubles(size).toArray();
@@ -50,4 +113,14 @@ class DoubleBufferFactoryTest extends AbstractFactoryTest<double[], DoubleBuffer
     Collection<DoubleBufferFactory> readWriteFactories() {
         return DoubleBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<DoubleBufferFactory> quickFactories() {
+        return DoubleBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<DoubleBufferFactory> alignmentSweepFactories() {
+        return DoubleBufferFactory.alignmentSweepFactories();
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DripFeedTest {
+    private static final int MESSAGES = 100;
+    private static final long SEED = 42;
+
+    @ParameterizedTest
+    @MethodSource("readWriteFactories")
+    void run_decodesEveryMessage(final ByteBufferFactory factory) {
+        List<Integer> expected = new ArrayList<>();
+        byte[] payload = payload(expected);
+        for (DripFeed.ChunkProfile profile : DripFeed.ChunkProfile.values()) {
+            LengthPrefixedDecoder decoder = new LengthPrefixedDecoder();
+            DripFeed.Result result = new DripFeed(factory, profile, SEED).run(payload, decoder);
+            assertEquals(expected, decoder.lengths, profile.toString());
+            assertEquals(factory.toString(), result.factory());
+            assertTrue(result.chunks() > 0);
+            assertTrue(result.bytesPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void run_oneByteChunks() {
+        byte[] payload = payload(new ArrayList<>());
+        DripFeed.Result result = new DripFeed(ReadWriteByteBufferFactory.DIRECT_PADDING_BOTH,
+                                              DripFeed.ChunkProfile.ONE_BYTE,
+                                              SEED).run(payload, new LengthPrefixedDecoder());
+        assertEquals(payload.length, result.chunks());
+    }
+
+    @Test
+    void runAll_everyProfile() {
+        List<DripFeed.Result> results = DripFeed.runAll(ByteBufferFactory.readWriteFactories(),
+                                                        payload(new ArrayList<>()),
+                                                        LengthPrefixedDecoder::new,
+                                                        SEED);
+        assertEquals(ByteBufferFactory.readWriteFactories().size() * DripFeed.ChunkProfile.values().length,
+                     results.size());
+    }
+
+    @Test
+    void run_readOnly_throws() {
+        DripFeed feed = new DripFeed(new ReadOnlyByteBufferFactory(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE),
+                                     DripFeed.ChunkProfile.RANDOM,
+                                     SEED);
+        assertThrows(IllegalArgumentException.class, () -> feed.run(new byte[10], new LengthPrefixedDecoder()));
+    }
+
+    @Test
+    void run_stuckDecoder_throws() {
+        DripFeed feed = new DripFeed(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE,
+                                     DripFeed.ChunkProfile.MTU_SIZED,
+                                     SEED,
+                                     16);
+        assertThrows(IllegalStateException.class, () -> feed.run(new byte[100], (buffer, endOfInput) -> { }));
+    }
+
+    private static byte[] payload(final List<Integer> lengths) {
+        ByteBuffer payload = ByteBuffer.allocate(MESSAGES * (Integer.BYTES + 1000));
+        for (int i = 0; i < MESSAGES; i++) {
+            int length = ThreadLocalRandom.current().nextInt(1000);
+            lengths.add(length);
+            payload.putInt(length);
+            payload.position(payload.position() + length);
+        }
+        payload.flip();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    private static Collection<ByteBufferFactory> readWriteFactories() {
+        return ByteBufferFactory.readWriteFactories();
+    }
+
+    /**
+     * Decodes messages consisting of a big-endian int length, followed by that many bytes.
+     */
+    private static final class LengthPrefixedDecoder implements DripFeed.Decoder {
+        private final List<Integer> lengths = new ArrayList<>();
+
+        @Override
+        public void decode(final ByteBuffer buffer, final boolean endOfInput) {
+            while (buffer.remaining() >= Integer.BYTES) {
+                // the factory decides the buffer's byte order, so read the big-endian length explicitly
+                int p = buffer.position();
+                int length = (buffer.get(p) & 0xFF) << 24 | (buffer.get(p + 1) & 0xFF) << 16
+                        | (buffer.get(p + 2) & 0xFF) << 8 | buffer.get(p + 3) & 0xFF;
+                if (buffer.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                buffer.position(buffer.position() + Integer.BYTES + length);
+                lengths.add(length);
+            }
+            if (endOfInput) {
+                assertEquals(0, buffer.remaining());
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FactoryCombinationsTest {
+    private static final long SEED = 42;
+
+    @Test
+    void pairwise_coversEveryPair() {
+        List<Collection<?>> parameters = Arrays.asList(ByteBufferFactory.allFactories(),
+                                                       CharBufferFactory.allFactories(),
+                                                       IntBufferFactory.readWriteFactories());
+        List<Object[]> combinations = FactoryCombinations.pairwise(SEED, parameters.toArray(new Collection<?>[0]));
+        assertCovered(2, parameters, combinations);
+        int product = parameters.stream().mapToInt(Collection::size).reduce(1, (a, b) -> a * b);
+        assertTrue(combinations.size() * 10 < product, combinations.size() + " of " + product);
+    }
+
+    @Test
+    void covering_strength3_coversEveryTriple() {
+        List<Collection<?>> parameters = Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList(1, 2),
+                                                       Arrays.asList("x", "y", "z"), Arrays.asList(true, false),
+                                                       Arrays.asList('p', 'q'));
+        List<Object[]> combinations = FactoryCombinations.covering(3, SEED, parameters.toArray(new Collection<?>[0]));
+        assertCovered(3, parameters, combinations);
+        assertTrue(combinations.size() < 3 * 2 * 3 * 2 * 2);
+    }
+
+    @Test
+    void covering_sameSeed_sameCombinations() {
+        List<Object[]> first = FactoryCombinations.pairwise(SEED, IntBufferFactory.allFactories(),
+                                                            IntBufferFactory.readWriteFactories());
+        List<Object[]> second = FactoryCombinations.pairwise(SEED, IntBufferFactory.allFactories(),
+                                                             IntBufferFactory.readWriteFactories());
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    void covering_fewerParametersThanStrength_fullProduct() {
+        List<Object[]> combinations = FactoryCombinations.covering(3, SEED, Arrays.asList(1, 2, 3),
+                                                                   Arrays.asList("a", "b"));
+        assertEquals(6, combinations.size());
+        assertCovered(2, Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList("a", "b")), combinations);
+    }
+
+    @Test
+    void covering_emptyParameter_empty() {
+        assertTrue(FactoryCombinations.pairwise(SEED, Arrays.asList(1, 2), new ArrayList<>()).isEmpty());
+        assertTrue(FactoryCombinations.pairwise(SEED).isEmpty());
+    }
+
+    @Test
+    void covering_nonPositiveStrength_throws() {
+        assertThrows(IllegalArgumentException.class, () -> FactoryCombinations.covering(0, SEED, Arrays.asList(1)));
+    }
+
+    private static void assertCovered(final int strength, final List<Collection<?>> parameters,
+                                      final List<Object[]> combinations) {
+        Set<List<Object>> seen = new HashSet<>();
+        for (Object[] combination : combinations) {
+            assertEquals(parameters.size(), combination.length);
+            for (int[] subset : subsets(parameters.size(), strength)) {
+                seen.add(tuple(subset, combination));
+            }
+        }
+        for (int[] subset : subsets(parameters.size(), strength)) {
+            for (Object[] combination : product(parameters)) {
+                assertTrue(seen.contains(tuple(subset, combination)), tuple(subset, combination).toString());
+            }
+        }
+    }
+
+    private static List<Object> tuple(final int[] subset, final Object[] combination) {
+        List<Object> tuple = new ArrayList<>();
+        for (int p : subset) {
+            tuple.add(p);
+            tuple.add(combination[p]);
+        }
+        return tuple;
+    }
+
+    private static List<int[]> subsets(final int n, final int strength) {
+        List<int[]> subsets = new ArrayList<>();
+        for (int mask = 0; mask < 1 << n; mask++) {
+            if (Integer.bitCount(mask) == strength) {
+                int[] subset = new int[strength];
+                int j = 0;
+                for (int p = 0; p < n; p++) {
+                    if ((mask & 1 << p) != 0) {
+                        subset[j++] = p;
+                    }
+                }
+                subsets.add(subset);
+            }
+        }
+        return subsets;
+    }
+
+    private static List<Object[]> product(final List<Collection<?>> parameters) {
+        List<Object[]> product = new ArrayList<>();
+        product.add(new Object[0]);
+        for (Collection<?> parameter : parameters) {
+            List<Object[]> next = new ArrayList<>();
+            for (Object[] prefix : product) {
+                for (Object value : parameter) {
+                    Object[] combination = Arrays.copyOf(prefix, prefix.length + 1);
+                    combination[prefix.length] = value;
+                    next.add(combination);
+                }
+            }
+            product = next;
+        }
+        return product;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Collection;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FactoryRegistryTest {
+    @Test
+    void misaligned_onlyOffsetFactories() {
+        Collection<IntBufferFactory> misaligned = IntBufferFactory.factories(BufferTrait.MISALIGNED);
+        assertTrue(misaligned.contains(ReadWriteIntBufferFactory.DIRECT_MISALIGNED_BY_3));
+        assertFalse(misaligned.contains(ReadWriteIntBufferFactory.DIRECT_NATIVE_ORDER_CORRECT_SIZE));
+        for (IntBufferFactory factory : misaligned) {
+            assertTrue(factory.toString().contains("MISALIGNED") || factory.toString().contains("SLICED_AT"),
+                       factory.toString());
+        }
+    }
+
+    @Test
+    void view_heapViewsAndDirect() {
+        Collection<IntBufferFactory> views = IntBufferFactory.factories(BufferTrait.VIEW);
+        assertTrue(views.contains(ReadWriteIntBufferFactory.HEAP_VIEW_BIG_ENDIAN_CORRECT_SIZE));
+        assertTrue(views.contains(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE));
+        assertFalse(views.contains(ReadWriteIntBufferFactory.NON_DIRECT_CORRECT_SIZE));
+        assertTrue(ByteBufferFactory.factories(BufferTrait.VIEW).isEmpty());
+    }
+
+    @Test
+    void nonZeroArrayOffset_includesReadOnlyTwin() {
+        Collection<IntBufferFactory> offset = IntBufferFactory.factories(BufferTrait.NONZERO_ARRAY_OFFSET);
+        assertTrue(offset.contains(ReadWriteIntBufferFactory.NON_DIRECT_NON_ZERO_ARRAY_OFFSET));
+        assertTrue(offset.stream().anyMatch(factory -> factory.toString()
+                                                              .equals("READ_ONLY_NON_DIRECT_NON_ZERO_ARRAY_OFFSET")));
+    }
+
+    @Test
+    void factories_combinedQuery() {
+        Collection<IntBufferFactory> factories = IntBufferFactory.factories(
+                EnumSet.of(BufferTrait.DIRECT, BufferTrait.PADDED_BEFORE, BufferTrait.READ_ONLY),
+                EnumSet.of(BufferTrait.BIG_ENDIAN));
+        assertFalse(factories.isEmpty());
+        for (IntBufferFactory factory : factories) {
+            IntBuffer buffer = factory.allocate(1);
+            assertTrue(buffer.isDirect() && buffer.position() > 0 && buffer.isReadOnly());
+            assertFalse(buffer.order() == ByteOrder.BIG_ENDIAN);
+        }
+    }
+
+    @Test
+    void traits_unknownFactory_throws() {
+        IntBufferFactory pooled = IntBufferFactory.pooled(ReadWriteIntBufferFactory.DIRECT_CORRECT_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> IntBufferFactory.traits(pooled));
+    }
+}
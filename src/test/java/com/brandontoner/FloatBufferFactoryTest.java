@@ -16,9 +16,16 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 class FloatBufferFactoryTest extends AbstractFactoryTest<float[], FloatBuffer, FloatBufferFactory> {
     @Override
@@ -31,6 +38,62 @@ class FloatBufferFactoryTest extends AbstractFactoryTest<float[], FloatBuffer, F
         return FloatBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final FloatBuffer src, final FloatBuffer dst) {
+        FloatBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<FloatBuffer> allocateChunked(final FloatBufferFactory factory, final float[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    FloatBuffer allocate(final FloatBufferFactory factory, final float[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    FloatBuffer allocate(final FloatBufferFactory factory, final float[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<FloatBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return FloatBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final FloatBufferFactory factory) {
+        return FloatBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final FloatBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Float.BYTES;
+    }
+
+    @Override
+    Map<FloatBufferFactory, FloatBuffer> copyOfAll(final float[] array) {
+        return FloatBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    FloatBufferFactory parallel(final FloatBufferFactory factory, final int threshold) {
+        return FloatBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    FloatBuffer copyOf(final FloatBufferFactory factory, final float[] array, final boolean sized) {
+        DoubleStream stream = IntStream.range(0, array.length).mapToDouble(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     float[] randomArray(final int size) {
         float[] output = new float[size];
@@ -54,4 +117,14 @@ class FloatBufferFactoryTest extends AbstractFactoryTest<float[], FloatBuffer, F
     Collection<FloatBufferFactory> readWriteFactories() {
         return FloatBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<FloatBufferFactory> quickFactories() {
+        return FloatBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<FloatBufferFactory> alignmentSweepFactories() {
+        return FloatBufferFactory.alignmentSweepFactories();
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentedByteBufferFactoryTest {
+    private static final int TEST_ARRAY_SIZE = 1000;
+    private static final long SEED = 42;
+
+    @ParameterizedTest
+    @EnumSource(FragmentedByteBufferFactory.Boundaries.class)
+    void copyOf_array_concatenatesToContent(final FragmentedByteBufferFactory.Boundaries boundaries) {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        FragmentedByteBufferFactory factory = new FragmentedByteBufferFactory(boundaries, SEED);
+        assertArrayEquals(data, concatenate(factory.copyOf(data)));
+        assertArrayEquals(Arrays.copyOfRange(data, 1, TEST_ARRAY_SIZE - 1),
+                          concatenate(factory.copyOf(data, 1, TEST_ARRAY_SIZE - 2)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FragmentedByteBufferFactory.Boundaries.class)
+    void copyOf_buffer_unchanged(final FragmentedByteBufferFactory.Boundaries boundaries) {
+        ByteBuffer buffer = ByteBuffer.wrap(randomArray(TEST_ARRAY_SIZE));
+        buffer.position(1);
+        ByteBuffer[] fragments = new FragmentedByteBufferFactory(boundaries, SEED).copyOf(buffer);
+        assertEquals(1, buffer.position());
+        assertEquals(buffer, ByteBuffer.wrap(concatenate(fragments)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FragmentedByteBufferFactory.Boundaries.class)
+    void allocate_remaining(final FragmentedByteBufferFactory.Boundaries boundaries) {
+        ByteBuffer[] fragments = new FragmentedByteBufferFactory(boundaries, SEED).allocate(TEST_ARRAY_SIZE);
+        assertEquals(TEST_ARRAY_SIZE, Arrays.stream(fragments).mapToInt(ByteBuffer::remaining).sum());
+    }
+
+    @ParameterizedTest
+    @EnumSource(FragmentedByteBufferFactory.Boundaries.class)
+    void copyOf_sameSeed_sameFragments(final FragmentedByteBufferFactory.Boundaries boundaries) {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        FragmentedByteBufferFactory factory = new FragmentedByteBufferFactory(boundaries, SEED);
+        assertArrayEquals(layout(factory.copyOf(data)), layout(factory.copyOf(data)));
+    }
+
+    @Test
+    void oneByte_fragments() {
+        ByteBuffer[] fragments = new FragmentedByteBufferFactory(FragmentedByteBufferFactory.Boundaries.ONE_BYTE, SEED)
+                .copyOf(randomArray(TEST_ARRAY_SIZE));
+        assertEquals(TEST_ARRAY_SIZE, fragments.length);
+        assertTrue(Arrays.stream(fragments).allMatch(fragment -> fragment.remaining() == 1));
+    }
+
+    @Test
+    void emptyFragments_present() {
+        ByteBuffer[] fragments =
+                new FragmentedByteBufferFactory(FragmentedByteBufferFactory.Boundaries.EMPTY_FRAGMENTS, SEED)
+                        .copyOf(randomArray(TEST_ARRAY_SIZE));
+        assertEquals(0, fragments[0].remaining());
+        assertEquals(0, fragments[fragments.length - 1].remaining());
+    }
+
+    @Test
+    void midUtf8_splitsEveryCharacter() {
+        byte[] data = "aé€😀".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer[] fragments = new FragmentedByteBufferFactory(FragmentedByteBufferFactory.Boundaries.MID_UTF8, SEED)
+                .copyOf(data);
+        for (ByteBuffer fragment : fragments) {
+            // every fragment after the first starts with a continuation byte
+            assertTrue(fragment == fragments[0] || (fragment.get(fragment.position()) & 0xC0) == 0x80);
+        }
+        assertEquals(1 + 1 + 2 + 3, fragments.length);
+        assertArrayEquals(data, concatenate(fragments));
+    }
+
+    @Test
+    void midVarint_splitsEveryVarint() {
+        // 300 encoded as a varint, followed by 1
+        byte[] data = {(byte) 0xAC, 0x02, 0x01};
+        ByteBuffer[] fragments =
+                new FragmentedByteBufferFactory(FragmentedByteBufferFactory.Boundaries.MID_VARINT, SEED).copyOf(data);
+        assertArrayEquals(new int[] {1, 2}, Arrays.stream(fragments).mapToInt(ByteBuffer::remaining).toArray());
+    }
+
+    private static int[] layout(final ByteBuffer[] fragments) {
+        return Arrays.stream(fragments).flatMapToInt(fragment -> Arrays.stream(new int[] {
+                fragment.position(), fragment.remaining(), fragment.capacity(), fragment.isDirect() ? 1 : 0
+        })).toArray();
+    }
+
+    private static byte[] concatenate(final ByteBuffer[] fragments) {
+        ByteBuffer output = ByteBuffer.allocate(Arrays.stream(fragments).mapToInt(ByteBuffer::remaining).sum());
+        for (ByteBuffer fragment : fragments) {
+            output.put(fragment.duplicate());
+        }
+        return output.array();
+    }
+
+    private static byte[] randomArray(final int size) {
+        byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+}
@@ -16,9 +16,15 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 class IntBufferFactoryTest extends AbstractFactoryTest<int[], IntBuffer, IntBufferFactory> {
     @Override
@@ -31,6 +37,62 @@ class IntBufferFactoryTest extends AbstractFactoryTest<int[], IntBuffer, IntBuff
         return IntBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final IntBuffer src, final IntBuffer dst) {
+        IntBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<IntBuffer> allocateChunked(final IntBufferFactory factory, final int[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    IntBuffer allocate(final IntBufferFactory factory, final int[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    IntBuffer allocate(final IntBufferFactory factory, final int[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<IntBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return IntBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final IntBufferFactory factory) {
+        return IntBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final IntBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    Map<IntBufferFactory, IntBuffer> copyOfAll(final int[] array) {
+        return IntBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    IntBufferFactory parallel(final IntBufferFactory factory, final int threshold) {
+        return IntBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    IntBuffer copyOf(final IntBufferFactory factory, final int[] array, final boolean sized) {
+        IntStream stream = IntStream.range(0, array.length).map(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     int[] randomArray(final int size) {
         return ThreadLocalRandom.current().ints(size).toArray();
@@ -50,4 +112,14 @@ class IntBufferFactoryTest extends AbstractFactoryTest<int[], IntBuffer, IntBuff
     Collection<IntBufferFactory> readWriteFactories() {
         return IntBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<IntBufferFactory> quickFactories() {
+        return IntBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<IntBufferFactory> alignmentSweepFactories() {
+        return IntBufferFactory.alignmentSweepFactories();
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterningBufferFactoryTest {
+    private static final int TEST_ARRAY_SIZE = 100;
+
+    @ParameterizedTest
+    @MethodSource("readOnlyFactories")
+    void copyOf_matchesDelegateLayout(final ByteBufferFactory factory) {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        ByteBufferFactory interning = ByteBufferFactory.interning(factory);
+        ByteBuffer expected = factory.copyOf(data);
+        for (int i = 0; i < 2; i++) {
+            ByteBuffer actual = interning.copyOf(data.clone());
+            assertEquals(expected, actual);
+            assertEquals(expected.position(), actual.position());
+            assertEquals(expected.limit(), actual.limit());
+            assertEquals(expected.capacity(), actual.capacity());
+            assertEquals(expected.isDirect(), actual.isDirect());
+            assertEquals(expected.order(), actual.order());
+            assertTrue(actual.isReadOnly());
+        }
+    }
+
+    @Test
+    void copyOf_sameContents_copiesOnce() {
+        AtomicInteger copies = new AtomicInteger();
+        ByteBufferFactory interning = ByteBufferFactory.interning(countingReadOnly(copies));
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        ByteBuffer first = interning.copyOf(data);
+        ByteBuffer second = interning.copyOf(ByteBuffer.wrap(data.clone()));
+        assertEquals(1, copies.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        second.position(second.limit());
+        assertEquals(TEST_ARRAY_SIZE, interning.copyOf(data).remaining());
+    }
+
+    @Test
+    void copyOf_differentContents_copiesAgain() {
+        AtomicInteger copies = new AtomicInteger();
+        ByteBufferFactory interning = ByteBufferFactory.interning(countingReadOnly(copies));
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        interning.copyOf(data);
+        data[TEST_ARRAY_SIZE / 2]++;
+        assertEquals(ByteBuffer.wrap(data), interning.copyOf(data));
+        assertEquals(2, copies.get());
+    }
+
+    @Test
+    void copyOf_leastRecentlyUsed_evicted() {
+        AtomicInteger copies = new AtomicInteger();
+        ByteBufferFactory interning = ByteBufferFactory.interning(countingReadOnly(copies), 2);
+        byte[] first = randomArray(TEST_ARRAY_SIZE);
+        byte[] second = randomArray(TEST_ARRAY_SIZE + 1);
+        byte[] third = randomArray(TEST_ARRAY_SIZE + 2);
+        interning.copyOf(first);
+        interning.copyOf(second);
+        interning.copyOf(first);
+        interning.copyOf(third);
+        assertEquals(3, copies.get());
+        interning.copyOf(first);
+        assertEquals(3, copies.get());
+        interning.copyOf(second);
+        assertEquals(4, copies.get());
+    }
+
+    @Test
+    void copyOf_signedZeros_notShared() {
+        FloatBufferFactory interning = FloatBufferFactory.interning(
+                new ReadOnlyFloatBufferFactory(ReadWriteFloatBufferFactory.NON_DIRECT_CORRECT_SIZE));
+        interning.copyOf(new float[] {0.0f});
+        FloatBuffer negative = interning.copyOf(new float[] {-0.0f});
+        assertEquals(Float.floatToRawIntBits(-0.0f), Float.floatToRawIntBits(negative.get(0)));
+    }
+
+    @Test
+    void interning_writableFactory_throws() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> ByteBufferFactory.interning(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE));
+    }
+
+    @Test
+    void interning_decoratedFactory_checkedWithoutAllocating() {
+        ByteBufferFactory readOnly = new ReadOnlyByteBufferFactory(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        ByteBufferFactory.interning(ByteBufferFactory.parallel(readOnly, 1));
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferFactory.interning(
+                ByteBufferFactory.parallel(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE, 1)));
+    }
+
+    @Test
+    void interning_reclaimingFactory_throws() {
+        ByteBufferFactory readOnly = new ReadOnlyByteBufferFactory(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        try (BufferArena arena = new BufferArena()) {
+            assertThrows(IllegalArgumentException.class, () -> ByteBufferFactory.interning(arena.wrap(readOnly)));
+        }
+        assertThrows(IllegalArgumentException.class,
+                     () -> ByteBufferFactory.interning(ByteBufferFactory.pooled(readOnly)));
+        DirectBufferTracker tracker = new DirectBufferTracker();
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferFactory.interning(
+                ByteBufferFactory.parallel(tracker.wrap(readOnly), 1)));
+    }
+
+    private static ByteBufferFactory countingReadOnly(final AtomicInteger copies) {
+        ByteBufferFactory counting = new ByteBufferFactory() {
+            @Override
+            public ByteBuffer allocate(final int length) {
+                return ReadWriteByteBufferFactory.NON_DIRECT_PADDING_BOTH.allocate(length);
+            }
+
+            @Override
+            public ByteBuffer copyOf(final byte[] array, final int offset, final int length) {
+                copies.incrementAndGet();
+                return ByteBufferFactory.super.copyOf(array, offset, length);
+            }
+
+            @Override
+            public ByteBuffer copyOf(final ByteBuffer buffer) {
+                copies.incrementAndGet();
+                return ByteBufferFactory.super.copyOf(buffer);
+            }
+        };
+        return new ReadOnlyByteBufferFactory(counting);
+    }
+
+    private static byte[] randomArray(final int size) {
+        byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+
+    private static Collection<ByteBufferFactory> readOnlyFactories() {
+        return ByteBufferFactory.readOnlyFactories();
+    }
+}
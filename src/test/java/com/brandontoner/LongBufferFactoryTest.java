@@ -16,9 +16,16 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.LongBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 class LongBufferFactoryTest extends AbstractFactoryTest<long[], LongBuffer, LongBufferFactory> {
     @Override
@@ -31,6 +38,62 @@ class LongBufferFactoryTest extends AbstractFactoryTest<long[], LongBuffer, Long
         return LongBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final LongBuffer src, final LongBuffer dst) {
+        LongBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<LongBuffer> allocateChunked(final LongBufferFactory factory, final long[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    LongBuffer allocate(final LongBufferFactory factory, final long[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    LongBuffer allocate(final LongBufferFactory factory, final long[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<LongBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return LongBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final LongBufferFactory factory) {
+        return LongBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final LongBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Long.BYTES;
+    }
+
+    @Override
+    Map<LongBufferFactory, LongBuffer> copyOfAll(final long[] array) {
+        return LongBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    LongBufferFactory parallel(final LongBufferFactory factory, final int threshold) {
+        return LongBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    LongBuffer copyOf(final LongBufferFactory factory, final long[] array, final boolean sized) {
+        LongStream stream = IntStream.range(0, array.length).mapToLong(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     long[] randomArray(final int size) {
         return ThreadLocalRandom.current().longs(size).toArray();
@@ -50,4 +113,14 @@ class LongBufferFactoryTest extends AbstractFactoryTest<long[], LongBuffer, Long
     Collection<LongBufferFactory> readWriteFactories() {
         return LongBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<LongBufferFactory> quickFactories() {
+        return LongBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<LongBufferFactory> alignmentSweepFactories() {
+        return LongBufferFactory.alignmentSweepFactories();
+    }
 }
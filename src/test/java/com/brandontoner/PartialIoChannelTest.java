@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartialIoChannelTest {
+    private static final int TEST_ARRAY_SIZE = 10000;
+    private static final long SEED = 42;
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void inputStream_readsContent(final ByteBufferFactory factory) throws IOException {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        PartialIoChannel channel = new PartialIoChannel(factory, data, SEED).maxTransfer(100);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = Channels.newInputStream(channel)) {
+            byte[] chunk = new byte[1000];
+            for (int n = input.read(chunk); n >= 0; n = input.read(chunk)) {
+                assertTrue(n > 0 && n <= 100);
+                output.write(chunk, 0, n);
+            }
+        }
+        assertArrayEquals(data, output.toByteArray());
+    }
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void write_shortCounts(final ByteBufferFactory factory) throws IOException {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        PartialIoChannel channel = new PartialIoChannel(factory, SEED).maxTransfer(100);
+        ByteBuffer src = ByteBuffer.wrap(data);
+        while (src.hasRemaining()) {
+            int n = channel.write(src);
+            assertTrue(n > 0 && n <= 100);
+        }
+        assertArrayEquals(data, channel.toByteArray());
+        assertEquals(TEST_ARRAY_SIZE, channel.size());
+    }
+
+    @Test
+    void nonBlocking_zeroCountsWhenNotReady() throws IOException {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        PartialIoChannel channel = new PartialIoChannel(ReadWriteByteBufferFactory.DIRECT_PADDING_BOTH, data, SEED)
+                .configureBlocking(false)
+                .readyProbability(0.25);
+        ByteBuffer dst = ByteBuffer.allocate(TEST_ARRAY_SIZE);
+        int zeros = 0;
+        while (dst.hasRemaining()) {
+            boolean ready = channel.isReady();
+            int n = channel.read(dst);
+            assertEquals(ready, n > 0);
+            if (n == 0) {
+                zeros++;
+            }
+        }
+        assertTrue(zeros > 0);
+        assertArrayEquals(data, dst.array());
+        assertEquals(-1, channel.read(dst));
+    }
+
+    @Test
+    void seek_overwrite() throws IOException {
+        PartialIoChannel channel = new PartialIoChannel(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE,
+                                                        new byte[] {1, 2, 3, 4},
+                                                        SEED);
+        channel.position(2);
+        ByteBuffer src = ByteBuffer.wrap(new byte[] {5, 6, 7});
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+        assertArrayEquals(new byte[] {1, 2, 5, 6, 7}, channel.toByteArray());
+        channel.truncate(3);
+        assertEquals(3, channel.position());
+        assertArrayEquals(new byte[] {1, 2, 5}, channel.toByteArray());
+    }
+
+    @Test
+    void seek_pastEnd_growsOnlyOnWrite() throws IOException {
+        PartialIoChannel channel = new PartialIoChannel(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE,
+                                                        new byte[] {1, 2},
+                                                        SEED);
+        channel.position(Integer.MAX_VALUE);
+        assertEquals(2, channel.size());
+        assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        channel.position(4);
+        ByteBuffer src = ByteBuffer.wrap(new byte[] {3});
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+        assertArrayEquals(new byte[] {1, 2, 0, 0, 3}, channel.toByteArray());
+    }
+
+    @Test
+    void write_atMaxPosition_throws() throws IOException {
+        PartialIoChannel channel = new PartialIoChannel(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE,
+                                                        new byte[] {1, 2},
+                                                        SEED);
+        channel.position(Integer.MAX_VALUE);
+        ByteBuffer src = ByteBuffer.wrap(new byte[] {3});
+        assertThrows(IOException.class, () -> channel.write(src));
+        assertEquals(0, src.position());
+        assertArrayEquals(new byte[] {1, 2}, channel.toByteArray());
+    }
+
+    @Test
+    void transfers_reuseOneBuffer() throws IOException {
+        AtomicInteger allocations = new AtomicInteger();
+        ByteBufferFactory counting = length -> {
+            allocations.incrementAndGet();
+            return ReadWriteByteBufferFactory.DIRECT_PADDING_BOTH.allocate(length);
+        };
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        PartialIoChannel channel = new PartialIoChannel(counting, SEED).maxTransfer(100);
+        ByteBuffer src = ByteBuffer.wrap(data);
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+        channel.position(0);
+        ByteBuffer dst = ByteBuffer.allocate(TEST_ARRAY_SIZE);
+        while (dst.hasRemaining()) {
+            channel.read(dst);
+        }
+        assertArrayEquals(data, dst.array());
+        assertEquals(1, allocations.get());
+        channel.maxTransfer(10).position(0).read(ByteBuffer.allocate(1));
+        assertEquals(2, allocations.get());
+    }
+
+    @Test
+    void closed_throws() {
+        PartialIoChannel channel = new PartialIoChannel(ReadWriteByteBufferFactory.NON_DIRECT_CORRECT_SIZE, SEED);
+        channel.close();
+        assertFalse(channel.isOpen());
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+    private static byte[] randomArray(final int size) {
+        byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+
+    private static Collection<ByteBufferFactory> allFactories() {
+        return ByteBufferFactory.allFactories();
+    }
+}
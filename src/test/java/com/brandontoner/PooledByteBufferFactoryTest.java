@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledByteBufferFactoryTest {
+    private static final int TEST_ARRAY_SIZE = 100;
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void copyOf_matchesDelegateLayout(final ByteBufferFactory factory) {
+        byte[] data = randomArray(TEST_ARRAY_SIZE);
+        ByteBuffer expected = factory.copyOf(data);
+        ByteBuffer actual = ByteBufferFactory.pooled(factory).copyOf(data);
+        assertEquals(expected, actual);
+        assertEquals(expected.position(), actual.position());
+        assertEquals(expected.limit(), actual.limit());
+        assertEquals(expected.capacity(), actual.capacity());
+        assertEquals(expected.isDirect(), actual.isDirect());
+        assertEquals(expected.isReadOnly(), actual.isReadOnly());
+    }
+
+    @ParameterizedTest
+    @MethodSource("allFactories")
+    void copyOf_afterRelease_reappliesLayout(final ByteBufferFactory factory) {
+        PooledByteBufferFactory pooled = ByteBufferFactory.pooled(factory);
+        ByteBuffer first = pooled.copyOf(randomArray(TEST_ARRAY_SIZE));
+        first.position(first.limit());
+        pooled.release(first);
+
+        byte[] data = randomArray(TEST_ARRAY_SIZE - 1);
+        ByteBuffer expected = factory.copyOf(data);
+        ByteBuffer actual = pooled.copyOf(data);
+        assertEquals(expected, actual);
+        assertEquals(expected.position(), actual.position());
+        assertEquals(expected.capacity(), actual.capacity());
+    }
+
+    @Test
+    void allocate_afterRelease_reusesMemory() {
+        PooledByteBufferFactory pooled = ByteBufferFactory.pooled(ReadWriteByteBufferFactory.NON_DIRECT_PADDING_BOTH);
+        ByteBuffer first = pooled.allocate(TEST_ARRAY_SIZE);
+        assertTrue(pooled.release(first));
+        assertSame(first.array(), pooled.allocate(TEST_ARRAY_SIZE - 1).array());
+    }
+
+    @Test
+    void acquire_roundedSizeTooLarge_allocatesExactLength() {
+        List<Integer> lengths = new ArrayList<>();
+        BufferPool<LongBuffer> pool = new BufferPool<>(length -> {
+            lengths.add(length);
+            return LongBuffer.allocate(0);
+        }, Long.BYTES, 1, false);
+        // 2^28 longs are 2^31 bytes, one more than a buffer can hold
+        pool.acquire((1 << 27) + 1);
+        pool.acquire(1 << 27);
+        pool.acquire(5);
+        assertEquals(Arrays.asList((1 << 27) + 1, 1 << 27, 8), lengths);
+    }
+
+    @Test
+    void release_twice_ignored() {
+        PooledByteBufferFactory pooled = ByteBufferFactory.pooled(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        ByteBuffer buffer = pooled.allocate(TEST_ARRAY_SIZE);
+        assertTrue(pooled.release(buffer));
+        assertFalse(pooled.release(buffer));
+    }
+
+    @Test
+    void release_foreignBuffer_ignored() {
+        PooledByteBufferFactory pooled = ByteBufferFactory.pooled(ReadWriteByteBufferFactory.DIRECT_CORRECT_SIZE);
+        pooled.allocate(TEST_ARRAY_SIZE);
+        assertFalse(pooled.release(ByteBuffer.allocateDirect(TEST_ARRAY_SIZE)));
+    }
+
+    private static byte[] randomArray(final int size) {
+        byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+
+    private static Collection<ByteBufferFactory> allFactories() {
+        return ByteBufferFactory.allFactories();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Brandon Toner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.brandontoner;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SegmentArenaTest {
+    private static final int TEST_ARRAY_SIZE = 100;
+
+    @Test
+    void unsupported_noFactories() {
+        assumeTrue(!SegmentArena.isSupported());
+        assertTrue(LongBufferFactory.segmentFactories().isEmpty());
+        assertThrows(UnsupportedOperationException.class, SegmentArena::ofConfined);
+    }
+
+    @Test
+    void confined_copyOf() {
+        assumeTrue(SegmentArena.isSupported());
+        long[] data = ThreadLocalRandom.current().longs(TEST_ARRAY_SIZE).toArray();
+        try (SegmentArena arena = SegmentArena.ofConfined()) {
+            for (LongBufferFactory factory : arena.longBufferFactories()) {
+                LongBuffer buffer = factory.copyOf(data);
+                assertEquals(LongBuffer.wrap(data), buffer, factory.toString());
+                assertTrue(buffer.isDirect());
+                assertFalse(buffer.isReadOnly());
+                assertEquals(ByteOrder.nativeOrder(), buffer.order());
+            }
+        }
+    }
+
+    @Test
+    void confined_otherThread_throws() throws InterruptedException {
+        assumeTrue(SegmentArena.isSupported());
+        try (SegmentArena arena = SegmentArena.ofConfined()) {
+            LongBuffer buffer = arena.longBufferFactories().iterator().next().allocate(TEST_ARRAY_SIZE);
+            ExecutionException e = assertThrows(ExecutionException.class,
+                                                () -> CompletableFuture.runAsync(() -> buffer.get(0)).get());
+            assertEquals("WrongThreadException", e.getCause().getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void shared_otherThread() throws Exception {
+        assumeTrue(SegmentArena.isSupported());
+        try (SegmentArena arena = SegmentArena.ofShared()) {
+            LongBuffer buffer = arena.longBufferFactories().iterator().next().allocate(TEST_ARRAY_SIZE);
+            CompletableFuture.runAsync(() -> buffer.put(0, 42)).get();
+            assertEquals(42, buffer.get(0));
+        }
+    }
+
+    @Test
+    void closed_access_throws() {
+        assumeTrue(SegmentArena.isSupported());
+        SegmentArena arena = SegmentArena.ofShared();
+        LongBuffer buffer = arena.longBufferFactories().iterator().next().allocate(TEST_ARRAY_SIZE);
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> buffer.get(0));
+        assertThrows(IllegalStateException.class, arena::close);
+    }
+}
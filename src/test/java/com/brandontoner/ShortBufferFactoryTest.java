@@ -16,9 +16,15 @@
 
 package com.brandontoner;
 
+import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 class ShortBufferFactoryTest extends AbstractFactoryTest<short[], ShortBuffer, ShortBufferFactory> {
     @Override
@@ -31,6 +37,62 @@ class ShortBufferFactoryTest extends AbstractFactoryTest<short[], ShortBuffer, S
         return ShortBuffer.wrap(array, offset, length);
     }
 
+    @Override
+    void copyInto(final ShortBuffer src, final ShortBuffer dst) {
+        ShortBufferFactory.copyInto(src, dst);
+    }
+
+    @Override
+    List<ShortBuffer> allocateChunked(final ShortBufferFactory factory, final short[] array, final int chunkLength) {
+        return factory.allocateChunked(array.length, chunkLength, i -> array[(int) i]);
+    }
+
+    @Override
+    ShortBuffer allocate(final ShortBufferFactory factory, final short[] array) {
+        return factory.allocate(array.length, i -> array[i]);
+    }
+
+    @Override
+    ShortBuffer allocate(final ShortBufferFactory factory, final short[] array, final ForkJoinPool pool) {
+        return factory.allocate(array.length, i -> array[i], pool);
+    }
+
+    @Override
+    Collection<ShortBufferFactory> factories(final Set<BufferTrait> required, final Set<BufferTrait> excluded) {
+        return ShortBufferFactory.factories(required, excluded);
+    }
+
+    @Override
+    Set<BufferTrait> traits(final ShortBufferFactory factory) {
+        return ShortBufferFactory.traits(factory);
+    }
+
+    @Override
+    ByteOrder order(final ShortBuffer buffer) {
+        return buffer.order();
+    }
+
+    @Override
+    int elementBytes() {
+        return Short.BYTES;
+    }
+
+    @Override
+    Map<ShortBufferFactory, ShortBuffer> copyOfAll(final short[] array) {
+        return ShortBufferFactory.copyOfAll(array);
+    }
+
+    @Override
+    ShortBufferFactory parallel(final ShortBufferFactory factory, final int threshold) {
+        return ShortBufferFactory.parallel(factory, threshold);
+    }
+
+    @Override
+    ShortBuffer copyOf(final ShortBufferFactory factory, final short[] array, final boolean sized) {
+        IntStream stream = IntStream.range(0, array.length).map(i -> array[i]);
+        return factory.copyOf(sized ? stream : stream.filter(value -> true));
+    }
+
     @Override
     short[] randomArray(final int size) {
         short[] output = new short[size];
@@ -54,4 +116,14 @@ class ShortBufferFactoryTest extends AbstractFactoryTest<short[], ShortBuffer, S
     Collection<ShortBufferFactory> readWriteFactories() {
         return ShortBufferFactory.readWriteFactories();
     }
+
+    @Override
+    Collection<ShortBufferFactory> quickFactories() {
+        return ShortBufferFactory.quickFactories();
+    }
+
+    @Override
+    Collection<ShortBufferFactory> alignmentSweepFactories() {
+        return ShortBufferFactory.alignmentSweepFactories();
+    }
 }